@@ -0,0 +1,190 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.benchmarks;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import flipkart.tef.annotations.EmitData;
+import flipkart.tef.annotations.InjectData;
+import flipkart.tef.bizlogics.AsyncDataAdapterBizlogic;
+import flipkart.tef.bizlogics.IBizlogic;
+import flipkart.tef.bizlogics.TefContext;
+import flipkart.tef.exception.ErrorCode;
+import flipkart.tef.exception.TefExecutionException;
+import flipkart.tef.execution.CachingDataInjector;
+import flipkart.tef.execution.CompiledFlow;
+import flipkart.tef.execution.DataContext;
+import flipkart.tef.execution.DataInjector;
+import flipkart.tef.execution.FlowExecutor;
+import flipkart.tef.execution.FluentCapabilityBuilder;
+import flipkart.tef.execution.VirtualThreads;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A flow which fans out to 8 {@link AsyncDataAdapterBizlogic}s, and joins their futures in a single bizlogic.
+ * This measures the cost of submitting and joining the tasks, as the adapters themselves do no work.
+ * <p>
+ * Date: 17/10/26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AsyncFanOutBenchmark {
+
+    // static, since the adapters are created by guice
+    private static ExecutorService executorService;
+
+    @Param({"fixed", "virtual"})
+    public String executor;
+
+    private Injector injector;
+    private CompiledFlow compiledFlow;
+
+    @Setup
+    public void setUp() {
+        executorService = "virtual".equals(executor)
+                ? VirtualThreads.newExecutor("tef-benchmark-")
+                : Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        injector = Guice.createInjector(binder -> binder.bind(DataInjector.class).to(CachingDataInjector.class));
+        compiledFlow = CompiledFlow.builder(new FluentCapabilityBuilder()
+                .withAdapter(FanOut1.class)
+                .withAdapter(FanOut2.class)
+                .withAdapter(FanOut3.class)
+                .withAdapter(FanOut4.class)
+                .withAdapter(FanOut5.class)
+                .withAdapter(FanOut6.class)
+                .withAdapter(FanOut7.class)
+                .withAdapter(FanOut8.class)
+                .withBizlogic(JoinBizlogic.class)
+                .dataflow()).dataInjector(new CachingDataInjector()).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Benchmark
+    public DataContext execute() throws Exception {
+        DataContext dataContext = new DataContext();
+        new FlowExecutor(compiledFlow, dataContext, new TefContext(new HashMap<>(), injector, e -> {
+        })).execute();
+        return dataContext;
+    }
+
+    abstract static class FanOutAdapter extends AsyncDataAdapterBizlogic<Future<Optional<String>>, String> {
+
+        FanOutAdapter() {
+            super(executorService, true);
+        }
+
+        @Override
+        public String getResult(TefContext tefContext) {
+            return "result";
+        }
+    }
+
+    @EmitData(name = "fanOut1")
+    public static class FanOut1 extends FanOutAdapter {
+    }
+
+    @EmitData(name = "fanOut2")
+    public static class FanOut2 extends FanOutAdapter {
+    }
+
+    @EmitData(name = "fanOut3")
+    public static class FanOut3 extends FanOutAdapter {
+    }
+
+    @EmitData(name = "fanOut4")
+    public static class FanOut4 extends FanOutAdapter {
+    }
+
+    @EmitData(name = "fanOut5")
+    public static class FanOut5 extends FanOutAdapter {
+    }
+
+    @EmitData(name = "fanOut6")
+    public static class FanOut6 extends FanOutAdapter {
+    }
+
+    @EmitData(name = "fanOut7")
+    public static class FanOut7 extends FanOutAdapter {
+    }
+
+    @EmitData(name = "fanOut8")
+    public static class FanOut8 extends FanOutAdapter {
+    }
+
+    public static class JoinBizlogic implements IBizlogic {
+
+        @InjectData(name = "fanOut1")
+        Future<Optional<String>> fanOut1;
+        @InjectData(name = "fanOut2")
+        Future<Optional<String>> fanOut2;
+        @InjectData(name = "fanOut3")
+        Future<Optional<String>> fanOut3;
+        @InjectData(name = "fanOut4")
+        Future<Optional<String>> fanOut4;
+        @InjectData(name = "fanOut5")
+        Future<Optional<String>> fanOut5;
+        @InjectData(name = "fanOut6")
+        Future<Optional<String>> fanOut6;
+        @InjectData(name = "fanOut7")
+        Future<Optional<String>> fanOut7;
+        @InjectData(name = "fanOut8")
+        Future<Optional<String>> fanOut8;
+
+        @Override
+        public void execute(TefContext tefContext) throws TefExecutionException {
+            try {
+                fanOut1.get();
+                fanOut2.get();
+                fanOut3.get();
+                fanOut4.get();
+                fanOut5.get();
+                fanOut6.get();
+                fanOut7.get();
+                fanOut8.get();
+            } catch (InterruptedException | ExecutionException e) {
+                throw new TefExecutionException("Fan out failed", e, ErrorCode.NON_RETRYABLE);
+            }
+        }
+    }
+}
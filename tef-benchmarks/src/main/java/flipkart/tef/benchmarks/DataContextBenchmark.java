@@ -0,0 +1,92 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.benchmarks;
+
+import flipkart.tef.bizlogics.DataAdapterKey;
+import flipkart.tef.bizlogics.DataAdapterResult;
+import flipkart.tef.execution.DataContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Put and get of the {@link DataContext}, with a given number of entries in the context.
+ * <p>
+ * Date: 17/10/26
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataContextBenchmark {
+
+    @Param({"8", "64"})
+    public int entries;
+
+    private DataContext context;
+    private DataAdapterKey<String>[] keys;
+    private DataAdapterResult[] results;
+    private int index;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        context = new DataContext();
+        keys = new DataAdapterKey[entries];
+        results = new DataAdapterResult[entries];
+        for (int i = 0; i < entries; i++) {
+            keys[i] = DataAdapterKey.of("data" + i, String.class);
+            results[i] = new DataAdapterResult("value" + i, "data" + i, String.class);
+            context.put(results[i]);
+        }
+    }
+
+    @Benchmark
+    public void put() {
+        context.put(results[next()]);
+    }
+
+    @Benchmark
+    public String get() {
+        return context.get(keys[next()]);
+    }
+
+    @Benchmark
+    public String getWithNewKey() {
+        // Keys are often created at the call site
+        int i = next();
+        return context.get(DataAdapterKey.of(keys[i].getName(), String.class));
+    }
+
+    private int next() {
+        int i = index;
+        index = i + 1 == entries ? 0 : i + 1;
+        return i;
+    }
+}
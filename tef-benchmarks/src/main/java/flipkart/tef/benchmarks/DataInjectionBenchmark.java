@@ -0,0 +1,149 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.benchmarks;
+
+import flipkart.tef.annotations.InjectData;
+import flipkart.tef.bizlogics.DataAdapterKey;
+import flipkart.tef.bizlogics.DataAdapterResult;
+import flipkart.tef.bizlogics.IBizlogic;
+import flipkart.tef.bizlogics.TefContext;
+import flipkart.tef.execution.CachingDataInjector;
+import flipkart.tef.execution.DataContext;
+import flipkart.tef.execution.DataInjector;
+import flipkart.tef.execution.DefaultDataInjector;
+import flipkart.tef.execution.InjectableValueProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Injection of data into a bizlogic whose {@link InjectData} fields are spread across a class hierarchy of the given depth.
+ * The data injectors are not generated for this module, so {@link DefaultDataInjector} discovers the fields via reflection.
+ * <p>
+ * Date: 17/10/26
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataInjectionBenchmark {
+
+    @Param({"1", "4", "8"})
+    public int depth;
+
+    @Param({"default", "caching"})
+    public String injector;
+
+    private DataInjector dataInjector;
+    private InjectableValueProvider valueProvider;
+    private IBizlogic bizlogic;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        dataInjector = "caching".equals(injector) ? new CachingDataInjector() : new DefaultDataInjector();
+
+        DataContext context = new DataContext();
+        for (int level = 1; level <= 8; level++) {
+            context.put(new DataAdapterResult("a" + level, "level" + level + "a", String.class));
+            context.put(new DataAdapterResult(level, "level" + level + "b", Integer.class));
+        }
+        valueProvider = (fieldType, name) -> context.get(DataAdapterKey.of(name, fieldType));
+
+        Class<? extends IBizlogic>[] levels = new Class[]{Level1.class, Level2.class, Level3.class, Level4.class,
+                Level5.class, Level6.class, Level7.class, Level8.class};
+        bizlogic = levels[depth - 1].newInstance();
+    }
+
+    @Benchmark
+    public IBizlogic injectData() throws Exception {
+        dataInjector.injectData(bizlogic, bizlogic.getClass(), valueProvider);
+        return bizlogic;
+    }
+
+    public static class Level1 implements IBizlogic {
+        @InjectData(name = "level1a")
+        String level1a;
+        @InjectData(name = "level1b")
+        Integer level1b;
+
+        @Override
+        public void execute(TefContext tefContext) {
+        }
+    }
+
+    public static class Level2 extends Level1 {
+        @InjectData(name = "level2a")
+        String level2a;
+        @InjectData(name = "level2b")
+        Integer level2b;
+    }
+
+    public static class Level3 extends Level2 {
+        @InjectData(name = "level3a")
+        String level3a;
+        @InjectData(name = "level3b")
+        Integer level3b;
+    }
+
+    public static class Level4 extends Level3 {
+        @InjectData(name = "level4a")
+        String level4a;
+        @InjectData(name = "level4b")
+        Integer level4b;
+    }
+
+    public static class Level5 extends Level4 {
+        @InjectData(name = "level5a")
+        String level5a;
+        @InjectData(name = "level5b")
+        Integer level5b;
+    }
+
+    public static class Level6 extends Level5 {
+        @InjectData(name = "level6a")
+        String level6a;
+        @InjectData(name = "level6b")
+        Integer level6b;
+    }
+
+    public static class Level7 extends Level6 {
+        @InjectData(name = "level7a")
+        String level7a;
+        @InjectData(name = "level7b")
+        Integer level7b;
+    }
+
+    public static class Level8 extends Level7 {
+        @InjectData(name = "level8a")
+        String level8a;
+        @InjectData(name = "level8b")
+        Integer level8b;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.benchmarks;
+
+import flipkart.tef.execution.FluentCapabilityBuilder;
+import flipkart.tef.flow.SimpleFlow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building a flow (resolving the dependencies, sorting and computing the graph) from synthetic DAGs.
+ * <p>
+ * Date: 17/10/26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlowBuilderBenchmark {
+
+    @Param({"10", "100", "1000", "5000"})
+    public int nodes;
+
+    private SyntheticFlows.Dag dag;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dag = SyntheticFlows.generate(nodes, 42);
+    }
+
+    @Benchmark
+    public SimpleFlow build() {
+        FluentCapabilityBuilder builder = new FluentCapabilityBuilder();
+        for (int i = 0; i < dag.size(); i++) {
+            builder.withDependency(dag.getNode(i), dag.getDependencies(i));
+        }
+        return builder.dataflow();
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.benchmarks;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import flipkart.tef.FlowExecutionListener;
+import flipkart.tef.annotations.EmitData;
+import flipkart.tef.annotations.InjectData;
+import flipkart.tef.bizlogics.DataAdapterBizlogic;
+import flipkart.tef.bizlogics.IBizlogic;
+import flipkart.tef.bizlogics.TefContext;
+import flipkart.tef.execution.CachingDataInjector;
+import flipkart.tef.execution.CompiledFlow;
+import flipkart.tef.execution.DataContext;
+import flipkart.tef.execution.DataInjector;
+import flipkart.tef.execution.FlowExecutor;
+import flipkart.tef.execution.FluentCapabilityBuilder;
+import flipkart.tef.flow.SimpleFlow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End to end execution of a small flow of data adapters and bizlogics with {@link FlowExecutor}, with the given number
+ * of listeners attached: once for a {@link SimpleFlow}, and once for a {@link CompiledFlow} which is built ahead.
+ * <p>
+ * Date: 17/10/26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlowExecutionBenchmark {
+
+    @Param({"0", "1", "4"})
+    public int listeners;
+
+    private Injector injector;
+    private SimpleFlow flow;
+    private CompiledFlow compiledFlow;
+    private FlowExecutionListener[] flowListeners;
+
+    @Setup
+    public void setUp() {
+        injector = Guice.createInjector(binder -> binder.bind(DataInjector.class).to(CachingDataInjector.class));
+        flow = new FluentCapabilityBuilder()
+                .withAdapter(UserAdapter.class)
+                .withAdapter(CartAdapter.class)
+                .withAdapter(PriceAdapter.class)
+                .withBizlogic(CartValidator.class)
+                .withBizlogic(PriceValidator.class)
+                .withBizlogic(CheckoutBizlogic.class)
+                .dataflow();
+
+        flowListeners = new FlowExecutionListener[listeners];
+        CompiledFlow.Builder builder = CompiledFlow.builder(flow).dataInjector(new CachingDataInjector());
+        for (int i = 0; i < listeners; i++) {
+            flowListeners[i] = new CountingListener();
+            builder.addListener(flowListeners[i]);
+        }
+        compiledFlow = builder.build();
+    }
+
+    @Benchmark
+    public DataContext executeFlow() throws Exception {
+        DataContext dataContext = new DataContext();
+        FlowExecutor executor = new FlowExecutor(flow, dataContext, newTefContext());
+        for (FlowExecutionListener listener : flowListeners) {
+            executor.addListener(listener);
+        }
+        executor.execute();
+        return dataContext;
+    }
+
+    @Benchmark
+    public DataContext executeCompiledFlow() throws Exception {
+        DataContext dataContext = new DataContext();
+        new FlowExecutor(compiledFlow, dataContext, newTefContext()).execute();
+        return dataContext;
+    }
+
+    private TefContext newTefContext() {
+        return new TefContext(new HashMap<>(), injector, e -> {
+        });
+    }
+
+    static class CountingListener implements FlowExecutionListener {
+        private long count;
+
+        @Override
+        public void pre(IBizlogic bizlogic) {
+            count++;
+        }
+
+        @Override
+        public void post(IBizlogic bizlogic) {
+            count++;
+        }
+    }
+
+    @EmitData(name = "user")
+    public static class UserAdapter extends DataAdapterBizlogic<String> {
+
+        @Override
+        public String adapt(TefContext tefContext) {
+            return "user";
+        }
+    }
+
+    @EmitData(name = "cart")
+    public static class CartAdapter extends DataAdapterBizlogic<String> {
+
+        @InjectData(name = "user")
+        String user;
+
+        @Override
+        public String adapt(TefContext tefContext) {
+            return user + "-cart";
+        }
+    }
+
+    @EmitData(name = "price")
+    public static class PriceAdapter extends DataAdapterBizlogic<Long> {
+
+        @InjectData(name = "cart")
+        String cart;
+
+        @Override
+        public Long adapt(TefContext tefContext) {
+            return (long) cart.length();
+        }
+    }
+
+    public static class CartValidator implements IBizlogic {
+
+        @InjectData(name = "cart")
+        String cart;
+
+        @Override
+        public void execute(TefContext tefContext) {
+        }
+    }
+
+    public static class PriceValidator implements IBizlogic {
+
+        @InjectData(name = "price")
+        Long price;
+
+        @Override
+        public void execute(TefContext tefContext) {
+        }
+    }
+
+    public static class CheckoutBizlogic implements IBizlogic {
+
+        @InjectData(name = "user")
+        String user;
+
+        @InjectData(name = "price")
+        Long price;
+
+        @Override
+        public void execute(TefContext tefContext) {
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.benchmarks;
+
+import flipkart.tef.bizlogics.IBizlogic;
+import flipkart.tef.bizlogics.TefContext;
+import net.bytebuddy.ByteBuddy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates synthetic flows, since building a flow needs a distinct bizlogic class for every node.
+ * <p>
+ * Every node of a synthetic DAG depends upon up to 3 randomly chosen nodes generated before it, so the nodes are
+ * generated in a topological order. The graph is seeded, and hence the same across runs.
+ * <p>
+ * Date: 17/10/26
+ */
+public final class SyntheticFlows {
+
+    private static final int MAX_DEPENDENCIES = 3;
+
+    private SyntheticFlows() {
+    }
+
+    /**
+     * @param size Number of nodes
+     * @param seed Seed of the random dependencies
+     * @return The generated DAG
+     */
+    public static Dag generate(int size, long seed) {
+        NodeClassLoader classLoader = new NodeClassLoader(SyntheticFlows.class.getClassLoader());
+        // Separates the classes of concurrent trials, since a class loader cannot define the same name twice
+        String prefix = Node.class.getPackage().getName() + ".generated.Node" + Long.toHexString(System.nanoTime()) + "_";
+        Random random = new Random(seed);
+
+        List<Class<? extends IBizlogic>> nodes = new ArrayList<>(size);
+        List<Class<? extends IBizlogic>[]> dependencies = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            byte[] bytes = new ByteBuddy()
+                    .subclass(Node.class)
+                    .name(prefix + i)
+                    .make()
+                    .getBytes();
+            Class<? extends IBizlogic> node = classLoader.define(prefix + i, bytes).asSubclass(IBizlogic.class);
+
+            int dependencyCount = i == 0 ? 0 : 1 + random.nextInt(Math.min(i, MAX_DEPENDENCIES));
+            @SuppressWarnings("unchecked")
+            Class<? extends IBizlogic>[] nodeDependencies = new Class[dependencyCount];
+            for (int d = 0; d < dependencyCount; d++) {
+                nodeDependencies[d] = nodes.get(random.nextInt(i));
+            }
+            nodes.add(node);
+            dependencies.add(nodeDependencies);
+        }
+        return new Dag(nodes, dependencies);
+    }
+
+    /**
+     * The nodes of a synthetic DAG, and the nodes each of them depends upon
+     */
+    public static final class Dag {
+        private final List<Class<? extends IBizlogic>> nodes;
+        private final List<Class<? extends IBizlogic>[]> dependencies;
+
+        Dag(List<Class<? extends IBizlogic>> nodes, List<Class<? extends IBizlogic>[]> dependencies) {
+            this.nodes = nodes;
+            this.dependencies = dependencies;
+        }
+
+        public int size() {
+            return nodes.size();
+        }
+
+        public Class<? extends IBizlogic> getNode(int index) {
+            return nodes.get(index);
+        }
+
+        public Class<? extends IBizlogic>[] getDependencies(int index) {
+            return dependencies.get(index);
+        }
+    }
+
+    /**
+     * The super class of the generated nodes. Public, so that the generated classes can extend it from another loader.
+     */
+    public static class Node implements IBizlogic {
+
+        @Override
+        public void execute(TefContext tefContext) {
+        }
+    }
+
+    private static final class NodeClassLoader extends ClassLoader {
+
+        NodeClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        Class<?> define(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef;
+
+import flipkart.tef.bizlogics.DataAdapterKey;
+import flipkart.tef.bizlogics.IBizlogic;
+
+/**
+ * An event during the execution of a bizlogic, delivered to an {@link ExecutionEventListener}.
+ * <p>
+ * The timestamps are {@link System#nanoTime()} values taken once by the executor and shared by all the listeners.
+ * Events are reused across executions: an event is only valid during the callback which received it, and listeners
+ * should copy the values they need, instead of holding a reference to the event.
+ * <p>
+ * Date: 17/10/26
+ */
+public interface ExecutionEvent {
+
+    enum Type {
+        /**
+         * The bizlogic is about to be executed, after which its data is injected
+         */
+        START,
+        /**
+         * The bizlogic completed
+         */
+        SUCCESS,
+        /**
+         * The bizlogic (or the injection of its data) failed, or the bizlogic timed out
+         */
+        FAILURE,
+        /**
+         * A data adapter served a result it had already computed (for this flow, or in its result cache) instead of
+         * executing its {@code adapt} method. Followed by {@link #DATA_EMITTED}
+         */
+        CACHE_HIT,
+        /**
+         * A data adapter emitted non-null data into the data context
+         */
+        DATA_EMITTED
+    }
+
+    Type getType();
+
+    IBizlogic getBizlogic();
+
+    /**
+     * @return {@link System#nanoTime()} when the execution of the bizlogic started
+     */
+    long getStartNanos();
+
+    /**
+     * @return {@link System#nanoTime()} when this event occurred
+     */
+    long getNanoTime();
+
+    /**
+     * @return Nanos elapsed between the start of the execution and this event, i.e. the latency of the bizlogic for
+     * {@link Type#SUCCESS} and {@link Type#FAILURE}
+     */
+    default long getElapsedNanos() {
+        return getNanoTime() - getStartNanos();
+    }
+
+    /**
+     * @return The thread on which this event occurred. A completable data adapter may complete on a different thread
+     * than the one it started on.
+     */
+    Thread getThread();
+
+    /**
+     * @return Key of the data, for {@link Type#CACHE_HIT} and {@link Type#DATA_EMITTED}. null otherwise.
+     */
+    DataAdapterKey<?> getKey();
+
+    /**
+     * @return The data, for {@link Type#CACHE_HIT} and {@link Type#DATA_EMITTED}. null otherwise.
+     */
+    Object getData();
+
+    /**
+     * @return The failure, for {@link Type#FAILURE}. null otherwise.
+     */
+    Throwable getFailure();
+}
@@ -0,0 +1,69 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef;
+
+import flipkart.tef.bizlogics.IBizlogic;
+
+/**
+ * A {@link FlowExecutionListener} which is notified of the outcome, timing and data of every execution via
+ * {@link ExecutionEvent}s, instead of {@link #pre(IBizlogic)} and {@link #post(IBizlogic)}.
+ * <p>
+ * Every execution of a bizlogic is notified via {@link #onStart(ExecutionEvent)}, followed by either
+ * {@link #onSuccess(ExecutionEvent)} or {@link #onFailure(ExecutionEvent)}. A data adapter notifies
+ * {@link #onCacheHit(ExecutionEvent)} and {@link #onDataEmitted(ExecutionEvent)} in between.
+ * The event passed to a callback is reused, see {@link ExecutionEvent}.
+ * <p>
+ * Date: 17/10/26
+ */
+public interface ExecutionEventListener extends FlowExecutionListener {
+
+    default void onStart(ExecutionEvent event) {
+    }
+
+    default void onSuccess(ExecutionEvent event) {
+    }
+
+    default void onFailure(ExecutionEvent event) {
+    }
+
+    default void onCacheHit(ExecutionEvent event) {
+    }
+
+    default void onDataEmitted(ExecutionEvent event) {
+    }
+
+    /**
+     * Not invoked for an {@link ExecutionEventListener}, see {@link #onStart(ExecutionEvent)}
+     */
+    @Override
+    default void pre(IBizlogic bizlogic) {
+    }
+
+    /**
+     * Not invoked for an {@link ExecutionEventListener}, see {@link #onSuccess(ExecutionEvent)}
+     */
+    @Override
+    default void post(IBizlogic bizlogic) {
+    }
+
+    /**
+     * Not invoked for an {@link ExecutionEventListener}, see {@link #onFailure(ExecutionEvent)}
+     */
+    @Override
+    default void failed(IBizlogic bizlogic, Throwable failure) {
+    }
+}
@@ -40,4 +40,13 @@ public interface FlowExecutionListener {
      * @param bizlogic
      */
     void post(IBizlogic bizlogic);
+
+    /**
+     * Triggered instead of {@link #post(IBizlogic)} when the execution of a bizlogic fails
+     *
+     * @param bizlogic
+     * @param failure  The exception thrown by the bizlogic (or by the injection of its data)
+     */
+    default void failed(IBizlogic bizlogic, Throwable failure) {
+    }
 }
@@ -0,0 +1,45 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a DataAdapter for request coalescing (single-flight).
+ * Concurrent executions of the adapter (across flows) whose {@link InjectData} inputs are equal share a single
+ * in-flight computation and its result. Once the computation completes, the next execution computes afresh.
+ * <p>
+ * The inputs are compared via equals/hashCode, and the emitted data is shared between the flows,
+ * hence it should not be mutated by the consumers.
+ * <p>
+ * Only the {@link InjectData} fields are compared by default, so the adapter must not read anything else that varies
+ * across requests (e.g. the caller or tenant held in the TefContext, or request scoped objects), unless it returns
+ * it from {@code DataAdapterBizlogic.fingerprintInputs}. Otherwise a request is served the data computed for another.
+ * <p>
+ * Date: 17/10/26
+ */
+@Documented
+@Inherited
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Coalesce {
+}
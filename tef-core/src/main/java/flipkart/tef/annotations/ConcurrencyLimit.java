@@ -0,0 +1,56 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounds the number of concurrent executions of a bizlogic (typically a data adapter calling a remote dependency)
+ * across all the flows, with a limit which adapts to the health of the dependency (AIMD).
+ * <p>
+ * The limit is reduced multiplicatively when the bizlogic fails with ErrorCode.TOO_MANY_REQUEST or
+ * ErrorCode.DEADLINE_EXCEEDED, or takes longer than {@link #latencyThreshold()}, and grows by 1/limit on other
+ * executions (i.e. by about one per limit's worth of executions) while the bizlogic is using at least half of it. Once the limit is reached, executions are shed:
+ * a {@link NonCritical} bizlogic is skipped, others fail fast with ErrorCode.TOO_MANY_REQUEST.
+ * <p>
+ * Date: 17/10/26
+ */
+@Documented
+@Inherited
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConcurrencyLimit {
+
+    int initialLimit() default 20;
+
+    int minLimit() default 1;
+
+    int maxLimit() default 200;
+
+    /**
+     * @return Executions slower than this are treated as a sign of overload. 0 to disable.
+     */
+    long latencyThreshold() default 0;
+
+    TimeUnit unit() default TimeUnit.MILLISECONDS;
+}
@@ -0,0 +1,64 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hedges the execution of an AsyncDataAdapterBizlogic: if the result has not arrived within the given percentile
+ * of the latencies of the adapter, a second attempt is started, and the result of whichever attempt completes first
+ * is emitted. The other attempt is cancelled.
+ * <p>
+ * Hedging trades extra load for lower tail latency, and should only be used for idempotent (read-only) adapters.
+ * The extra load is bound by {@link #maxHedgeRatio()}.
+ * <p>
+ * Date: 17/10/26
+ */
+@Documented
+@Inherited
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Hedge {
+
+    /**
+     * @return The percentile of the latencies of the adapter, after which a hedge is started
+     */
+    double percentile() default 95;
+
+    /**
+     * @return Delay before a hedge is started, till enough latencies are recorded to compute the percentile
+     */
+    long initialDelay() default 50;
+
+    /**
+     * @return Minimum delay before a hedge is started
+     */
+    long minDelay() default 1;
+
+    TimeUnit unit() default TimeUnit.MILLISECONDS;
+
+    /**
+     * @return Maximum number of hedges per execution of the adapter, e.g. 0.1 for at most 10% extra load
+     */
+    double maxHedgeRatio() default 0.1;
+}
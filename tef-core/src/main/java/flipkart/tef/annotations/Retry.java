@@ -0,0 +1,60 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retries a bizlogic which fails with ErrorCode.RETRYABLE or ErrorCode.TOO_MANY_REQUEST.
+ * <p>
+ * The backoff between attempts grows exponentially (with jitter) from {@link #backoff()} up to {@link #maxBackoff()}.
+ * When the bizlogic is throttled (TOO_MANY_REQUEST), the backoff starts from {@link #throttledBackoff()} instead.
+ * Every retry consumes a token from the retry budget of the executor, and the bizlogic is not retried once the budget
+ * is exhausted or if the backoff would exceed the deadline of the flow.
+ * <p>
+ * Date: 17/10/26
+ */
+@Documented
+@Inherited
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Retry {
+
+    /**
+     * @return Maximum number of attempts, including the first one
+     */
+    int maxAttempts() default 3;
+
+    long backoff() default 50;
+
+    long maxBackoff() default 1000;
+
+    double multiplier() default 2;
+
+    /**
+     * @return Backoff before the first retry, when the bizlogic fails with ErrorCode.TOO_MANY_REQUEST
+     */
+    long throttledBackoff() default 1000;
+
+    TimeUnit unit() default TimeUnit.MILLISECONDS;
+}
@@ -18,21 +18,77 @@ package flipkart.tef.bizlogics;
 
 import com.google.common.base.Preconditions;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * This class represents the key that is used to stash the DataAdapter response into the Data Context
- * 
+ * <p>
+ * Keys are interned in a global registry, which assigns a stable int id to every distinct name and result class.
+ * Use {@link #of(String, Class)} to get the canonical instance without an allocation.
+ * Keys created via the constructor are equal to the canonical instance, and share its id.
+ * <p>
+ * The registry is never pruned. The keys of a result class are held via a {@link ClassValue} on that class, and each key
+ * strongly references the class, so the keys live as long as the class, i.e. till its class loader is collected.
+ * Ids are not reused either: every distinct name and result class takes up an id for the life of the JVM, including the
+ * keys of classes which are unloaded later. Since {@link flipkart.tef.flow.DataSlots} indexes slots by id, names should
+ * come from a bounded set (e.g. {@link flipkart.tef.annotations.EmitData}), and not be generated per request.
+ *
  * Date: 19/01/21
  */
 public class DataAdapterKey<T> {
 
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    /**
+     * Canonical keys, by result class and name
+     */
+    private static final ClassValue<ConcurrentMap<String, DataAdapterKey<?>>> REGISTRY = new ClassValue<ConcurrentMap<String, DataAdapterKey<?>>>() {
+        @Override
+        protected ConcurrentMap<String, DataAdapterKey<?>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
     // The name of the data being emitted. Its allowed for the name to be empty (which is the default behavior) .
     private final String name;
     private final Class<T> resultClass;
+    private final int id;
+    private final int hash;
 
+    /**
+     * Prefer {@link #of(String, Class)}, which does not allocate a key for every call.
+     */
     public DataAdapterKey(String name, Class<T> resultClass) {
+        this(name, resultClass, of(name, resultClass).getId());
+    }
+
+    private DataAdapterKey(String name, Class<T> resultClass, int id) {
         Preconditions.checkArgument(name != null);
         this.name = name;
         this.resultClass = resultClass;
+        this.id = id;
+        this.hash = 31 * name.hashCode() + resultClass.hashCode();
+    }
+
+    /**
+     * Returns the canonical key for the given name and result class.
+     *
+     * @param name        Name of the data, can be empty.
+     * @param resultClass Class of the data
+     * @return The interned key
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> DataAdapterKey<T> of(String name, Class<T> resultClass) {
+        Preconditions.checkArgument(name != null);
+        Preconditions.checkArgument(resultClass != null);
+        ConcurrentMap<String, DataAdapterKey<?>> keys = REGISTRY.get(resultClass);
+        DataAdapterKey<?> key = keys.get(name);
+        if (key == null) {
+            key = keys.computeIfAbsent(name, n -> new DataAdapterKey<>(n, resultClass, NEXT_ID.getAndIncrement()));
+        }
+        return (DataAdapterKey<T>) key;
     }
 
     @Override
@@ -40,17 +96,13 @@ public class DataAdapterKey<T> {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
 
-        DataAdapterKey<?> that = (DataAdapterKey<?>) o;
-
-        if (!getName().equals(that.getName())) return false;
-        return resultClass.equals(that.resultClass);
+        // ids are unique per name and result class
+        return id == ((DataAdapterKey<?>) o).id;
     }
 
     @Override
     public int hashCode() {
-        int result = getName().hashCode();
-        result = 31 * result + resultClass.hashCode();
-        return result;
+        return hash;
     }
 
     public String getName() {
@@ -60,4 +112,11 @@ public class DataAdapterKey<T> {
     public Class<T> getResultClass() {
         return resultClass;
     }
+
+    /**
+     * @return A stable id of the key, unique per name and result class. Ids are dense, and start from 0.
+     */
+    public int getId() {
+        return id;
+    }
 }
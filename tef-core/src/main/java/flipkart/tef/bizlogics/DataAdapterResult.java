@@ -38,7 +38,8 @@ public class DataAdapterResult {
         // Result could be null in case of nullable data adapters
         // This is to support that
         if (result != null) {
-            this.key = new DataAdapterKey(name, resultType == null ? result.getClass() : resultType);
+            Class<?> keyType = resultType == null ? result.getClass() : resultType;
+            this.key = DataAdapterKey.of(name, keyType);
         }
     }
 
@@ -0,0 +1,74 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.bizlogics;
+
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A point in time (on the {@link System#nanoTime()} clock) by which an execution should complete.
+ * <p>
+ * Date: 17/10/26
+ */
+public final class Deadline {
+
+    private final long deadlineNanos;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * @param duration Time from now
+     * @param unit     Unit of the duration
+     * @return A deadline which expires after the given duration
+     */
+    public static Deadline after(long duration, TimeUnit unit) {
+        Preconditions.checkArgument(duration >= 0, Messages.DURATION_MUST_NOT_BE_NEGATIVE);
+        Preconditions.checkArgument(unit != null);
+        return new Deadline(System.nanoTime() + unit.toNanos(duration));
+    }
+
+    /**
+     * @return Time left till the deadline, which is negative if the deadline has expired.
+     */
+    public long remaining(TimeUnit unit) {
+        return unit.convert(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * @return The earlier of this deadline and the one which expires after the given duration
+     */
+    public Deadline min(long duration, TimeUnit unit) {
+        Deadline other = after(duration, unit);
+        return other.deadlineNanos - deadlineNanos < 0 ? other : this;
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline[remaining " + remaining(TimeUnit.MILLISECONDS) + " ms]";
+    }
+
+    static class Messages {
+        public static final String DURATION_MUST_NOT_BE_NEGATIVE = "Duration of the deadline must not be negative";
+    }
+}
@@ -20,6 +20,7 @@ import com.google.inject.Injector;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 /**
@@ -34,12 +35,22 @@ public class TefContext {
     private final Map<String, Object> extensions;
     private final Injector injector;
     private final Consumer<Throwable> exceptionLogger;
+    private final Deadline deadline;
 
 
     public TefContext(Map<String, Object> additionalContext, Injector injector, Consumer<Throwable> exceptionLogger) {
+        this(additionalContext, injector, exceptionLogger, null);
+    }
+
+    /**
+     * @param deadline The time by which the flow should complete, null if the flow does not have a deadline.
+     */
+    public TefContext(Map<String, Object> additionalContext, Injector injector, Consumer<Throwable> exceptionLogger,
+                      Deadline deadline) {
         this.extensions = new HashMap<>(additionalContext);
         this.injector = injector;
         this.exceptionLogger = exceptionLogger;
+        this.deadline = deadline;
     }
 
     public <T> T getAdditionalContext(String key, Class<T> type) {
@@ -53,4 +64,13 @@ public class TefContext {
     public Consumer<Throwable> getExceptionLogger() {
         return exceptionLogger;
     }
+
+    /**
+     * Bizlogics can use the deadline to bound their own calls, see {@link Deadline#remaining(TimeUnit)}.
+     *
+     * @return The time by which the flow should complete, null if there is none.
+     */
+    public Deadline getDeadline() {
+        return deadline;
+    }
 }
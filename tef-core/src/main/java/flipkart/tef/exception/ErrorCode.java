@@ -17,7 +17,8 @@
 package flipkart.tef.exception;
 
 public enum ErrorCode {
-    RETRYABLE, //for future iterations
+    RETRYABLE, // retried if the bizlogic declares a retry policy (See flipkart.tef.annotations.Retry)
     NON_RETRYABLE,
-    TOO_MANY_REQUEST
+    TOO_MANY_REQUEST, // reduces the concurrency limit of the bizlogic (See flipkart.tef.annotations.ConcurrencyLimit)
+    DEADLINE_EXCEEDED // the flow or a bizlogic did not complete within its time budget
 }
\ No newline at end of file
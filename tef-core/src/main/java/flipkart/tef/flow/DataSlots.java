@@ -0,0 +1,73 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.flow;
+
+import com.google.common.collect.ImmutableList;
+import flipkart.tef.bizlogics.DataAdapterKey;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Assigns an int slot to every data key which is emitted by a data adapter of a {@link SimpleFlow}.
+ * The slots are dense, i.e. they range from 0 to {@link #size()} - 1, so that per request data can be stored in an array.
+ * <p>
+ * The slots are computed once when the flow is built, and are looked up by the id of the key without hashing.
+ * <p>
+ * Date: 17/10/26
+ */
+public final class DataSlots {
+
+    /**
+     * Slots indexed by the id of the data key, -1 for keys which are not part of the flow.
+     */
+    private final int[] slotsById;
+    private final ImmutableList<DataAdapterKey<?>> keys;
+
+    DataSlots(Collection<DataAdapterKey<?>> keys) {
+        this.keys = ImmutableList.copyOf(keys);
+        int maxId = -1;
+        for (DataAdapterKey<?> key : this.keys) {
+            maxId = Math.max(maxId, key.getId());
+        }
+        this.slotsById = new int[maxId + 1];
+        Arrays.fill(slotsById, -1);
+        for (int slot = 0; slot < this.keys.size(); slot++) {
+            slotsById[this.keys.get(slot).getId()] = slot;
+        }
+    }
+
+    /**
+     * @return Number of slots
+     */
+    public int size() {
+        return keys.size();
+    }
+
+    /**
+     * @param key A data key
+     * @return The slot of the key, or -1 if the key is not emitted by any data adapter of the flow.
+     */
+    public int getSlot(DataAdapterKey<?> key) {
+        int id = key.getId();
+        return id < slotsById.length ? slotsById[id] : -1;
+    }
+
+    public DataAdapterKey<?> getKey(int slot) {
+        return keys.get(slot);
+    }
+}
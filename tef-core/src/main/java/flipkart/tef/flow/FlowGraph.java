@@ -0,0 +1,234 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.flow;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Multimap;
+import flipkart.tef.bizlogics.IBizlogic;
+import flipkart.tef.bizlogics.IDataBizlogic;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An immutable, index based representation of the Execution DAG of a {@link SimpleFlow}.
+ * <p>
+ * Every bizlogic is identified by an int id, which is its position in the topologically sorted list of bizlogics
+ * of the flow. Hence the predecessors of a bizlogic always have a smaller id than the bizlogic itself.
+ * <p>
+ * The graph is computed once when the flow is built, and can be read by concurrent schedulers
+ * without any additional cost per execution.
+ * <p>
+ * Date: 17/10/26
+ */
+public final class FlowGraph {
+
+    private static final int[] NONE = new int[0];
+
+    private final List<Class<? extends IBizlogic>> bizlogics;
+    private final ImmutableMap<Class<? extends IBizlogic>, Integer> ids;
+
+    /**
+     * Ids of the bizlogics which have to complete before the bizlogic with a given id can be executed.
+     */
+    private final int[][] predecessors;
+
+    /**
+     * Ids of the bizlogics which depend upon the bizlogic with a given id.
+     */
+    private final int[][] successors;
+
+    /**
+     * The length of the longest path from any start node to the bizlogic with a given id.
+     * Bizlogics at the same level do not depend upon each other.
+     */
+    private final int[] levels;
+    private final int levelCount;
+    private final int[] startNodes;
+
+    /**
+     * Flags if the output of the bizlogic with a given id is consumed by the flow.
+     * See {@link #isDemanded(int)}
+     */
+    private final boolean[] demanded;
+
+    FlowGraph(List<Class<? extends IBizlogic>> bizlogics,
+              Multimap<Class<? extends IBizlogic>, Class<? extends IBizlogic>> dependencies) {
+        int size = bizlogics.size();
+        this.bizlogics = bizlogics;
+
+        ImmutableMap.Builder<Class<? extends IBizlogic>, Integer> idBuilder = ImmutableMap.builder();
+        for (int i = 0; i < size; i++) {
+            idBuilder.put(bizlogics.get(i), i);
+        }
+        this.ids = idBuilder.build();
+
+        this.predecessors = new int[size][];
+        int[] successorCount = new int[size];
+        for (int id = 0; id < size; id++) {
+            // Only retain the edges between the bizlogics which are part of this flow
+            Set<Integer> predecessorIds = new LinkedHashSet<>();
+            for (Class<? extends IBizlogic> dependency : dependencies.get(bizlogics.get(id))) {
+                Integer predecessor = ids.get(dependency);
+                if (predecessor != null) {
+                    Preconditions.checkArgument(predecessor < id, Messages.NOT_IN_TOPOLOGICAL_ORDER,
+                            bizlogics.get(id).getName(), dependency.getName());
+                    predecessorIds.add(predecessor);
+                }
+            }
+            predecessors[id] = toArray(predecessorIds);
+            for (int predecessor : predecessors[id]) {
+                successorCount[predecessor]++;
+            }
+        }
+
+        this.successors = new int[size][];
+        for (int id = 0; id < size; id++) {
+            successors[id] = successorCount[id] == 0 ? NONE : new int[successorCount[id]];
+            successorCount[id] = 0;
+        }
+
+        this.levels = new int[size];
+        int maxLevel = -1;
+        int startNodeCount = 0;
+        for (int id = 0; id < size; id++) {
+            int level = 0;
+            for (int predecessor : predecessors[id]) {
+                successors[predecessor][successorCount[predecessor]++] = id;
+                level = Math.max(level, levels[predecessor] + 1);
+            }
+            levels[id] = level;
+            maxLevel = Math.max(maxLevel, level);
+            if (predecessors[id].length == 0) {
+                startNodeCount++;
+            }
+        }
+        this.levelCount = maxLevel + 1;
+
+        this.startNodes = new int[startNodeCount];
+        for (int id = 0, idx = 0; id < size; id++) {
+            if (predecessors[id].length == 0) {
+                startNodes[idx++] = id;
+            }
+        }
+
+        // Successors always have a higher id, so a reverse pass visits them before their predecessors
+        this.demanded = new boolean[size];
+        for (int id = size - 1; id >= 0; id--) {
+            boolean isDemanded = !IDataBizlogic.class.isAssignableFrom(bizlogics.get(id));
+            for (int i = 0; i < successors[id].length && !isDemanded; i++) {
+                isDemanded = demanded[successors[id][i]];
+            }
+            demanded[id] = isDemanded;
+        }
+    }
+
+    private static int[] toArray(Set<Integer> values) {
+        if (values.isEmpty()) {
+            return NONE;
+        }
+        int[] array = new int[values.size()];
+        int idx = 0;
+        for (Integer value : values) {
+            array[idx++] = value;
+        }
+        return array;
+    }
+
+    /**
+     * @return Number of bizlogics in the graph
+     */
+    public int size() {
+        return bizlogics.size();
+    }
+
+    /**
+     * @param bizlogic A bizlogic
+     * @return The id of the bizlogic, or -1 if the bizlogic is not part of the graph.
+     */
+    public int getId(Class<? extends IBizlogic> bizlogic) {
+        Integer id = ids.get(bizlogic);
+        return id == null ? -1 : id;
+    }
+
+    public Class<? extends IBizlogic> getBizlogic(int id) {
+        return bizlogics.get(id);
+    }
+
+    /**
+     * @return Number of distinct bizlogics which have to complete before the bizlogic with the given id can be executed.
+     */
+    public int getInDegree(int id) {
+        return predecessors[id].length;
+    }
+
+    public int getPredecessor(int id, int index) {
+        return predecessors[id][index];
+    }
+
+    /**
+     * @return Number of bizlogics which depend upon the bizlogic with the given id.
+     */
+    public int getOutDegree(int id) {
+        return successors[id].length;
+    }
+
+    public int getSuccessor(int id, int index) {
+        return successors[id][index];
+    }
+
+    /**
+     * @return The topological level of the bizlogic with the given id. Start nodes are at level 0.
+     */
+    public int getLevel(int id) {
+        return levels[id];
+    }
+
+    /**
+     * @return Number of topological levels in the graph.
+     */
+    public int getLevelCount() {
+        return levelCount;
+    }
+
+    /**
+     * @return Number of bizlogics which do not have any dependencies.
+     */
+    public int getStartNodeCount() {
+        return startNodes.length;
+    }
+
+    public int getStartNode(int index) {
+        return startNodes[index];
+    }
+
+    /**
+     * A bizlogic is demanded if it is not a data bizlogic, or if a bizlogic which is not a data bizlogic
+     * depends upon it transitively. Data bizlogics which are not demanded produce data that nothing in the flow consumes.
+     *
+     * @return true if the bizlogic with the given id is demanded.
+     */
+    public boolean isDemanded(int id) {
+        return demanded[id];
+    }
+
+    static class Messages {
+        public static final String NOT_IN_TOPOLOGICAL_ORDER = "Bizlogics are not in topological order. %s is placed before its dependency %s";
+    }
+}
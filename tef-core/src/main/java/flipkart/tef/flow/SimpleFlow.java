@@ -19,6 +19,8 @@ package flipkart.tef.flow;
 import com.google.common.collect.BiMap;
 import com.google.common.collect.ImmutableBiMap;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.Multimap;
 import flipkart.tef.bizlogics.DataAdapterKey;
 import flipkart.tef.bizlogics.IBizlogic;
 import flipkart.tef.bizlogics.IDataBizlogic;
@@ -51,10 +53,45 @@ public class SimpleFlow {
      */
     private final BiMap<DataAdapterKey<?>, Class<? extends IDataBizlogic<?>>> dataAdapterMap;
 
+    /**
+     * Index based representation of the control and data dependencies between the bizlogics of this flow.
+     */
+    private final FlowGraph graph;
+
+    /**
+     * Slots of the data keys which are emitted by the data adapters of this flow.
+     */
+    private final DataSlots dataSlots;
+
+    /**
+     * Creates a flow where the dependencies between bizlogics are not known.
+     * Every bizlogic is treated as dependent upon its predecessor in the list, i.e. the flow is a chain.
+     */
     public SimpleFlow(List<Class<? extends IBizlogic>> bizlogics,
                       BiMap<DataAdapterKey<?>, Class<? extends IDataBizlogic<?>>> dataAdapterMap) {
+        this(bizlogics, dataAdapterMap, chainOf(bizlogics));
+    }
+
+    /**
+     * @param bizlogics      Topologically sorted list of bizlogics
+     * @param dataAdapterMap Map keyed by the Data Object against the Data Adapter that is responsible for producing it.
+     * @param dependencies   Map keyed by a bizlogic against the bizlogics which have to complete before it can be executed.
+     */
+    public SimpleFlow(List<Class<? extends IBizlogic>> bizlogics,
+                      BiMap<DataAdapterKey<?>, Class<? extends IDataBizlogic<?>>> dataAdapterMap,
+                      Multimap<Class<? extends IBizlogic>, Class<? extends IBizlogic>> dependencies) {
         this.bizlogics = ImmutableList.copyOf(bizlogics);
         this.dataAdapterMap = ImmutableBiMap.copyOf(dataAdapterMap);
+        this.graph = new FlowGraph(this.bizlogics, dependencies);
+        this.dataSlots = new DataSlots(this.dataAdapterMap.keySet());
+    }
+
+    private static Multimap<Class<? extends IBizlogic>, Class<? extends IBizlogic>> chainOf(List<Class<? extends IBizlogic>> bizlogics) {
+        ImmutableSetMultimap.Builder<Class<? extends IBizlogic>, Class<? extends IBizlogic>> builder = ImmutableSetMultimap.builder();
+        for (int i = 1; i < bizlogics.size(); i++) {
+            builder.put(bizlogics.get(i), bizlogics.get(i - 1));
+        }
+        return builder.build();
     }
 
     public List<Class<? extends IBizlogic>> getBizlogics() {
@@ -65,6 +102,14 @@ public class SimpleFlow {
         return dataAdapterMap;
     }
 
+    public FlowGraph getGraph() {
+        return graph;
+    }
+
+    public DataSlots getDataSlots() {
+        return dataSlots;
+    }
+
     public String toString() {
         if (stringRepresentation == null) {
             stringRepresentation = "bizlogics ->\n" + bizlogics.stream().map(Class::getName).collect(Collectors.joining("\n"));
@@ -0,0 +1,213 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.flow;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.HashBiMap;
+import com.google.common.collect.Multimap;
+import flipkart.tef.bizlogics.DataAdapterResult;
+import flipkart.tef.bizlogics.IBizlogic;
+import flipkart.tef.bizlogics.IDataBizlogic;
+import flipkart.tef.bizlogics.TefContext;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class FlowGraphTest {
+
+    /**
+     * Bizlogic1 and Bizlogic2 are start nodes, Bizlogic3 depends on both, and Bizlogic4 depends on Bizlogic2.
+     */
+    @Test
+    public void testGraph() {
+        List<Class<? extends IBizlogic>> bizlogics = Arrays.asList(Bizlogic1.class, Bizlogic2.class, Bizlogic3.class, Bizlogic4.class);
+        Multimap<Class<? extends IBizlogic>, Class<? extends IBizlogic>> dependencies = ArrayListMultimap.create();
+        dependencies.put(Bizlogic3.class, Bizlogic1.class);
+        dependencies.put(Bizlogic3.class, Bizlogic2.class);
+        // duplicate edges (like a control and a data dependency on the same bizlogic) are counted once
+        dependencies.put(Bizlogic3.class, Bizlogic2.class);
+        dependencies.put(Bizlogic4.class, Bizlogic2.class);
+        // edges to bizlogics outside the flow are ignored
+        dependencies.put(Bizlogic4.class, Bizlogic5.class);
+
+        FlowGraph graph = new SimpleFlow(bizlogics, HashBiMap.create(), dependencies).getGraph();
+
+        assertEquals(4, graph.size());
+        assertEquals(2, graph.getId(Bizlogic3.class));
+        assertEquals(-1, graph.getId(Bizlogic5.class));
+        assertEquals(Bizlogic4.class, graph.getBizlogic(3));
+
+        assertEquals(2, graph.getStartNodeCount());
+        assertEquals(0, graph.getStartNode(0));
+        assertEquals(1, graph.getStartNode(1));
+
+        assertEquals(2, graph.getInDegree(2));
+        assertEquals(0, graph.getPredecessor(2, 0));
+        assertEquals(1, graph.getPredecessor(2, 1));
+        assertEquals(1, graph.getInDegree(3));
+
+        assertEquals(1, graph.getOutDegree(0));
+        assertEquals(2, graph.getOutDegree(1));
+        assertEquals(2, graph.getSuccessor(1, 0));
+        assertEquals(3, graph.getSuccessor(1, 1));
+        assertEquals(0, graph.getOutDegree(3));
+
+        assertEquals(2, graph.getLevelCount());
+        assertEquals(0, graph.getLevel(0));
+        assertEquals(0, graph.getLevel(1));
+        assertEquals(1, graph.getLevel(2));
+        assertEquals(1, graph.getLevel(3));
+    }
+
+    @Test
+    public void testGraphForFlowWithUnknownDependencies() {
+        FlowGraph graph = new SimpleFlow(Arrays.asList(Bizlogic1.class, Bizlogic2.class, Bizlogic3.class), HashBiMap.create()).getGraph();
+
+        assertEquals(1, graph.getStartNodeCount());
+        assertEquals(3, graph.getLevelCount());
+        assertEquals(1, graph.getSuccessor(0, 0));
+        assertEquals(2, graph.getSuccessor(1, 0));
+    }
+
+    @Test
+    public void testGraphForEmptyFlow() {
+        FlowGraph graph = new SimpleFlow(Arrays.asList(), HashBiMap.create()).getGraph();
+
+        assertEquals(0, graph.size());
+        assertEquals(0, graph.getStartNodeCount());
+        assertEquals(0, graph.getLevelCount());
+    }
+
+    /**
+     * Adapter2 depends on Adapter1 and Bizlogic1 depends on Adapter2, while nothing depends on Adapter3.
+     */
+    @Test
+    public void testDemandedBizlogics() {
+        List<Class<? extends IBizlogic>> bizlogics = Arrays.asList(Adapter1.class, Adapter2.class, Adapter3.class, Bizlogic1.class);
+        Multimap<Class<? extends IBizlogic>, Class<? extends IBizlogic>> dependencies = ArrayListMultimap.create();
+        dependencies.put(Adapter2.class, Adapter1.class);
+        dependencies.put(Adapter3.class, Adapter1.class);
+        dependencies.put(Bizlogic1.class, Adapter2.class);
+
+        FlowGraph graph = new SimpleFlow(bizlogics, HashBiMap.create(), dependencies).getGraph();
+
+        assertTrue(graph.isDemanded(0));
+        assertTrue(graph.isDemanded(1));
+        assertFalse(graph.isDemanded(2));
+        assertTrue(graph.isDemanded(3));
+    }
+
+    @Test
+    public void testBizlogicsNotInTopologicalOrder() {
+        Multimap<Class<? extends IBizlogic>, Class<? extends IBizlogic>> dependencies = ArrayListMultimap.create();
+        dependencies.put(Bizlogic1.class, Bizlogic2.class);
+
+        try {
+            new SimpleFlow(Arrays.asList(Bizlogic1.class, Bizlogic2.class), HashBiMap.create(), dependencies);
+            fail("Exception was expected");
+        } catch (IllegalArgumentException e) {
+            assertEquals(String.format(FlowGraph.Messages.NOT_IN_TOPOLOGICAL_ORDER, Bizlogic1.class.getName(), Bizlogic2.class.getName()),
+                    e.getMessage());
+        }
+    }
+
+    static class Adapter1 implements IDataBizlogic<String> {
+
+        @Override
+        public Optional<DataAdapterResult> executeForData(TefContext tefContext) {
+            return Optional.empty();
+        }
+
+        @Override
+        public String name() {
+            return "";
+        }
+    }
+
+    static class Adapter2 implements IDataBizlogic<String> {
+
+        @Override
+        public Optional<DataAdapterResult> executeForData(TefContext tefContext) {
+            return Optional.empty();
+        }
+
+        @Override
+        public String name() {
+            return "";
+        }
+    }
+
+    static class Adapter3 implements IDataBizlogic<String> {
+
+        @Override
+        public Optional<DataAdapterResult> executeForData(TefContext tefContext) {
+            return Optional.empty();
+        }
+
+        @Override
+        public String name() {
+            return "";
+        }
+    }
+
+    static class Bizlogic1 implements IBizlogic {
+
+        @Override
+        public void execute(TefContext tefContext) {
+
+        }
+    }
+
+    static class Bizlogic2 implements IBizlogic {
+
+        @Override
+        public void execute(TefContext tefContext) {
+
+        }
+    }
+
+    static class Bizlogic3 implements IBizlogic {
+
+        @Override
+        public void execute(TefContext tefContext) {
+
+        }
+    }
+
+    static class Bizlogic4 implements IBizlogic {
+
+        @Override
+        public void execute(TefContext tefContext) {
+
+        }
+    }
+
+    static class Bizlogic5 implements IBizlogic {
+
+        @Override
+        public void execute(TefContext tefContext) {
+
+        }
+    }
+}
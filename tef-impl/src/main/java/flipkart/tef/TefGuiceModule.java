@@ -18,7 +18,7 @@ package flipkart.tef;
 
 import com.google.inject.AbstractModule;
 import flipkart.tef.execution.DataInjector;
-import flipkart.tef.execution.DefaultDataInjector;
+import flipkart.tef.execution.CachingDataInjector;
 
 /**
  * This class contains guice binding relevant for tef.
@@ -29,6 +29,6 @@ public class TefGuiceModule extends AbstractModule {
 
     @Override
     protected void configure() {
-        bind(DataInjector.class).to(DefaultDataInjector.class);
+        bind(DataInjector.class).to(CachingDataInjector.class);
     }
 }
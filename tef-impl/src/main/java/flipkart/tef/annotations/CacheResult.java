@@ -0,0 +1,73 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.annotations;
+
+import flipkart.tef.bizlogics.AdapterResultCache;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the results of a DataAdapter across requests, keyed by the values of its {@link InjectData} fields.
+ * A cache hit skips the execution of the adapter.
+ * <p>
+ * Since the results are shared across requests, the adapter must not read anything else that varies across requests
+ * (e.g. the caller or tenant held in the TefContext, or request scoped objects), unless it returns it from
+ * {@link flipkart.tef.bizlogics.DataAdapterBizlogic#fingerprintInputs}, which is part of the key.
+ * Otherwise a request is served the data computed for another.
+ * <p>
+ * By default every adapter gets its own LRU cache bound by {@link #maximumSize()} (or {@link #maximumWeight()}),
+ * see {@link flipkart.tef.bizlogics.GuavaAdapterResultCache}. A custom {@link #cache()} is obtained from the injector
+ * of the TefContext, in which case the other attributes are not used.
+ * <p>
+ * Date: 17/10/26
+ */
+@Documented
+@Inherited
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CacheResult {
+
+    /**
+     * Time after which a cached result expires. 0 implies the results do not expire.
+     */
+    long expireAfterWrite() default 0;
+
+    TimeUnit timeUnit() default TimeUnit.SECONDS;
+
+    /**
+     * Maximum number of cached results. Not used if {@link #maximumWeight()} is set.
+     */
+    long maximumSize() default 1000;
+
+    /**
+     * Maximum total weight of the cached results, as computed by the {@link #weigher()}. 0 implies not bound by weight.
+     */
+    long maximumWeight() default 0;
+
+    Class<? extends AdapterResultCache.Weigher> weigher() default AdapterResultCache.Weigher.class;
+
+    /**
+     * A custom cache implementation. Defaults to a cache built from the other attributes.
+     */
+    Class<? extends AdapterResultCache> cache() default AdapterResultCache.class;
+}
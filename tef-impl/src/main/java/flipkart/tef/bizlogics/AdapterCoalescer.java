@@ -0,0 +1,116 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.bizlogics;
+
+import flipkart.tef.annotations.Coalesce;
+import flipkart.tef.exception.TefExecutionException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Single-flight registry for the data adapters marked with {@link Coalesce}.
+ * The first execution for a fingerprint computes the result, the concurrent executions with the same fingerprint
+ * wait for it. The entry is removed once the computation completes, so results are not cached.
+ * <p>
+ * Date: 17/10/26
+ */
+final class AdapterCoalescer {
+
+    static final AdapterCoalescer INSTANCE = new AdapterCoalescer();
+
+    private final ConcurrentMap<InputFingerprint, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Computes the result on the calling thread, or waits for the in-flight computation with the same fingerprint.
+     */
+    @SuppressWarnings("unchecked")
+    <V> V execute(InputFingerprint fingerprint, Computation<V> computation) throws TefExecutionException {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(fingerprint, future);
+        if (existing != null) {
+            try {
+                return (V) existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                } else if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw CompletableDataAdapterBizlogic.toTefExecutionException(e);
+            }
+        }
+
+        V result;
+        try {
+            result = computation.compute();
+        } catch (Throwable e) {
+            // Errors as well, else the followers would wait forever
+            inFlight.remove(fingerprint, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+        inFlight.remove(fingerprint, future);
+        future.complete(result);
+        return result;
+    }
+
+    /**
+     * Starts the computation, or returns the in-flight computation with the same fingerprint.
+     */
+    @SuppressWarnings("unchecked")
+    <V> CompletionStage<V> executeAsync(InputFingerprint fingerprint, Computation<CompletionStage<V>> computation) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(fingerprint, future);
+        if (existing != null) {
+            return (CompletionStage<V>) (CompletionStage<?>) existing;
+        }
+
+        CompletionStage<V> stage;
+        try {
+            stage = computation.compute();
+        } catch (Throwable e) {
+            inFlight.remove(fingerprint, future);
+            future.completeExceptionally(e);
+            return (CompletionStage<V>) (CompletionStage<?>) future;
+        }
+        stage.whenComplete((result, throwable) -> {
+            inFlight.remove(fingerprint, future);
+            if (throwable != null) {
+                future.completeExceptionally(throwable);
+            } else {
+                future.complete(result);
+            }
+        });
+        return (CompletionStage<V>) (CompletionStage<?>) future;
+    }
+
+    /**
+     * @return Number of computations in progress
+     */
+    int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    @FunctionalInterface
+    interface Computation<V> {
+        V compute() throws TefExecutionException;
+    }
+}
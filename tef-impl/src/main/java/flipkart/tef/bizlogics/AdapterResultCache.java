@@ -0,0 +1,46 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.bizlogics;
+
+/**
+ * A cache of the results of a data adapter, shared across requests. The results are keyed by the
+ * {@link InputFingerprint} of the adapter, i.e. the adapter (and hence the emitted {@link DataAdapterKey})
+ * the values of its {@link flipkart.tef.annotations.InjectData} fields and its
+ * {@link DataAdapterBizlogic#fingerprintInputs(TefContext)}.
+ * <p>
+ * Adapters opt in via {@link flipkart.tef.annotations.CacheResult}. Null results are not cached.
+ * Implementations should be thread-safe.
+ * <p>
+ * Date: 17/10/26
+ */
+public interface AdapterResultCache {
+
+    /**
+     * @return The cached result, or null if there is none.
+     */
+    Object getIfPresent(InputFingerprint fingerprint);
+
+    void put(InputFingerprint fingerprint, Object result);
+
+    /**
+     * Computes the weight of a cached result, for caches bound by weight instead of the number of results.
+     * Implementations should have a no-arg constructor.
+     */
+    interface Weigher {
+        int weigh(Object result);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.bizlogics;
+
+import com.google.inject.internal.BytecodeGen;
+import flipkart.tef.annotations.CacheResult;
+
+/**
+ * Resolves the {@link AdapterResultCache} of a data adapter class, as declared via {@link CacheResult}.
+ * The default caches are created once per adapter class, and live as long as the class.
+ * <p>
+ * Date: 17/10/26
+ */
+public final class AdapterResultCaches {
+
+    private static final ClassValue<CacheResult> DECLARATIONS = new ClassValue<CacheResult>() {
+        @Override
+        protected CacheResult computeValue(Class<?> type) {
+            return type.getAnnotation(CacheResult.class);
+        }
+    };
+
+    private static final ClassValue<GuavaAdapterResultCache> DEFAULT_CACHES = new ClassValue<GuavaAdapterResultCache>() {
+        @Override
+        protected GuavaAdapterResultCache computeValue(Class<?> type) {
+            CacheResult cacheResult = DECLARATIONS.get(type);
+            if (cacheResult == null || cacheResult.cache() != AdapterResultCache.class) {
+                return null;
+            }
+            return GuavaAdapterResultCache.of(cacheResult);
+        }
+    };
+
+    private AdapterResultCaches() {
+    }
+
+    /**
+     * @param adapterClass A data adapter class
+     * @return The default cache of the adapter, or null if the adapter does not declare one.
+     */
+    public static GuavaAdapterResultCache getDefault(Class<?> adapterClass) {
+        return DEFAULT_CACHES.get(unwrap(adapterClass));
+    }
+
+    /**
+     * @return The cache of the adapter, or null if the adapter is not cached
+     */
+    static AdapterResultCache get(Class<?> adapterClass, TefContext tefContext) {
+        Class<?> type = unwrap(adapterClass);
+        CacheResult cacheResult = DECLARATIONS.get(type);
+        if (cacheResult == null) {
+            return null;
+        } else if (cacheResult.cache() == AdapterResultCache.class) {
+            return DEFAULT_CACHES.get(type);
+        } else {
+            return tefContext.getInjector().getInstance(cacheResult.cache());
+        }
+    }
+
+    static boolean isCached(Class<?> adapterClass) {
+        return DECLARATIONS.get(unwrap(adapterClass)) != null;
+    }
+
+    /**
+     * Guice AOP creates a subclass of the adapter, the cache is declared on (and shared with) the adapter itself.
+     */
+    private static Class<?> unwrap(Class<?> adapterClass) {
+        if (adapterClass.getName().contains(BytecodeGen.ENHANCER_BY_GUICE_MARKER)) {
+            return adapterClass.getSuperclass();
+        }
+        return adapterClass;
+    }
+}
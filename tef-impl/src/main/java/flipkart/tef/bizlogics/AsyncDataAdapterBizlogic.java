@@ -16,9 +16,14 @@
 
 package flipkart.tef.bizlogics;
 
+import com.google.inject.Binding;
+import com.google.inject.Key;
 import flipkart.tef.exception.TefExecutionException;
+import flipkart.tef.guicebridge.TefGuiceScope;
 
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.ThreadPoolExecutor;
 
@@ -34,6 +39,9 @@ import java.util.concurrent.ThreadPoolExecutor;
  * Only taking the final result type as input from implementation classes (for the value of generic parameter)
  * will break that contract.
  * <p>
+ * An adapter annotated with {@link flipkart.tef.annotations.Hedge} starts a second attempt if the first one is slow,
+ * and emits the result of the first attempt to complete (See {@link HedgePolicy}).
+ * <p>
  * Since the flow builder uses reflection to get generic params to know what will the return type of data adapter,
  * taking only final result type (say X) from implementation class, will appear to TEF as if
  * the implementation classes return 'X' rather than the Future.
@@ -44,8 +52,11 @@ import java.util.concurrent.ThreadPoolExecutor;
  */
 public abstract class AsyncDataAdapterBizlogic<T extends Future<Optional<U>>, U> extends DataAdapterBizlogic<T> {
 
-    private final ThreadPoolExecutor threadPoolExecutor;
+    private static final Key<TefGuiceScope> TEF_GUICE_SCOPE = Key.get(TefGuiceScope.class);
+
+    private final ExecutorService executorService;
     private final boolean bubbleException;
+    private final HedgePolicy hedgePolicy;
 
     /**
      * @param threadPoolExecutor Threadpool executor to which to task will be submitted
@@ -60,8 +71,26 @@ public abstract class AsyncDataAdapterBizlogic<T extends Future<Optional<U>>, U>
      *                           else `Optional.empty` will be returned.
      */
     public AsyncDataAdapterBizlogic(ThreadPoolExecutor threadPoolExecutor, boolean bubbleException) {
-        this.threadPoolExecutor = threadPoolExecutor;
+        this((ExecutorService) threadPoolExecutor, bubbleException);
+    }
+
+    /**
+     * @param executorService Executor to which to task will be submitted,
+     *                        e.g. {@link flipkart.tef.execution.VirtualThreads#newExecutor(String)}
+     */
+    public AsyncDataAdapterBizlogic(ExecutorService executorService) {
+        this(executorService, false);
+    }
+
+    /**
+     * @param executorService Executor to which to task will be submitted
+     * @param bubbleException if true, any exception thrown as part of computing the result will be rethrown,
+     *                        else `Optional.empty` will be returned.
+     */
+    public AsyncDataAdapterBizlogic(ExecutorService executorService, boolean bubbleException) {
+        this.executorService = executorService;
         this.bubbleException = bubbleException;
+        this.hedgePolicy = HedgePolicy.of(this.getClass());
     }
 
     @Override
@@ -71,7 +100,23 @@ public abstract class AsyncDataAdapterBizlogic<T extends Future<Optional<U>>, U>
         The `bubbleException` flag will be used to decide the behavior in case of an exception,
             either to return an empty value, or rethrow the exception
          */
-        return (T) threadPoolExecutor.submit(() -> getResultImpl(tefContext));
+        Callable<Optional<U>> task = withGuiceScope(tefContext, () -> getResultImpl(tefContext));
+        if (hedgePolicy != null) {
+            return (T) hedgePolicy.execute(executorService, task);
+        }
+        return (T) executorService.submit(task);
+    }
+
+    /**
+     * Carries the {@link TefGuiceScope} of the calling thread (if the guice bridge is in use) to the task,
+     * so that {@link #getResult(TefContext)} can use Guice injected data.
+     */
+    private Callable<Optional<U>> withGuiceScope(TefContext tefContext, Callable<Optional<U>> task) {
+        if (tefContext.getInjector() == null) {
+            return task;
+        }
+        Binding<TefGuiceScope> binding = tefContext.getInjector().getExistingBinding(TEF_GUICE_SCOPE);
+        return binding == null ? task : binding.getProvider().get().snapshot().wrapCallable(task);
     }
 
     /**
@@ -0,0 +1,139 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.bizlogics;
+
+import flipkart.tef.execution.VirtualThreads;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the keys requested via a {@link BatchLoader} into batches, and dispatches the batches to the loader.
+ * There is one dispatcher per loader, configured when the loader is created.
+ * <p>
+ * Date: 17/10/26
+ */
+final class BatchDispatcher<K, V> {
+
+    static final Executor DEFAULT_LOAD_EXECUTOR = VirtualThreads.newExecutor("tef-batch-loader-");
+
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "tef-batch-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final BatchLoader<K, V> loader;
+    private final long batchWindowMillis;
+    private final int maxBatchSize;
+    private final Executor loadExecutor;
+
+    /**
+     * The batch which is collecting keys. Guarded by this.
+     */
+    private Batch current;
+
+    BatchDispatcher(BatchLoader<K, V> loader, long batchWindowMillis, int maxBatchSize, Executor loadExecutor) {
+        this.loader = loader;
+        this.batchWindowMillis = batchWindowMillis;
+        this.maxBatchSize = maxBatchSize;
+        this.loadExecutor = loadExecutor;
+    }
+
+    /**
+     * Adds the key to the current batch, or loads it right away if there is no batch window.
+     *
+     * @return A stage which completes with the value, once the batch is loaded.
+     */
+    CompletionStage<V> load(K key) {
+        if (batchWindowMillis <= 0) {
+            // Batching is not enabled, the key is loaded on its own without waiting
+            Batch batch = new Batch();
+            CompletableFuture<V> future = new CompletableFuture<>();
+            batch.futures.put(key, future);
+            dispatch(batch);
+            return future;
+        }
+
+        Batch ready = null;
+        CompletableFuture<V> future;
+        synchronized (this) {
+            if (current == null) {
+                Batch batch = new Batch();
+                current = batch;
+                TIMER.schedule(() -> dispatchIfCurrent(batch), batchWindowMillis, TimeUnit.MILLISECONDS);
+            }
+            future = current.futures.computeIfAbsent(key, k -> new CompletableFuture<>());
+            if (current.futures.size() >= maxBatchSize) {
+                ready = current;
+                current = null;
+            }
+        }
+        if (ready != null) {
+            dispatch(ready);
+        }
+        return future;
+    }
+
+    private void dispatchIfCurrent(Batch batch) {
+        synchronized (this) {
+            if (current != batch) {
+                // Already dispatched since it was full
+                return;
+            }
+            current = null;
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(Batch batch) {
+        try {
+            loadExecutor.execute(batch::load);
+        } catch (RuntimeException e) {
+            // The executor rejected the task
+            batch.fail(e);
+        }
+    }
+
+    private final class Batch {
+        private final Map<K, CompletableFuture<V>> futures = new LinkedHashMap<>();
+
+        void load() {
+            Map<K, V> values;
+            try {
+                values = loader.loadAll(Collections.unmodifiableSet(futures.keySet()));
+            } catch (Throwable t) {
+                fail(t);
+                return;
+            }
+            for (Map.Entry<K, CompletableFuture<V>> entry : futures.entrySet()) {
+                entry.getValue().complete(values == null ? null : values.get(entry.getKey()));
+            }
+        }
+
+        void fail(Throwable t) {
+            futures.values().forEach(future -> future.completeExceptionally(t));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.bizlogics;
+
+import com.google.common.base.Preconditions;
+import flipkart.tef.exception.TefExecutionException;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+/**
+ * Loads the values for many keys in one call, on behalf of {@link BatchingDataAdapterBizlogic}s.
+ * The keys requested via a loader are collected for the batch window (or till the max batch size is reached), and a
+ * single {@link #loadAll(Set)} call is dispatched for them. The values are then fanned out to the waiting adapters.
+ * <p>
+ * A loader is meant to be shared by the adapters (and requests) whose keys should be batched together, e.g. a
+ * singleton, and it is configured once when it is created. Since a batch spans requests, {@link #loadAll(Set)} is
+ * only given the keys, and should not depend on any request scoped state.
+ * <p>
+ * Batching is opt-in, via a positive batch window: every batch waits for the window unless it fills up, which pays off
+ * when many adapters request keys concurrently (across requests, or within a flow executed via
+ * {@link flipkart.tef.execution.ParallelFlowExecutor}), and only adds latency otherwise. e.g. The sequential executor
+ * waits for each adapter in turn, so each of its keys would wait for the whole window with nothing to batch.
+ * <p>
+ * Date: 17/10/26
+ */
+public abstract class BatchLoader<K, V> {
+
+    private final BatchDispatcher<K, V> dispatcher;
+
+    /**
+     * Creates a loader which loads every key as soon as it is requested, without batching.
+     */
+    protected BatchLoader() {
+        this(0, 100);
+    }
+
+    /**
+     * @param batchWindowMillis Time for which the keys are collected after the first key of a batch is requested.
+     *                          0 implies every key is loaded as soon as it is requested, without batching.
+     * @param maxBatchSize      Number of keys after which a batch is dispatched without waiting for the window to elapse
+     */
+    protected BatchLoader(long batchWindowMillis, int maxBatchSize) {
+        this(batchWindowMillis, maxBatchSize, BatchDispatcher.DEFAULT_LOAD_EXECUTOR);
+    }
+
+    /**
+     * @param batchWindowMillis Time for which the keys are collected after the first key of a batch is requested.
+     *                          0 implies every key is loaded as soon as it is requested, without batching.
+     * @param maxBatchSize      Number of keys after which a batch is dispatched without waiting for the window to elapse
+     * @param loadExecutor      The executor on which {@link #loadAll(Set)} is invoked
+     */
+    protected BatchLoader(long batchWindowMillis, int maxBatchSize, Executor loadExecutor) {
+        Preconditions.checkArgument(batchWindowMillis >= 0, Messages.INVALID_BATCH_WINDOW, batchWindowMillis);
+        Preconditions.checkArgument(maxBatchSize > 0, Messages.INVALID_MAX_BATCH_SIZE, maxBatchSize);
+        Preconditions.checkArgument(loadExecutor != null, Messages.LOAD_EXECUTOR_IS_REQUIRED);
+        this.dispatcher = new BatchDispatcher<>(this, batchWindowMillis, maxBatchSize, loadExecutor);
+    }
+
+    /**
+     * Loads the values for the keys collected in a batch. Keys which are missing in the returned map emit null.
+     * The keys are expected to implement equals/hashCode, duplicate keys are loaded once.
+     *
+     * @param keys Keys collected in a batch
+     * @return The values, keyed by the keys
+     */
+    protected abstract Map<K, V> loadAll(Set<K> keys) throws TefExecutionException;
+
+    /**
+     * Adds the key to the current batch, or loads it right away if there is no batch window.
+     *
+     * @return A stage which completes with the value, once the batch is loaded.
+     */
+    final CompletionStage<V> load(K key) {
+        return dispatcher.load(key);
+    }
+
+    static class Messages {
+        public static final String INVALID_BATCH_WINDOW = "Batch window should not be negative, found %s";
+        public static final String INVALID_MAX_BATCH_SIZE = "Max batch size should be positive, found %s";
+        public static final String LOAD_EXECUTOR_IS_REQUIRED = "An executor is required to load the batches";
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.bizlogics;
+
+import flipkart.tef.exception.TefExecutionException;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * A DataAdapter which emits the value (V) for a single key (K), loaded via a {@link BatchLoader}.
+ * The keys requested by the adapters which share a loader, within a flow or across requests, are loaded in batches.
+ * See {@link BatchLoader} for the batching, which is configured on the loader.
+ * <p>
+ * e.g. A singleton loader for products, and adapters with different {@link flipkart.tef.annotations.EmitData} names
+ * returning different product ids from {@link #getKey(TefContext)}.
+ * <p>
+ * Date: 17/10/26
+ */
+public abstract class BatchingDataAdapterBizlogic<K, V> extends CompletableDataAdapterBizlogic<V> {
+
+    /**
+     * @param tefContext Tef Context
+     * @return The key for which this adapter emits the value
+     */
+    protected abstract K getKey(TefContext tefContext) throws TefExecutionException;
+
+    /**
+     * @return The loader of the values. Adapters should share a loader (e.g. a singleton) for their keys to be batched.
+     */
+    protected abstract BatchLoader<K, V> getLoader();
+
+    @Override
+    public final CompletionStage<V> adaptAsync(TefContext tefContext) throws TefExecutionException {
+        return getLoader().load(getKey(tefContext));
+    }
+}
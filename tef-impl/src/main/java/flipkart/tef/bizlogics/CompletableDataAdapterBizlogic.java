@@ -0,0 +1,138 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.bizlogics;
+
+import flipkart.tef.exception.ErrorCode;
+import flipkart.tef.exception.TefExecutionException;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * A DataAdapter which computes its data asynchronously, and emits the data once the returned stage completes.
+ * Unlike {@link AsyncDataAdapterBizlogic}, the consumers inject the data itself (of type U) and not a future.
+ * <p>
+ * {@link flipkart.tef.execution.ParallelFlowExecutor} executes the dependents of this adapter when the stage completes,
+ * without blocking a thread in the meantime. Executors which execute the bizlogics sequentially wait for the stage
+ * to complete.
+ * <p>
+ * If the stage completes exceptionally with a {@link TefExecutionException}, the exception is rethrown as is,
+ * any other exception is wrapped in a {@link TefExecutionException} with {@link ErrorCode#NON_RETRYABLE}.
+ * <p>
+ * Date: 17/10/26
+ */
+public abstract class CompletableDataAdapterBizlogic<U> extends DataAdapterBizlogic<U> {
+
+    /**
+     * @param tefContext Tef Context
+     * @return A stage which completes with the emitted data.
+     */
+    public abstract CompletionStage<U> adaptAsync(TefContext tefContext) throws TefExecutionException;
+
+    /**
+     * Waits for the stage returned by {@link #adaptAsync(TefContext)} to complete.
+     */
+    @Override
+    public final U adapt(TefContext tefContext) throws TefExecutionException {
+        try {
+            return adaptAsync(tefContext).toCompletableFuture().join();
+        } catch (CompletionException e) {
+            throw toTefExecutionException(e);
+        }
+    }
+
+    /**
+     * Returns the data emitted by this adapter, without waiting for it to be computed.
+     *
+     * @param tefContext Tef Context
+     * @return A stage which completes once the data is computed.
+     */
+    public final CompletionStage<Optional<DataAdapterResult>> executeForDataAsync(TefContext tefContext) {
+        int generation = getGeneration();
+        if (isResultComputed()) {
+            try {
+                return CompletableFuture.completedFuture(executeForData(tefContext));
+            } catch (TefExecutionException e) {
+                return failedStage(e);
+            }
+        }
+
+        try {
+            if (isCoalesced() || isCached()) {
+                return computeAsync(tefContext, generation);
+            }
+            return adaptAsync(tefContext).thenApply(result -> complete(result, false, generation));
+        } catch (TefExecutionException | RuntimeException e) {
+            return failedStage(e);
+        }
+    }
+
+    /**
+     * Computes the result via the result cache and/or the coalescer, as declared on the adapter.
+     */
+    @SuppressWarnings("unchecked")
+    private CompletionStage<Optional<DataAdapterResult>> computeAsync(TefContext tefContext, int generation) throws TefExecutionException {
+        InputFingerprint fingerprint = InputFingerprint.of(this, tefContext);
+        AdapterResultCache cache = isCached() ? AdapterResultCaches.get(this.getClass(), tefContext) : null;
+        if (cache != null) {
+            Object cachedResult = cache.getIfPresent(fingerprint);
+            if (cachedResult != null) {
+                return CompletableFuture.completedFuture(complete((U) cachedResult, true, generation));
+            }
+        }
+
+        CompletionStage<U> stage = isCoalesced()
+                ? AdapterCoalescer.INSTANCE.executeAsync(fingerprint, () -> adaptAsync(tefContext))
+                : adaptAsync(tefContext);
+        return stage.thenApply(computed -> {
+            if (cache != null && computed != null) {
+                cache.put(fingerprint, computed);
+            }
+            return complete(computed, false, generation);
+        });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected Class<U> getResultType() {
+        // adapt is final here, and its erased return type does not reflect the emitted type
+        Class<?> emittedType = getEmittedType(getClass());
+        return emittedType != null ? (Class<U>) emittedType : super.getResultType();
+    }
+
+    /**
+     * Unwraps the exception a stage completed with.
+     */
+    public static TefExecutionException toTefExecutionException(Throwable throwable) {
+        Throwable cause = throwable;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof TefExecutionException) {
+            return (TefExecutionException) cause;
+        }
+        return new TefExecutionException("Data adapter completed exceptionally", cause, ErrorCode.NON_RETRYABLE);
+    }
+
+    private static <V> CompletionStage<V> failedStage(Throwable t) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        future.completeExceptionally(t);
+        return future;
+    }
+}
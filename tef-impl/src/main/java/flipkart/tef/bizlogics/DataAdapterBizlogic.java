@@ -17,6 +17,7 @@
 package flipkart.tef.bizlogics;
 
 import com.google.inject.internal.BytecodeGen;
+import flipkart.tef.annotations.Coalesce;
 import flipkart.tef.annotations.EmitData;
 import flipkart.tef.annotations.InjectData;
 import flipkart.tef.exception.TefExecutionException;
@@ -24,6 +25,9 @@ import flipkart.tef.execution.MutationListener;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -45,14 +49,25 @@ public abstract class DataAdapterBizlogic<T> implements IDataBizlogic<T>, Mutati
     private final Map<DataAdapterKey<?>, Field> fieldCache;
     private final String emittedDataName;
     private final Class<T> resultType;
+    private final boolean coalesced;
+    private final boolean cached;
 
+    /**
+     * The result and its state are guarded by this instance, since the adapter is injected from the threads of the
+     * flow while its mutable inputs may be mutated from others. {@link #adapt(TefContext)} runs without the lock,
+     * so a mutation bumps the generation, and a result computed from the inputs of an older generation is not stashed.
+     */
     private T result;
     private boolean resultComputed = false;
+    private boolean cacheHit = false;
+    private int generation = 0;
 
     public DataAdapterBizlogic() {
         fieldCache = buildCacheOfMutableFields();
         emittedDataName = getEmittedDataName(this.getClass());
         resultType = getResultType();
+        coalesced = this.getClass().isAnnotationPresent(Coalesce.class);
+        cached = AdapterResultCaches.isCached(this.getClass());
     }
 
     @SuppressWarnings("unchecked")
@@ -72,7 +87,7 @@ public abstract class DataAdapterBizlogic<T> implements IDataBizlogic<T>, Mutati
         for (Field field : this.getClass().getDeclaredFields()) {
             InjectData annotation = field.getAnnotation(InjectData.class);
             if (annotation != null && annotation.mutable()) {
-                cache.put(new DataAdapterKey<>(annotation.name(), field.getType()), field);
+                cache.put(DataAdapterKey.of(annotation.name(), field.getType()), field);
             }
         }
 
@@ -96,15 +111,140 @@ public abstract class DataAdapterBizlogic<T> implements IDataBizlogic<T>, Mutati
         }
     }
 
+    /**
+     * Resolves the type of data emitted by a data adapter class, i.e. the type argument of {@link DataAdapterBizlogic},
+     * by following the type arguments through the class hierarchy. Parameterized types are resolved to their raw type.
+     *
+     * @return The emitted type, or null if it cannot be resolved (e.g. the adapter extends a raw type)
+     */
+    @SuppressWarnings("rawtypes")
+    public static Class<?> getEmittedType(Class<? extends DataAdapterBizlogic> clazz) {
+        Map<TypeVariable<?>, Type> typeArguments = new HashMap<>();
+        Class<?> current = clazz;
+        while (current != DataAdapterBizlogic.class) {
+            Class<?> superclass = current.getSuperclass();
+            if (superclass == null) {
+                return null;
+            }
+            if (current.getGenericSuperclass() instanceof ParameterizedType) {
+                Type[] arguments = ((ParameterizedType) current.getGenericSuperclass()).getActualTypeArguments();
+                TypeVariable<?>[] parameters = superclass.getTypeParameters();
+                for (int i = 0; i < parameters.length; i++) {
+                    Type argument = arguments[i];
+                    if (argument instanceof TypeVariable && typeArguments.containsKey(argument)) {
+                        argument = typeArguments.get(argument);
+                    }
+                    typeArguments.put(parameters[i], argument);
+                }
+            }
+            current = superclass;
+        }
+
+        Type emittedType = typeArguments.get(DataAdapterBizlogic.class.getTypeParameters()[0]);
+        if (emittedType instanceof Class) {
+            return (Class<?>) emittedType;
+        } else if (emittedType instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) emittedType).getRawType();
+        }
+        return null;
+    }
+
     @Override
+    @SuppressWarnings("unchecked")
     public final Optional<DataAdapterResult> executeForData(TefContext tefContext) throws TefExecutionException {
-        if (!resultComputed) {
-            result = adapt(tefContext);
-            resultComputed = true;
+        int generation;
+        synchronized (this) {
+            if (resultComputed) {
+                cacheHit = true;
+                return Optional.of(new DataAdapterResult(result, name(), resultType));
+            }
+            generation = this.generation;
+        }
+
+        if (!coalesced && !cached) {
+            return complete(adapt(tefContext), false, generation);
+        }
+
+        InputFingerprint fingerprint = InputFingerprint.of(this, tefContext);
+        AdapterResultCache cache = cached ? AdapterResultCaches.get(this.getClass(), tefContext) : null;
+        if (cache != null) {
+            Object cachedResult = cache.getIfPresent(fingerprint);
+            if (cachedResult != null) {
+                return complete((T) cachedResult, true, generation);
+            }
+        }
+
+        T computed = coalesced ? AdapterCoalescer.INSTANCE.execute(fingerprint, () -> adapt(tefContext)) : adapt(tefContext);
+        if (cache != null && computed != null) {
+            cache.put(fingerprint, computed);
+        }
+        return complete(computed, false, generation);
+    }
+
+    /**
+     * Stashes a result which was computed outside of the lock, unless the inputs were mutated in the meantime.
+     * The result is returned to the caller either way.
+     *
+     * @param result     The result
+     * @param cacheHit   true if the result was served from the result cache, see {@link #isCacheHit()}
+     * @param generation The generation of the inputs the result was computed from, see {@link #getGeneration()}
+     * @return The data emitted by this adapter
+     */
+    final synchronized Optional<DataAdapterResult> complete(T result, boolean cacheHit, int generation) {
+        if (generation == this.generation) {
+            this.result = result;
+            this.resultComputed = true;
         }
+        this.cacheHit = cacheHit;
         return Optional.of(new DataAdapterResult(result, name(), resultType));
     }
 
+    final synchronized boolean isResultComputed() {
+        return resultComputed;
+    }
+
+    /**
+     * @return The generation of the inputs, which changes every time a mutable input is mutated
+     */
+    final synchronized int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * @return true if the last {@link #executeForData(TefContext)} served a result computed earlier, i.e. the result of
+     * this adapter in the flow or from its result cache, instead of executing {@link #adapt(TefContext)}.
+     */
+    public final synchronized boolean isCacheHit() {
+        return cacheHit;
+    }
+
+    /**
+     * @return true if concurrent executions with the same inputs share their result. See {@link Coalesce}
+     */
+    final boolean isCoalesced() {
+        return coalesced;
+    }
+
+    /**
+     * @return true if the results are cached across requests. See {@link flipkart.tef.annotations.CacheResult}
+     */
+    final boolean isCached() {
+        return cached;
+    }
+
+    /**
+     * Returns the inputs of this adapter besides its {@link InjectData} fields, which are part of the
+     * {@link InputFingerprint} used to coalesce ({@link Coalesce}) and cache ({@link flipkart.tef.annotations.CacheResult})
+     * its executions. An adapter whose result depends on anything else, e.g. the user or the tenant of the request
+     * held in the TefContext, must return it here, else the result computed for one request is served to another.
+     *
+     * @param tefContext Tef Context
+     * @return The additional inputs, compared via equals/hashCode. null if the result depends on the injected data only.
+     */
+    protected Object fingerprintInputs(TefContext tefContext) {
+        return null;
+    }
+
     /**
      * This method is invoked when an Injected data which is marked for mutation, changes.
      *
@@ -114,14 +254,17 @@ public abstract class DataAdapterBizlogic<T> implements IDataBizlogic<T>, Mutati
     public final void mutated(DataAdapterResult object) {
         Field member = fieldCache.get(object.getKey());
         if (member != null) {
-            try {
-                member.setAccessible(true);
-                member.set(this, object.getResult());
-                // invalidate the cache.
-                this.result = null;
-                this.resultComputed = false;
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException(e);
+            synchronized (this) {
+                try {
+                    member.setAccessible(true);
+                    member.set(this, object.getResult());
+                    // invalidate the cache, including any computation still running on the old inputs.
+                    this.result = null;
+                    this.resultComputed = false;
+                    this.generation++;
+                } catch (IllegalAccessException e) {
+                    throw new RuntimeException(e);
+                }
             }
         }
     }
@@ -0,0 +1,120 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.bizlogics;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import flipkart.tef.annotations.CacheResult;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The default {@link AdapterResultCache}, a thread-safe LRU cache with an optional time to live.
+ * Hits and misses are recorded, see {@link #stats()}.
+ * <p>
+ * Date: 17/10/26
+ */
+public class GuavaAdapterResultCache implements AdapterResultCache {
+
+    private final Cache<InputFingerprint, Object> cache;
+
+    /**
+     * @param maximumSize      Maximum number of results to be cached. Least recently used results are evicted beyond this.
+     * @param expireAfterWrite Time after which a cached result expires. 0 implies the results do not expire.
+     * @param timeUnit         Unit of expireAfterWrite
+     */
+    public GuavaAdapterResultCache(long maximumSize, long expireAfterWrite, TimeUnit timeUnit) {
+        this(newBuilder(expireAfterWrite, timeUnit).maximumSize(checkPositive(maximumSize)));
+    }
+
+    /**
+     * @param maximumWeight    Maximum total weight of the cached results
+     * @param weigher          Computes the weight of a result
+     * @param expireAfterWrite Time after which a cached result expires. 0 implies the results do not expire.
+     * @param timeUnit         Unit of expireAfterWrite
+     */
+    public GuavaAdapterResultCache(long maximumWeight, Weigher weigher, long expireAfterWrite, TimeUnit timeUnit) {
+        this(newBuilder(expireAfterWrite, timeUnit).maximumWeight(checkPositive(maximumWeight))
+                .weigher((InputFingerprint key, Object value) -> weigher.weigh(value)));
+    }
+
+    private GuavaAdapterResultCache(CacheBuilder<? super InputFingerprint, ? super Object> builder) {
+        this.cache = builder.recordStats().build();
+    }
+
+    /**
+     * Builds the cache declared by the annotation.
+     */
+    static GuavaAdapterResultCache of(CacheResult cacheResult) {
+        if (cacheResult.maximumWeight() > 0) {
+            Preconditions.checkArgument(cacheResult.weigher() != Weigher.class, Messages.WEIGHER_IS_REQUIRED);
+            Weigher weigher;
+            try {
+                weigher = cacheResult.weigher().newInstance();
+            } catch (InstantiationException | IllegalAccessException e) {
+                throw new IllegalArgumentException(String.format(Messages.UNABLE_TO_CREATE_WEIGHER, cacheResult.weigher().getName()), e);
+            }
+            return new GuavaAdapterResultCache(cacheResult.maximumWeight(), weigher, cacheResult.expireAfterWrite(), cacheResult.timeUnit());
+        }
+        return new GuavaAdapterResultCache(cacheResult.maximumSize(), cacheResult.expireAfterWrite(), cacheResult.timeUnit());
+    }
+
+    private static CacheBuilder<Object, Object> newBuilder(long expireAfterWrite, TimeUnit timeUnit) {
+        Preconditions.checkArgument(expireAfterWrite >= 0, Messages.EXPIRY_MUST_NOT_BE_NEGATIVE);
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder();
+        if (expireAfterWrite > 0) {
+            builder.expireAfterWrite(expireAfterWrite, timeUnit);
+        }
+        return builder;
+    }
+
+    private static long checkPositive(long maximum) {
+        Preconditions.checkArgument(maximum > 0, Messages.MAXIMUM_MUST_BE_POSITIVE);
+        return maximum;
+    }
+
+    @Override
+    public Object getIfPresent(InputFingerprint fingerprint) {
+        return cache.getIfPresent(fingerprint);
+    }
+
+    @Override
+    public void put(InputFingerprint fingerprint, Object result) {
+        cache.put(fingerprint, result);
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    static class Messages {
+        public static final String MAXIMUM_MUST_BE_POSITIVE = "Maximum size or weight of the adapter result cache must be positive";
+        public static final String EXPIRY_MUST_NOT_BE_NEGATIVE = "Expiry of the adapter result cache must not be negative";
+        public static final String WEIGHER_IS_REQUIRED = "A weigher is required when the maximum weight is set";
+        public static final String UNABLE_TO_CREATE_WEIGHER = "Unable to create weigher %s";
+    }
+}
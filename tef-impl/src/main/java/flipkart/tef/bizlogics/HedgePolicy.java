@@ -0,0 +1,295 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.bizlogics;
+
+import com.google.common.base.Preconditions;
+import com.google.inject.internal.BytecodeGen;
+import flipkart.tef.annotations.Hedge;
+import flipkart.tef.metrics.LatencyHistogram;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Executes the tasks of an {@link AsyncDataAdapterBizlogic} as declared via {@link Hedge}, and holds the latencies
+ * and the hedging metrics of the adapter. A policy is shared by all the executions of an adapter class, via {@link #of(Class)}.
+ * <p>
+ * The delay before a hedge is the configured percentile of the latencies of the attempts which completed, recomputed
+ * every {@link #RECOMPUTE_INTERVAL} attempts. Every execution earns {@code maxHedgeRatio} of a hedge, and a hedge
+ * is only started if a whole one has been earned, so hedges cannot exceed that ratio of the executions (besides a small burst).
+ * <p>
+ * Date: 17/10/26
+ */
+public final class HedgePolicy {
+
+    /**
+     * Number of latencies to be recorded before the percentile is used as the delay
+     */
+    static final int MIN_SAMPLES = 100;
+    static final int RECOMPUTE_INTERVAL = 64;
+
+    /**
+     * The hedge tokens are kept in thousandths of a hedge
+     */
+    private static final long TOKEN = 1000;
+    private static final long MAX_TOKENS = 10 * TOKEN;
+
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "tef-hedge-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final ClassValue<HedgePolicy> POLICIES = new ClassValue<HedgePolicy>() {
+        @Override
+        protected HedgePolicy computeValue(Class<?> type) {
+            Hedge hedge = type.getAnnotation(Hedge.class);
+            return hedge == null ? null : new HedgePolicy(hedge.percentile(), hedge.unit().toNanos(hedge.initialDelay()),
+                    hedge.unit().toNanos(hedge.minDelay()), hedge.maxHedgeRatio());
+        }
+    };
+
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long tokensPerExecution;
+
+    private final LatencyHistogram latencies;
+    private final AtomicLong tokens;
+    private final LongAdder executions;
+    private final LongAdder hedges;
+    private final LongAdder hedgeWins;
+    private final AtomicInteger samplesSinceRecompute;
+    private volatile long delayNanos;
+
+    HedgePolicy(double percentile, long initialDelayNanos, long minDelayNanos, double maxHedgeRatio) {
+        Preconditions.checkArgument(percentile > 0 && percentile < 100, Messages.INVALID_PERCENTILE, percentile);
+        Preconditions.checkArgument(initialDelayNanos >= 0 && minDelayNanos >= 0);
+        Preconditions.checkArgument(maxHedgeRatio >= 0 && maxHedgeRatio <= 1, Messages.INVALID_HEDGE_RATIO, maxHedgeRatio);
+        this.percentile = percentile;
+        this.minDelayNanos = minDelayNanos;
+        this.tokensPerExecution = (long) (maxHedgeRatio * TOKEN);
+        this.latencies = new LatencyHistogram();
+        this.tokens = new AtomicLong();
+        this.executions = new LongAdder();
+        this.hedges = new LongAdder();
+        this.hedgeWins = new LongAdder();
+        this.samplesSinceRecompute = new AtomicInteger();
+        this.delayNanos = Math.max(minDelayNanos, initialDelayNanos);
+    }
+
+    /**
+     * @param adapterClass A data adapter class
+     * @return The policy of the adapter, or null if the adapter is not hedged
+     */
+    public static HedgePolicy of(Class<?> adapterClass) {
+        if (adapterClass.getName().contains(BytecodeGen.ENHANCER_BY_GUICE_MARKER)) {
+            // Guice AOP creates a subclass of the adapter, the policy is declared on (and shared with) the adapter itself
+            adapterClass = adapterClass.getSuperclass();
+        }
+        return POLICIES.get(adapterClass);
+    }
+
+    /**
+     * Submits the task to the executor, and a hedge if the task does not complete within the current delay.
+     *
+     * @return A future which completes with the result of the first attempt to succeed, or with the failure of the
+     * last attempt if all of them fail. Cancelling it cancels the attempts.
+     */
+    <V> CompletableFuture<V> execute(ExecutorService executorService, Callable<V> task) {
+        executions.increment();
+        tokens.updateAndGet(t -> Math.min(MAX_TOKENS, t + tokensPerExecution));
+
+        HedgedExecution<V> execution = new HedgedExecution<>(executorService, task);
+        execution.submit(false);
+        ScheduledFuture<?> hedge = TIMER.schedule(() -> {
+            if (!execution.result.isDone() && tryAcquireHedge()) {
+                hedges.increment();
+                execution.submit(true);
+            }
+        }, delayNanos, TimeUnit.NANOSECONDS);
+        execution.result.whenComplete((value, throwable) -> {
+            hedge.cancel(false);
+            execution.cancelAttempts();
+        });
+        return execution.result;
+    }
+
+    private boolean tryAcquireHedge() {
+        while (true) {
+            long current = tokens.get();
+            if (current < TOKEN) {
+                return false;
+            }
+            if (tokens.compareAndSet(current, current - TOKEN)) {
+                return true;
+            }
+        }
+    }
+
+    private void record(long latencyNanos) {
+        latencies.record(latencyNanos);
+        if (samplesSinceRecompute.incrementAndGet() >= RECOMPUTE_INTERVAL) {
+            samplesSinceRecompute.set(0);
+            if (latencies.getCount() >= MIN_SAMPLES) {
+                delayNanos = Math.max(minDelayNanos, latencies.getPercentile(percentile));
+            }
+        }
+    }
+
+    /**
+     * @return The delay after which a hedge is started
+     */
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return The latencies of the attempts which completed
+     */
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    public long getExecutionCount() {
+        return executions.sum();
+    }
+
+    public long getHedgeCount() {
+        return hedges.sum();
+    }
+
+    /**
+     * @return Number of executions whose result came from the hedge
+     */
+    public long getHedgeWinCount() {
+        return hedgeWins.sum();
+    }
+
+    /**
+     * @return Fraction of the executions which were hedged
+     */
+    public double getHedgeRate() {
+        long count = executions.sum();
+        return count == 0 ? 0 : (double) hedges.sum() / count;
+    }
+
+    /**
+     * @return Fraction of the hedges which completed before the first attempt
+     */
+    public double getWinRate() {
+        long count = hedges.sum();
+        return count == 0 ? 0 : (double) hedgeWins.sum() / count;
+    }
+
+    /**
+     * The attempts of a single execution
+     */
+    private final class HedgedExecution<V> {
+        private final ExecutorService executorService;
+        private final Callable<V> task;
+        private final CompletableFuture<V> result;
+
+        /**
+         * Number of attempts which have not failed. The result fails when the last of them fails.
+         */
+        private final AtomicInteger running;
+
+        /**
+         * Set by the first attempt which succeeds, so that the win is counted before the result completes
+         */
+        private final AtomicBoolean succeeded;
+        private volatile Future<?> primary;
+        private volatile Future<?> hedge;
+
+        HedgedExecution(ExecutorService executorService, Callable<V> task) {
+            this.executorService = executorService;
+            this.task = task;
+            this.result = new CompletableFuture<>();
+            this.running = new AtomicInteger();
+            this.succeeded = new AtomicBoolean();
+        }
+
+        void submit(boolean isHedge) {
+            running.incrementAndGet();
+            long start = System.nanoTime();
+            Future<?> attempt;
+            try {
+                attempt = executorService.submit(() -> {
+                    V value;
+                    try {
+                        value = task.call();
+                    } catch (Throwable t) {
+                        if (running.decrementAndGet() == 0) {
+                            result.completeExceptionally(t);
+                        }
+                        return;
+                    }
+                    record(System.nanoTime() - start);
+                    if (succeeded.compareAndSet(false, true)) {
+                        if (isHedge) {
+                            hedgeWins.increment();
+                        }
+                        result.complete(value);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                if (!isHedge) {
+                    throw e;
+                }
+                // The first attempt is still running
+                running.decrementAndGet();
+                return;
+            }
+
+            if (isHedge) {
+                hedge = attempt;
+            } else {
+                primary = attempt;
+            }
+            if (result.isDone()) {
+                cancelAttempts();
+            }
+        }
+
+        void cancelAttempts() {
+            Future<?> attempt = primary;
+            if (attempt != null) {
+                attempt.cancel(true);
+            }
+            attempt = hedge;
+            if (attempt != null) {
+                attempt.cancel(true);
+            }
+        }
+    }
+
+    static class Messages {
+        public static final String INVALID_PERCENTILE = "Percentile of a hedge should be between 0 and 100, found %s";
+        public static final String INVALID_HEDGE_RATIO = "Max hedge ratio should be between 0 and 1, found %s";
+    }
+}
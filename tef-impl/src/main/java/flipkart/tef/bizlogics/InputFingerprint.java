@@ -0,0 +1,109 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.bizlogics;
+
+import flipkart.tef.annotations.InjectData;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Identifies an execution of a data adapter by its class, the values of its {@link InjectData} fields and the
+ * additional inputs returned by {@link DataAdapterBizlogic#fingerprintInputs(TefContext)}.
+ * Two executions with equal fingerprints are expected to emit equal data.
+ * Used as the key for coalescing ({@link flipkart.tef.annotations.Coalesce}) and caching ({@link AdapterResultCache}).
+ * <p>
+ * Date: 17/10/26
+ */
+public final class InputFingerprint {
+
+    /**
+     * The {@link InjectData} fields of a data adapter class, including the ones declared in its superclasses.
+     */
+    private static final ClassValue<Field[]> INJECTED_FIELDS = new ClassValue<Field[]>() {
+        @Override
+        protected Field[] computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> clazz = type; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+                for (Field field : clazz.getDeclaredFields()) {
+                    if (field.isAnnotationPresent(InjectData.class)) {
+                        field.setAccessible(true);
+                        fields.add(field);
+                    }
+                }
+            }
+            return fields.toArray(new Field[0]);
+        }
+    };
+
+    private final Class<?> adapterClass;
+    private final Object[] inputs;
+    private final int hash;
+
+    private InputFingerprint(Class<?> adapterClass, Object[] inputs) {
+        this.adapterClass = adapterClass;
+        this.inputs = inputs;
+        this.hash = 31 * adapterClass.hashCode() + Arrays.deepHashCode(inputs);
+    }
+
+    /**
+     * @param adapter    A data adapter, whose data has been injected
+     * @param tefContext The context of the execution
+     * @return The fingerprint of the current inputs of the adapter
+     */
+    static InputFingerprint of(DataAdapterBizlogic<?> adapter, TefContext tefContext) {
+        Field[] fields = INJECTED_FIELDS.get(adapter.getClass());
+        Object[] inputs = new Object[fields.length + 1];
+        try {
+            for (int i = 0; i < fields.length; i++) {
+                inputs[i] = fields[i].get(adapter);
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+        inputs[fields.length] = adapter.fingerprintInputs(tefContext);
+        return new InputFingerprint(adapter.getClass(), inputs);
+    }
+
+    public Class<?> getAdapterClass() {
+        return adapterClass;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof InputFingerprint)) {
+            return false;
+        }
+        InputFingerprint that = (InputFingerprint) o;
+        return hash == that.hash && adapterClass == that.adapterClass && Arrays.deepEquals(inputs, that.inputs);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return adapterClass.getName() + Arrays.deepToString(inputs);
+    }
+}
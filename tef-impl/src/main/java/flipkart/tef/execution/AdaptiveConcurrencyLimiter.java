@@ -0,0 +1,182 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.execution;
+
+import com.google.common.base.Preconditions;
+import flipkart.tef.annotations.ConcurrencyLimit;
+import flipkart.tef.exception.ErrorCode;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * An adaptive limit on the concurrent executions of a bizlogic, as declared via {@link ConcurrencyLimit}.
+ * <p>
+ * The limit follows AIMD (additive increase, multiplicative decrease): an execution which signals overload
+ * (See {@link #isOverloaded(ErrorCode)}) or exceeds the latency threshold cuts the limit by 10%, while a successful
+ * execution grows it by 1/limit as long as at least half of the limit is in use, i.e. the limit grows by about one
+ * after a full limit's worth of successful executions. An idle limit does not grow.
+ * <p>
+ * The limit is cut at most once per round trip: the executions which were in flight when the limit was cut started
+ * under the old limit, so their overload is already accounted for, and does not cut the limit again.
+ * <p>
+ * The limiters are shared by all the flows executing a bizlogic class, via {@link #of(Class)}.
+ * <p>
+ * Date: 17/10/26
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private static final ClassValue<AdaptiveConcurrencyLimiter> LIMITERS = new ClassValue<AdaptiveConcurrencyLimiter>() {
+        @Override
+        protected AdaptiveConcurrencyLimiter computeValue(Class<?> type) {
+            ConcurrencyLimit limit = type.getAnnotation(ConcurrencyLimit.class);
+            return limit == null ? null : new AdaptiveConcurrencyLimiter(limit.initialLimit(), limit.minLimit(),
+                    limit.maxLimit(), limit.unit().toNanos(limit.latencyThreshold()));
+        }
+    };
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+
+    /**
+     * The bits of the limit as a double, since it grows by fractions of a permit.
+     */
+    private final AtomicLong limit;
+    private final AtomicInteger inFlight;
+    /**
+     * Number of executions still in flight, which started before the limit was last cut.
+     */
+    private final AtomicInteger inFlightBeforeBackoff;
+    private final LongAdder shed;
+    private final LongAdder overloaded;
+
+    /**
+     * @param initialLimit          The limit to start with
+     * @param minLimit              The limit is not reduced below this
+     * @param maxLimit              The limit is not grown above this
+     * @param latencyThresholdNanos Executions slower than this reduce the limit, 0 to disable
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdNanos) {
+        Preconditions.checkArgument(minLimit >= 1 && minLimit <= initialLimit && initialLimit <= maxLimit,
+                Messages.INVALID_LIMITS, minLimit, initialLimit, maxLimit);
+        Preconditions.checkArgument(latencyThresholdNanos >= 0);
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.limit = new AtomicLong(Double.doubleToRawLongBits(initialLimit));
+        this.inFlight = new AtomicInteger();
+        this.inFlightBeforeBackoff = new AtomicInteger();
+        this.shed = new LongAdder();
+        this.overloaded = new LongAdder();
+    }
+
+    /**
+     * @param bizlogic A bizlogic class
+     * @return The limiter shared by the executions of the bizlogic, or null if the bizlogic does not declare a limit.
+     */
+    public static AdaptiveConcurrencyLimiter of(Class<?> bizlogic) {
+        return LIMITERS.get(bizlogic);
+    }
+
+    /**
+     * Takes a permit for an execution, which should be returned via {@link #release(long, boolean)} once it completes.
+     *
+     * @return false if the limit has been reached, and the execution should be shed.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                shed.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns the permit of an execution, and adapts the limit to its outcome.
+     *
+     * @param latencyNanos Time taken by the execution
+     * @param overload     true if the execution failed due to overload of the dependency
+     */
+    public void release(long latencyNanos, boolean overload) {
+        int current = inFlight.getAndDecrement();
+        boolean startedBeforeBackoff = inFlightBeforeBackoff.getAndUpdate(n -> Math.max(0, n - 1)) > 0;
+        if (overload || (latencyThresholdNanos > 0 && latencyNanos > latencyThresholdNanos)) {
+            overloaded.increment();
+            if (!startedBeforeBackoff) {
+                updateLimit(l -> Math.max(minLimit, l * BACKOFF_RATIO));
+                inFlightBeforeBackoff.set(current - 1);
+            }
+        } else if (current * 2 >= getExactLimit()) {
+            updateLimit(l -> Math.min(maxLimit, l + 1 / l));
+        }
+    }
+
+    private void updateLimit(DoubleUnaryOperator update) {
+        limit.updateAndGet(bits -> Double.doubleToRawLongBits(update.applyAsDouble(Double.longBitsToDouble(bits))));
+    }
+
+    private double getExactLimit() {
+        return Double.longBitsToDouble(limit.get());
+    }
+
+    /**
+     * @return true if a failure with the error code signals that the dependency is overloaded
+     */
+    public static boolean isOverloaded(ErrorCode errorCode) {
+        return errorCode == ErrorCode.TOO_MANY_REQUEST || errorCode == ErrorCode.DEADLINE_EXCEEDED;
+    }
+
+    /**
+     * @return The number of executions allowed concurrently, i.e. the limit rounded down
+     */
+    public int getLimit() {
+        return (int) getExactLimit();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return Number of executions which were shed, since the limit was reached
+     */
+    public long getShedCount() {
+        return shed.sum();
+    }
+
+    /**
+     * @return Number of executions which signalled overload, or exceeded the latency threshold
+     */
+    public long getOverloadCount() {
+        return overloaded.sum();
+    }
+
+    static class Messages {
+        public static final String INVALID_LIMITS = "Concurrency limits should satisfy 1 <= min (%s) <= initial (%s) <= max (%s)";
+        public static final String LIMIT_REACHED = "Concurrency limit of %s reached, execution is shed";
+    }
+}
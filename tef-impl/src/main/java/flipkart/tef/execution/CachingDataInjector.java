@@ -0,0 +1,50 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.execution;
+
+import flipkart.tef.exception.TefExecutionException;
+
+/**
+ * A data injector which builds an {@link InjectionPlan} once per bizlogic class, and reuses it across executions.
+ * Unlike {@link DefaultDataInjector}, there are no reflective lookups or annotation parsing per injection.
+ * <p>
+ * The plans are held in a {@link ClassValue}, which ties each plan to its bizlogic class. A plan strongly references
+ * the class and the handles to its fields, so it lives as long as the class: a bizlogic class (and its plan) can only be
+ * unloaded once its class loader, and hence every class it defined, is garbage collected. Applications which load
+ * bizlogics from short lived class loaders, e.g. plugins, should expect the plans to be retained until then.
+ * <p>
+ * Date: 17/10/26
+ */
+public class CachingDataInjector implements DataInjector {
+
+    private static final ClassValue<InjectionPlan> PLANS = new ClassValue<InjectionPlan>() {
+        @Override
+        protected InjectionPlan computeValue(Class<?> type) {
+            return InjectionPlan.of(type);
+        }
+    };
+
+    @Override
+    public void injectData(Object bizlogic, Class<?> bizlogicClass, InjectableValueProvider valueProvider)
+            throws DataDependencyException, IllegalAccessException, TefExecutionException {
+        getPlan(bizlogicClass).inject(bizlogic, valueProvider);
+    }
+
+    static InjectionPlan getPlan(Class<?> bizlogicClass) {
+        return PLANS.get(bizlogicClass);
+    }
+}
@@ -0,0 +1,304 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.execution;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.BiMap;
+import com.google.common.collect.ImmutableList;
+import flipkart.tef.FlowExecutionListener;
+import flipkart.tef.annotations.NonCritical;
+import flipkart.tef.annotations.Retry;
+import flipkart.tef.annotations.Timeout;
+import flipkart.tef.bizlogics.DataAdapterKey;
+import flipkart.tef.bizlogics.IDataBizlogic;
+import flipkart.tef.bizlogics.TefContext;
+import flipkart.tef.flow.DataSlots;
+import flipkart.tef.flow.FlowGraph;
+import flipkart.tef.flow.SimpleFlow;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * An executable plan of a {@link SimpleFlow}, which holds everything about an execution that does not change across
+ * requests: the order of the bizlogics, the data adapter emitting every data key, the listeners and the execution mode.
+ * <p>
+ * A compiled flow is immutable, and is meant to be built once and shared across threads.
+ * The state of a single execution is held by a {@link FlowRun}, created via {@link #newRun(DataContext, TefContext)}.
+ * <p>
+ * Date: 17/10/26
+ */
+public final class CompiledFlow {
+
+    private static final long MAXIMUM_CACHED_FLOWS = 1024;
+
+    /**
+     * The plans of the flows which are executed without a compiled flow, one per execution mode.
+     * Keyed by the identity of the flow, and bounded since a flow might be built for every request.
+     */
+    private static final Cache<SimpleFlow, AtomicReferenceArray<CompiledFlow>> PLANS = CacheBuilder.newBuilder()
+            .weakKeys().softValues().maximumSize(MAXIMUM_CACHED_FLOWS).build();
+
+    private final SimpleFlow flow;
+    private final String id;
+    private final ExecutionMode executionMode;
+    private final ImmutableList<FlowExecutionListener> listeners;
+
+    /**
+     * Notifies the listeners, specialized on their number since the listeners cannot change once the flow is compiled
+     */
+    private final ListenerDispatcher listenerDispatcher;
+    private final DataInjector dataInjector;
+
+    /**
+     * The data key emitted by the bizlogic with a given id, null if the bizlogic is not a data adapter of the flow.
+     */
+    private final DataAdapterKey<?>[] emittedKeys;
+
+    /**
+     * The id of the bizlogic which emits the data key in a given slot.
+     */
+    private final int[] adapterIdsBySlot;
+
+    /**
+     * The timeout of the bizlogic with a given id in nanos, 0 if the bizlogic does not declare one. See {@link Timeout}
+     */
+    private final long[] timeoutNanos;
+    private final boolean[] nonCritical;
+
+    /**
+     * The retry policy of the bizlogic with a given id, null if the bizlogic is not retried. See {@link Retry}
+     */
+    private final RetryPolicy[] retryPolicies;
+
+    /**
+     * The concurrency limiter of the bizlogic with a given id, null if it is not limited. See {@link AdaptiveConcurrencyLimiter}
+     */
+    private final AdaptiveConcurrencyLimiter[] concurrencyLimiters;
+
+    private CompiledFlow(Builder builder) {
+        this.flow = builder.flow;
+        this.id = builder.id != null ? builder.id : "flow@" + Integer.toHexString(System.identityHashCode(flow));
+        this.executionMode = builder.executionMode;
+        this.listeners = builder.listeners.build();
+        this.listenerDispatcher = ListenerDispatcher.of(listeners);
+        this.dataInjector = builder.dataInjector;
+
+        FlowGraph graph = flow.getGraph();
+        DataSlots dataSlots = flow.getDataSlots();
+        BiMap<Class<? extends IDataBizlogic<?>>, DataAdapterKey<?>> emittedData = flow.getDataAdapterMap().inverse();
+        this.emittedKeys = new DataAdapterKey<?>[graph.size()];
+        this.adapterIdsBySlot = new int[dataSlots.size()];
+        Arrays.fill(adapterIdsBySlot, -1);
+        this.timeoutNanos = new long[graph.size()];
+        this.nonCritical = new boolean[graph.size()];
+        this.retryPolicies = new RetryPolicy[graph.size()];
+        this.concurrencyLimiters = new AdaptiveConcurrencyLimiter[graph.size()];
+        for (int id = 0; id < graph.size(); id++) {
+            Timeout timeout = graph.getBizlogic(id).getAnnotation(Timeout.class);
+            timeoutNanos[id] = timeout == null ? 0 : timeout.unit().toNanos(timeout.value());
+            nonCritical[id] = graph.getBizlogic(id).isAnnotationPresent(NonCritical.class);
+            retryPolicies[id] = RetryPolicy.of(graph.getBizlogic(id).getAnnotation(Retry.class));
+            concurrencyLimiters[id] = AdaptiveConcurrencyLimiter.of(graph.getBizlogic(id));
+
+            DataAdapterKey<?> key = emittedData.get(graph.getBizlogic(id));
+            if (key != null) {
+                emittedKeys[id] = key;
+                adapterIdsBySlot[dataSlots.getSlot(key)] = id;
+            }
+        }
+    }
+
+    public static Builder builder(SimpleFlow flow) {
+        return new Builder(flow);
+    }
+
+    /**
+     * @return The plan of the flow without any listeners, which is compiled once per flow and execution mode.
+     */
+    static CompiledFlow of(SimpleFlow flow, ExecutionMode executionMode) {
+        Preconditions.checkArgument(flow != null);
+        AtomicReferenceArray<CompiledFlow> plans = PLANS.asMap()
+                .computeIfAbsent(flow, f -> new AtomicReferenceArray<>(ExecutionMode.values().length));
+        int mode = executionMode.ordinal();
+        CompiledFlow plan = plans.get(mode);
+        if (plan == null) {
+            // Concurrent executions might compile the flow more than once, but share the plan that is set first
+            plans.compareAndSet(mode, null, builder(flow).executionMode(executionMode).build());
+            plan = plans.get(mode);
+        }
+        return plan;
+    }
+
+    /**
+     * Creates the state for a single execution of this flow.
+     *
+     * @param context    Data context for the execution
+     * @param tefContext Tef Context
+     * @return A run, which should be executed once.
+     */
+    public FlowRun newRun(DataContext context, TefContext tefContext) {
+        Preconditions.checkArgument(context != null);
+        Preconditions.checkArgument(tefContext != null);
+        DataInjector injector = dataInjector != null ? dataInjector : tefContext.getInjector().getInstance(DataInjector.class);
+        return new FlowRun(this, context, tefContext, injector, listenerDispatcher);
+    }
+
+    /**
+     * Creates the state for a single execution of this flow, which notifies the given listeners after the listeners
+     * of this flow. The plan is shared, only the listener dispatcher is created for the run.
+     */
+    FlowRun newRun(DataContext context, TefContext tefContext, List<FlowExecutionListener> additionalListeners) {
+        if (additionalListeners.isEmpty()) {
+            return newRun(context, tefContext);
+        }
+        Preconditions.checkArgument(context != null);
+        Preconditions.checkArgument(tefContext != null);
+        DataInjector injector = dataInjector != null ? dataInjector : tefContext.getInjector().getInstance(DataInjector.class);
+        ListenerDispatcher dispatcher = ListenerDispatcher.of(ImmutableList.<FlowExecutionListener>builder()
+                .addAll(listeners).addAll(additionalListeners).build());
+        return new FlowRun(this, context, tefContext, injector, dispatcher);
+    }
+
+    public SimpleFlow getFlow() {
+        return flow;
+    }
+
+    /**
+     * @return Identifies the flow in the diagnostics, e.g. the flight recorder events. See {@link Builder#id(String)}
+     */
+    public String getId() {
+        return id;
+    }
+
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    public List<FlowExecutionListener> getListeners() {
+        return listeners;
+    }
+
+    FlowGraph getGraph() {
+        return flow.getGraph();
+    }
+
+    /**
+     * @return The data key emitted by the bizlogic with the given id, or null if it is not a data adapter of the flow.
+     */
+    DataAdapterKey<?> getEmittedKey(int id) {
+        return emittedKeys[id];
+    }
+
+    /**
+     * @return The id of the data adapter which emits the given key, or -1 if no data adapter of the flow emits it.
+     */
+    int getAdapterId(DataAdapterKey<?> key) {
+        int slot = flow.getDataSlots().getSlot(key);
+        return slot < 0 ? -1 : adapterIdsBySlot[slot];
+    }
+
+    /**
+     * @return The timeout of the bizlogic with the given id in nanos, 0 if it does not declare one.
+     */
+    long getTimeoutNanos(int id) {
+        return timeoutNanos[id];
+    }
+
+    /**
+     * @return true if the bizlogic with the given id is {@link NonCritical}
+     */
+    boolean isNonCritical(int id) {
+        return nonCritical[id];
+    }
+
+    /**
+     * @return The retry policy of the bizlogic with the given id, or null if it is not retried.
+     */
+    RetryPolicy getRetryPolicy(int id) {
+        return retryPolicies[id];
+    }
+
+    /**
+     * @return The concurrency limiter of the bizlogic with the given id, or null if it is not limited.
+     */
+    AdaptiveConcurrencyLimiter getConcurrencyLimiter(int id) {
+        return concurrencyLimiters[id];
+    }
+
+    public static class Builder {
+        private final SimpleFlow flow;
+        private final ImmutableList.Builder<FlowExecutionListener> listeners;
+        private String id;
+        private ExecutionMode executionMode;
+        private DataInjector dataInjector;
+
+        private Builder(SimpleFlow flow) {
+            Preconditions.checkArgument(flow != null);
+            this.flow = flow;
+            this.listeners = ImmutableList.builder();
+            this.executionMode = ExecutionMode.EAGER;
+        }
+
+        /**
+         * The id of the flow, e.g. the name of the api it serves. Defaults to an id derived from the identity of the
+         * {@link SimpleFlow}, which is stable as long as the flow is cached.
+         */
+        public Builder id(String id) {
+            Preconditions.checkArgument(id != null);
+            this.id = id;
+            return this;
+        }
+
+        public Builder executionMode(ExecutionMode executionMode) {
+            Preconditions.checkArgument(executionMode != null);
+            this.executionMode = executionMode;
+            return this;
+        }
+
+        /**
+         * Listeners are notified from the threads executing the flow, and should be thread-safe
+         * if the compiled flow is shared.
+         */
+        public Builder addListener(FlowExecutionListener listener) {
+            Preconditions.checkArgument(listener != null);
+            this.listeners.add(listener);
+            return this;
+        }
+
+        public Builder addListeners(List<FlowExecutionListener> listeners) {
+            listeners.forEach(this::addListener);
+            return this;
+        }
+
+        /**
+         * The data injector to be used for all runs. If not set, the injector bound in the
+         * guice injector of the tef context is looked up for every run.
+         */
+        public Builder dataInjector(DataInjector dataInjector) {
+            this.dataInjector = dataInjector;
+            return this;
+        }
+
+        public CompiledFlow build() {
+            return new CompiledFlow(this);
+        }
+    }
+}
@@ -19,14 +19,15 @@ package flipkart.tef.execution;
 import flipkart.tef.bizlogics.DataAdapterKey;
 import flipkart.tef.bizlogics.DataAdapterResult;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * DataContext is used to store the data being generated by adapters during a flow execution.
  * The stored data is then used to support the injections wherever required.
+ * The context is safe to be shared by bizlogics executing in parallel.
  *
  * 
  * Date: 19/06/20
@@ -37,14 +38,14 @@ public class DataContext {
     private final List<MutationListener> mutationListeners;
 
     public DataContext() {
-        context = new HashMap<>();
-        mutationListeners = new ArrayList<>();
+        context = new ConcurrentHashMap<>();
+        mutationListeners = new CopyOnWriteArrayList<>();
     }
 
     public void put(DataAdapterResult value) {
         if (value != null && value.getResult() != null) {
             if (context.containsKey(value.getKey())) {
-                mutationListeners.forEach(l -> l.mutated(value));
+                notifyMutation(value);
             }
             context.put(value.getKey(), value.getResult());
         }
@@ -64,19 +65,28 @@ public class DataContext {
     }
 
     private <T> T get(Class<T> clazz, String name) {
-        DataAdapterKey<T> key = new DataAdapterKey<>(name, clazz);
+        DataAdapterKey<T> key = DataAdapterKey.of(name, clazz);
         return get(key);
     }
 
     public <T> T get(DataAdapterKey<T> key) {
         Object value = context.get(key);
         if (value != null) {
-            return key.getResultClass().cast(context.get(key));
+            return key.getResultClass().cast(value);
         } else {
             return null;
         }
     }
 
+    /**
+     * Notifies the mutation listeners that the data for an existing key is being replaced.
+     *
+     * @param value The new data
+     */
+    protected void notifyMutation(DataAdapterResult value) {
+        mutationListeners.forEach(l -> l.mutated(value));
+    }
+
     public boolean addMutationListener(MutationListener listener) {
         return this.mutationListeners.add(listener);
     }
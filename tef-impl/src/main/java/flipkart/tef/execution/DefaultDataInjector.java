@@ -20,9 +20,12 @@ import flipkart.tef.annotations.InjectData;
 import flipkart.tef.exception.TefExecutionException;
 
 import java.lang.reflect.Field;
+import java.util.Optional;
 
 /**
- * This class is used for injecting data into bizlogics
+ * This class is used for injecting data into bizlogics.
+ * If an injector has been generated for a class via the tef-processor annotation processor, it is used
+ * for the fields declared in that class, otherwise the fields are discovered via reflection.
  * 
  * Date: 16/04/21
  */
@@ -33,6 +36,20 @@ public class DefaultDataInjector implements DataInjector {
     @Override
     public void injectData(Object bizlogic, Class<?> bizlogicClass,
                            InjectableValueProvider valueProvider) throws DataDependencyException, IllegalAccessException, TefExecutionException {
+        Optional<DataInjector> generatedInjector = GeneratedDataInjectors.get(bizlogicClass);
+        if (generatedInjector.isPresent()) {
+            generatedInjector.get().injectData(bizlogic, bizlogicClass, valueProvider);
+        } else {
+            injectDeclaredData(bizlogic, bizlogicClass, valueProvider);
+        }
+
+        if (!bizlogicClass.equals(Object.class)) {
+            injectData(bizlogic, bizlogicClass.getSuperclass(), valueProvider);
+        }
+    }
+
+    private void injectDeclaredData(Object bizlogic, Class<?> bizlogicClass,
+                                    InjectableValueProvider valueProvider) throws DataDependencyException, IllegalAccessException, TefExecutionException {
         Field[] fields = bizlogicClass.getDeclaredFields();
         for (Field field : fields) {
             InjectData injectable = field.getAnnotation(InjectData.class);
@@ -48,9 +65,5 @@ public class DefaultDataInjector implements DataInjector {
                 field.set(bizlogic, valueToInject);
             }
         }
-
-        if (!bizlogicClass.equals(Object.class)) {
-            injectData(bizlogic, bizlogicClass.getSuperclass(), valueProvider);
-        }
     }
 }
@@ -0,0 +1,36 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.execution;
+
+/**
+ * Decides which data adapters of a flow are executed by the flow executor.
+ * <p>
+ * Date: 17/10/26
+ */
+public enum ExecutionMode {
+
+    /**
+     * Every bizlogic of the flow is executed, in the order of the flow.
+     */
+    EAGER,
+
+    /**
+     * Data adapters are only executed if a bizlogic which is not a data adapter depends upon them transitively,
+     * or when their data is pulled via an injection. Data adapters whose output is not consumed are never executed.
+     */
+    LAZY
+}
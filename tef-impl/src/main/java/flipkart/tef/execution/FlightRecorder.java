@@ -0,0 +1,134 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.execution;
+
+import flipkart.tef.bizlogics.DataAdapterKey;
+import flipkart.tef.exception.TefExecutionException;
+
+/**
+ * Records the execution of flows as Java Flight Recorder events: the execution of a flow, of every bizlogic, the
+ * injection of the data of a bizlogic, and the resolution of every injected data key. The events show up in JMC under
+ * the "TEF" category, with the id of the flow, the bizlogic class, the data key, the duration and the outcome.
+ * <p>
+ * JFR is not available to the Java 8 classes of this library, so the recorder is loaded reflectively. The jar built on
+ * JDK 11+ is a multi-release jar, which carries a recorder backed by JFR (See src/main/java11). Everywhere else (on Java 8,
+ * or if the recorder cannot be loaded) a recorder which does nothing is used.
+ * <p>
+ * A {@code begin*} method returns the event which has begun, or null if the event is not enabled in any recording, in
+ * which case the corresponding {@code end*} method does nothing. The executors do not allocate when recording is off.
+ * <p>
+ * Date: 17/10/26
+ */
+abstract class FlightRecorder {
+
+    /**
+     * The recorder backed by JFR, present in META-INF/versions/11 of the multi-release jar
+     */
+    static final String JFR_RECORDER = "flipkart.tef.execution.JfrFlightRecorder";
+
+    private static final FlightRecorder INSTANCE = load();
+
+    static FlightRecorder get() {
+        return INSTANCE;
+    }
+
+    private static FlightRecorder load() {
+        try {
+            return (FlightRecorder) Class.forName(JFR_RECORDER).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // Java 8, or a jar built on an older JDK
+            return new Disabled();
+        }
+    }
+
+    /**
+     * @return false if the events are never recorded, since JFR is not available
+     */
+    abstract boolean isSupported();
+
+    abstract Object beginFlow();
+
+    abstract void endFlow(Object event, CompiledFlow flow, Throwable failure);
+
+    abstract Object beginBizlogic();
+
+    abstract void endBizlogic(Object event, CompiledFlow flow, Class<?> bizlogic, Throwable failure);
+
+    abstract Object beginInjection();
+
+    abstract void endInjection(Object event, CompiledFlow flow, Class<?> bizlogic, Throwable failure);
+
+    abstract Object beginResolution();
+
+    abstract void endResolution(Object event, CompiledFlow flow, DataAdapterKey<?> key, Throwable failure);
+
+    /**
+     * @return SUCCESS, the error code of a {@link TefExecutionException}, or the class of any other failure
+     */
+    static String getOutcome(Throwable failure) {
+        if (failure == null) {
+            return "SUCCESS";
+        } else if (failure instanceof TefExecutionException && ((TefExecutionException) failure).getErrorCode() != null) {
+            return ((TefExecutionException) failure).getErrorCode().name();
+        }
+        return failure.getClass().getSimpleName();
+    }
+
+    private static final class Disabled extends FlightRecorder {
+
+        @Override
+        boolean isSupported() {
+            return false;
+        }
+
+        @Override
+        Object beginFlow() {
+            return null;
+        }
+
+        @Override
+        void endFlow(Object event, CompiledFlow flow, Throwable failure) {
+        }
+
+        @Override
+        Object beginBizlogic() {
+            return null;
+        }
+
+        @Override
+        void endBizlogic(Object event, CompiledFlow flow, Class<?> bizlogic, Throwable failure) {
+        }
+
+        @Override
+        Object beginInjection() {
+            return null;
+        }
+
+        @Override
+        void endInjection(Object event, CompiledFlow flow, Class<?> bizlogic, Throwable failure) {
+        }
+
+        @Override
+        Object beginResolution() {
+            return null;
+        }
+
+        @Override
+        void endResolution(Object event, CompiledFlow flow, DataAdapterKey<?> key, Throwable failure) {
+        }
+    }
+}
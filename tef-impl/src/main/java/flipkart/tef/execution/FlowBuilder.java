@@ -31,7 +31,6 @@ import flipkart.tef.bizlogics.IDataBizlogic;
 import flipkart.tef.capability.AdapterConflictRuntimeException;
 import flipkart.tef.exceptions.UnableToResolveDataFromAdapterRuntimeException;
 import flipkart.tef.flow.SimpleFlow;
-import java.lang.reflect.ParameterizedType;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
@@ -148,7 +147,7 @@ public class FlowBuilder {
 
     FlowBuilder withImplicitBindings(Class<?>... bindings) {
         for (Class<?> binding : bindings) {
-            this.implicitDataBindings.add(new DataAdapterKey<>("", binding));
+            this.implicitDataBindings.add(DataAdapterKey.of("", binding));
         }
         return this;
     }
@@ -211,7 +210,7 @@ public class FlowBuilder {
         Preconditions.checkArgument(bizlogicsInFlow.size() == bizlogics.size(),
                 String.format(Messages.CYCLIC_GRAPHS_ARE_NOT_SUPPORTED, clonedBizlogicDependencyMap));
 
-        return new SimpleFlow(bizlogicsInFlow, dataAdapterMap);
+        return new SimpleFlow(bizlogicsInFlow, dataAdapterMap, bizlogicDependencyMap);
     }
 
     private void processBizLogic(Class<? extends IBizlogic> bizlogic) {
@@ -277,7 +276,7 @@ public class FlowBuilder {
                  */
                 returnType = getReturnTypeFromBizlogicUsingSunApi(dataAdapterBizLogic, new ArrayList<>());
 
-                DataAdapterKey<?> key = new DataAdapterKey<>(
+                DataAdapterKey<?> key = DataAdapterKey.of(
                         DataAdapterBizlogic.getEmittedDataName(dataAdapterBizLogic), returnType);
 
                 if (!dataAdapterMap.containsKey(key)) {
@@ -295,23 +294,14 @@ public class FlowBuilder {
 
     @SuppressWarnings("unchecked")
     private Class<?> getReturnTypeFromBizlogicUsingSunApi(Class<? extends DataAdapterBizlogic<?>> dataAdapterBizLogic, List<Class<? extends DataAdapterBizlogic<?>>> classHierarchy) {
-        classHierarchy.add(dataAdapterBizLogic);
-        if (dataAdapterBizLogic.getGenericSuperclass() instanceof ParameterizedType) {
-            ParameterizedType genericSuperClass = (ParameterizedType) dataAdapterBizLogic.getGenericSuperclass();
-            if (genericSuperClass.getActualTypeArguments()[0] instanceof Class) {
-                return (Class<?>) genericSuperClass.getActualTypeArguments()[0];
-            } else if (genericSuperClass.getActualTypeArguments()[0] instanceof ParameterizedType) {
-                // The type itself is parameterized
-                return (Class<?>)((ParameterizedType) genericSuperClass.getActualTypeArguments()[0]).getRawType();
-            }
-        } else {
-            // This could be a case of a data adapter being a subclass of another
-            // data adapter where type parameter is specified on the superclass
-            if(DataAdapterBizlogic.class.isAssignableFrom(dataAdapterBizLogic.getSuperclass())) {
-                return getReturnTypeFromBizlogicUsingSunApi((Class<? extends DataAdapterBizlogic<?>>) dataAdapterBizLogic.getSuperclass(), classHierarchy);
-            }
+        Class<?> returnType = DataAdapterBizlogic.getEmittedType(dataAdapterBizLogic);
+        if (returnType != null) {
+            return returnType;
         }
 
+        for (Class<?> clazz = dataAdapterBizLogic; clazz != null && DataAdapterBizlogic.class.isAssignableFrom(clazz); clazz = clazz.getSuperclass()) {
+            classHierarchy.add((Class<? extends DataAdapterBizlogic<?>>) clazz);
+        }
         throw new UnableToResolveDataFromAdapterRuntimeException(classHierarchy);
     }
 
@@ -344,7 +334,7 @@ public class FlowBuilder {
         for (Field field : fieldList) {
             InjectData injectable = field.getAnnotation(InjectData.class);
             if (injectable != null) {
-                dataDependencyMap.put(bizlogic, new DataDependencyDetail(injectable, new DataAdapterKey<>(injectable.name(), field.getType())));
+                dataDependencyMap.put(bizlogic, new DataDependencyDetail(injectable, DataAdapterKey.of(injectable.name(), field.getType())));
             }
         }
     }
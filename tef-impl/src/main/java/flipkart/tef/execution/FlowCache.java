@@ -0,0 +1,127 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.execution;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import flipkart.tef.bizlogics.IBizlogic;
+import flipkart.tef.flow.SimpleFlow;
+
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * A thread-safe, bounded cache of flows, keyed by the inputs to the flow builder.
+ * Since a {@link SimpleFlow} is immutable, the same instance is shared by all the requests which build a flow
+ * from the same inputs, and the flow is built once.
+ * <p>
+ * The inputs are normalized, i.e. the order in which bizlogics, capabilities, exclusions, dependencies and
+ * implicit bindings are supplied does not matter. Capabilities are represented by the bizlogics they contribute.
+ * <p>
+ * The cache is meant to be shared across requests, see {@link FluentCapabilityBuilder#FluentCapabilityBuilder(FlowCache)}.
+ * <p>
+ * Date: 17/10/26
+ */
+public class FlowCache {
+
+    private final Cache<Key, SimpleFlow> cache;
+
+    /**
+     * @param maximumSize Maximum number of flows to be cached. Least recently used flows are evicted beyond this.
+     */
+    public FlowCache(long maximumSize) {
+        Preconditions.checkArgument(maximumSize > 0, Messages.MAXIMUM_SIZE_MUST_BE_POSITIVE);
+        this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+    }
+
+    /**
+     * Returns the flow cached against the key, building it via the supplied builder if required.
+     * Concurrent calls for the same key build the flow once.
+     */
+    SimpleFlow get(Key key, Supplier<SimpleFlow> builder) {
+        try {
+            return cache.get(key, builder::get);
+        } catch (UncheckedExecutionException | ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Normalized inputs of a flow builder.
+     */
+    static final class Key {
+        private final ImmutableSet<Class<? extends IBizlogic>> bizlogics;
+        private final ImmutableSetMultimap<Class<? extends IBizlogic>, Class<? extends IBizlogic>> dependencies;
+        private final ImmutableSet<Class<? extends IBizlogic>> exclusions;
+        private final ImmutableSet<Class<?>> implicitBindings;
+        private final int hash;
+
+        Key(ImmutableSet<Class<? extends IBizlogic>> bizlogics,
+            ImmutableSetMultimap<Class<? extends IBizlogic>, Class<? extends IBizlogic>> dependencies,
+            ImmutableSet<Class<? extends IBizlogic>> exclusions,
+            ImmutableSet<Class<?>> implicitBindings) {
+            this.bizlogics = bizlogics;
+            this.dependencies = dependencies;
+            this.exclusions = exclusions;
+            this.implicitBindings = implicitBindings;
+            this.hash = Objects.hash(bizlogics, dependencies, exclusions, implicitBindings);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Key that = (Key) o;
+            return hash == that.hash
+                    && bizlogics.equals(that.bizlogics)
+                    && dependencies.equals(that.dependencies)
+                    && exclusions.equals(that.exclusions)
+                    && implicitBindings.equals(that.implicitBindings);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    static class Messages {
+        public static final String MAXIMUM_SIZE_MUST_BE_POSITIVE = "Maximum size of the flow cache must be positive";
+    }
+}
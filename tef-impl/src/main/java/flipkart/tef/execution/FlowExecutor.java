@@ -20,23 +20,22 @@ import com.google.common.base.Preconditions;
 import flipkart.tef.FlowExecutionListener;
 import flipkart.tef.bizlogics.DataAdapterKey;
 import flipkart.tef.bizlogics.DataAdapterResult;
-import flipkart.tef.bizlogics.IBizlogic;
-import flipkart.tef.bizlogics.IDataBizlogic;
 import flipkart.tef.bizlogics.TefContext;
 import flipkart.tef.exception.TefExecutionException;
 import flipkart.tef.flow.SimpleFlow;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Optional;
 
 /**
  * The flow executor takes a SimpleFlow and DataContext as an input and then executes it.
  * The executor takes care of invoking the right lifecycle methods,
  * manages data injection and mutation handlers.
  * <p>
+ * The executor runs the flow via a {@link CompiledFlow}, which is compiled once per flow and execution mode and
+ * shared across executors, unless a compiled flow is supplied. Listeners added to an executor are notified
+ * only for its execution, after the listeners of the compiled flow.
+ * <p>
  * This is a stateful class, and a new object should be created for every api call.
  * <p>
  * 
@@ -47,12 +46,12 @@ public class FlowExecutor implements MutationListener, InjectableValueProvider {
 
     private final SimpleFlow flow;
     private final DataContext context;
-    private final AllFlowExecutionListener listener;
-    private final Map<DataAdapterKey, IDataBizlogic<?>> dataAdapterInstanceMap;
-    private final List<MutationListener> mutationListeners;
     private final TefContext tefContext;
+    private final ExecutionMode executionMode;
+    private final CompiledFlow compiledFlow;
+    private final List<FlowExecutionListener> listeners;
 
-    private final DataInjector dataInjector;
+    private FlowRun run;
 
 
     /**
@@ -63,15 +62,44 @@ public class FlowExecutor implements MutationListener, InjectableValueProvider {
      */
     public FlowExecutor(SimpleFlow flow, DataContext context,
                         TefContext tefContext) {
+        this(flow, context, tefContext, ExecutionMode.EAGER);
+    }
+
+    /**
+     * Create an instance of FlowExecutor.
+     *
+     * @param flow
+     * @param context
+     * @param tefContext
+     * @param executionMode Decides which data adapters of the flow are executed
+     */
+    public FlowExecutor(SimpleFlow flow, DataContext context,
+                        TefContext tefContext, ExecutionMode executionMode) {
+        this(flow, null, context, tefContext, executionMode);
+    }
+
+    /**
+     * Create an instance of FlowExecutor for a compiled flow. The execution mode and the listeners
+     * of the compiled flow are used, along with any listeners added to this executor.
+     *
+     * @param compiledFlow
+     * @param context
+     * @param tefContext
+     */
+    public FlowExecutor(CompiledFlow compiledFlow, DataContext context,
+                        TefContext tefContext) {
+        this(compiledFlow == null ? null : compiledFlow.getFlow(), compiledFlow, context, tefContext,
+                compiledFlow == null ? ExecutionMode.EAGER : compiledFlow.getExecutionMode());
+    }
+
+    private FlowExecutor(SimpleFlow flow, CompiledFlow compiledFlow, DataContext context,
+                         TefContext tefContext, ExecutionMode executionMode) {
         this.flow = flow;
+        this.compiledFlow = compiledFlow;
         this.context = context;
         this.tefContext = tefContext;
-        this.dataAdapterInstanceMap = new HashMap<>();
-        this.listener = new AllFlowExecutionListener(tefContext);
-        this.mutationListeners = new ArrayList<>();
-        this.context.addMutationListener(this);
-
-        this.dataInjector = tefContext.getInjector().getInstance(DataInjector.class);
+        this.executionMode = executionMode;
+        this.listeners = new ArrayList<>();
     }
 
     /**
@@ -80,7 +108,7 @@ public class FlowExecutor implements MutationListener, InjectableValueProvider {
      * @param listener
      */
     public void addListener(FlowExecutionListener listener) {
-        this.listener.addListener(listener);
+        this.listeners.add(listener);
     }
 
     /**
@@ -89,7 +117,7 @@ public class FlowExecutor implements MutationListener, InjectableValueProvider {
      * @param listener
      */
     public void removeListener(FlowExecutionListener listener) {
-        this.listener.removeListener(listener);
+        this.listeners.remove(listener);
     }
 
     public void execute() throws IllegalAccessException, InstantiationException, DataDependencyException, TefExecutionException {
@@ -97,93 +125,32 @@ public class FlowExecutor implements MutationListener, InjectableValueProvider {
         Preconditions.checkArgument(context != null);
         Preconditions.checkArgument(tefContext != null);
 
-        for (Class<? extends IBizlogic> bizlogicClass : flow.getBizlogics()) {
-            IBizlogic bizlogic = tefContext.getInjector().getInstance(bizlogicClass);
-
-            if (bizlogic instanceof IDataBizlogic) {
-                dataAdapterInstanceMap.put(flow.getDataAdapterMap().inverse().get(bizlogicClass), (IDataBizlogic<?>) bizlogic);
-            }
-
-            if (bizlogic instanceof MutationListener) {
-                mutationListeners.add((MutationListener) bizlogic);
-            }
-
-            listener.pre(bizlogic);
-            dataInjector.injectData(bizlogic, bizlogic.getClass(), this);
-            try {
-                Optional<DataAdapterResult> resultFromBizlogic = bizlogic.executeForData(tefContext);
-                resultFromBizlogic.ifPresent(context::put);
-            } catch (TefExecutionException e) {
-                tefContext.getExceptionLogger().accept(e);
-                throw e;
-            }
-            listener.post(bizlogic);
+        getRun().execute();
+    }
+
+    /**
+     * @return The state of the execution, which is created once per executor.
+     */
+    FlowRun getRun() {
+        if (run == null) {
+            CompiledFlow plan = compiledFlow != null ? compiledFlow : CompiledFlow.of(flow, executionMode);
+            run = plan.newRun(context, tefContext, listeners);
         }
+        return run;
     }
 
     @Override
     public Object getValueToInject(Class<?> fieldType, String name) throws TefExecutionException {
-        // This step will stash the result in the context
-        DataAdapterKey<?> key = new DataAdapterKey<>(name, fieldType);
-        IDataBizlogic<?> adapter = dataAdapterInstanceMap.get(key);
-        if (adapter != null) {
-            // Adapter can be null in case of implicit bindings
-            listener.pre(adapter);
-            try {
-                Optional<DataAdapterResult> adaptedData = adapter.executeForData(tefContext);
-                adaptedData.ifPresent(context::put);
-            } catch (TefExecutionException e) {
-                tefContext.getExceptionLogger().accept(e);
-                throw e;
-            }
-            listener.post(adapter);
-        }
-
-        return context.get(key);
+        return getRun().getValueToInject(fieldType, name);
     }
 
     @Override
-    public void mutated(DataAdapterResult object) {
-        mutationListeners.forEach(i -> i.mutated(object));
+    public Object getValueToInject(DataAdapterKey<?> key) throws TefExecutionException {
+        return getRun().getValueToInject(key);
     }
 
-    private static class AllFlowExecutionListener implements FlowExecutionListener {
-        private final List<FlowExecutionListener> listeners;
-        private final TefContext tefContext;
-
-        public AllFlowExecutionListener(TefContext tefContext) {
-            this.listeners = new ArrayList<>();
-            this.tefContext = tefContext;
-        }
-
-        public void addListener(FlowExecutionListener listener) {
-            listeners.add(listener);
-        }
-
-        public void removeListener(FlowExecutionListener listener) {
-            listeners.remove(listener);
-        }
-
-        @Override
-        public void pre(IBizlogic bizlogic) {
-            for (FlowExecutionListener listener : listeners) {
-                try {
-                    listener.pre(bizlogic);
-                } catch (Exception e) {
-                    tefContext.getExceptionLogger().accept(e);
-                }
-            }
-        }
-
-        @Override
-        public void post(IBizlogic bizlogic) {
-            for (FlowExecutionListener listener : listeners) {
-                try {
-                    listener.post(bizlogic);
-                } catch (Exception e) {
-                    tefContext.getExceptionLogger().accept(e);
-                }
-            }
-        }
+    @Override
+    public void mutated(DataAdapterResult object) {
+        getRun().mutated(object);
     }
 }
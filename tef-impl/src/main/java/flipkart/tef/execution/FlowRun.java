@@ -0,0 +1,686 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.execution;
+
+import com.google.inject.Binding;
+import com.google.inject.Key;
+import flipkart.tef.bizlogics.CompletableDataAdapterBizlogic;
+import flipkart.tef.bizlogics.DataAdapterKey;
+import flipkart.tef.bizlogics.DataAdapterResult;
+import flipkart.tef.bizlogics.Deadline;
+import flipkart.tef.bizlogics.IBizlogic;
+import flipkart.tef.bizlogics.IDataBizlogic;
+import flipkart.tef.bizlogics.TefContext;
+import flipkart.tef.exception.ErrorCode;
+import flipkart.tef.exception.TefExecutionException;
+import flipkart.tef.flow.FlowGraph;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The state of a single execution of a {@link CompiledFlow}: the data context, the instances of the data adapters
+ * and the mutation listeners. Everything else is read from the compiled flow.
+ * <p>
+ * The bizlogics of a run can be executed in parallel (See {@link ParallelFlowExecutor}), as long as a bizlogic
+ * is executed after its dependencies.
+ * <p>
+ * This is a stateful class, and a new object should be created for every api call.
+ * <p>
+ * Date: 17/10/26
+ */
+public final class FlowRun implements MutationListener, InjectableValueProvider {
+
+    /**
+     * Fires the timeouts and the delayed retries of the completable data adapters
+     */
+    private static final ScheduledExecutorService SCHEDULER = newScheduler();
+    private static final Key<RetryBudget> RETRY_BUDGET = Key.get(RetryBudget.class);
+    private static final FlightRecorder RECORDER = FlightRecorder.get();
+
+    private final CompiledFlow compiledFlow;
+    private final FlowGraph graph;
+    private final DataContext context;
+    private final TefContext tefContext;
+    private final DataInjector dataInjector;
+    private final ListenerDispatcher listeners;
+
+    /**
+     * Instances of the data adapters, indexed by the id of the bizlogic
+     */
+    private final AtomicReferenceArray<IDataBizlogic<?>> dataAdapterInstances;
+
+    /**
+     * Executions of the data adapters skipped in lazy mode, started by the first injection of their data.
+     * Indexed by the id of the bizlogic, null unless the flow is executed lazily.
+     */
+    private final AtomicReferenceArray<CompletableFuture<IDataBizlogic<?>>> skippedAdapterExecutions;
+    private final List<MutationListener> mutationListeners;
+
+    /**
+     * Deadline of the flow, null if there is none
+     */
+    private final Deadline deadline;
+
+    /**
+     * Futures which are cancelled if the flow exceeds its deadline: the stages of the completable data adapters
+     * which have a timeout, and the futures emitted by the data adapters (e.g. AsyncDataAdapterBizlogic).
+     */
+    private final Set<Future<?>> outstanding;
+
+    /**
+     * Looked up on the first retry
+     */
+    private RetryBudget retryBudget;
+
+    FlowRun(CompiledFlow compiledFlow, DataContext context, TefContext tefContext, DataInjector dataInjector,
+            ListenerDispatcher listeners) {
+        this.compiledFlow = compiledFlow;
+        this.graph = compiledFlow.getGraph();
+        this.context = context;
+        this.tefContext = tefContext;
+        this.dataInjector = dataInjector;
+        this.listeners = listeners;
+        this.dataAdapterInstances = new AtomicReferenceArray<>(graph.size());
+        this.skippedAdapterExecutions = compiledFlow.getExecutionMode() == ExecutionMode.LAZY
+                ? new AtomicReferenceArray<>(graph.size()) : null;
+        this.mutationListeners = new CopyOnWriteArrayList<>();
+        this.deadline = tefContext.getDeadline();
+        this.outstanding = ConcurrentHashMap.newKeySet();
+        this.context.addMutationListener(this);
+    }
+
+    private static ScheduledExecutorService newScheduler() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "tef-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Most of the timeouts are cancelled, since the adapters complete in time
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    /**
+     * Executes all the bizlogics of the flow on the current thread, in the order of the flow.
+     */
+    public void execute() throws IllegalAccessException, DataDependencyException, TefExecutionException {
+        Object event = RECORDER.beginFlow();
+        Throwable failure = null;
+        try {
+            for (int id = 0; id < graph.size(); id++) {
+                executeBizlogic(id);
+            }
+        } catch (Throwable t) {
+            failure = t;
+            throw t;
+        } finally {
+            RECORDER.endFlow(event, compiledFlow, failure);
+        }
+    }
+
+    /**
+     * Instantiates and executes a single bizlogic of the flow. The caller has to ensure that all the
+     * dependencies of the bizlogic have completed their execution.
+     * In lazy mode, data adapters which are not demanded by the flow are skipped.
+     *
+     * @param id Id of the bizlogic in the flow graph
+     */
+    void executeBizlogic(int id) throws IllegalAccessException, DataDependencyException, TefExecutionException {
+        if (compiledFlow.getExecutionMode() == ExecutionMode.LAZY && !graph.isDemanded(id)) {
+            // Will be executed if its data is pulled via an injection
+            return;
+        }
+        if (isSkippedOnDeadline(id)) {
+            return;
+        }
+        doExecuteBizlogic(id);
+    }
+
+    /**
+     * Same as {@link #executeBizlogic(int)}, except that a {@link CompletableDataAdapterBizlogic} is not awaited.
+     *
+     * @param id Id of the bizlogic in the flow graph
+     * @return null if the bizlogic has completed, else a stage which completes along with the bizlogic.
+     */
+    CompletionStage<Void> executeBizlogicAsync(int id) throws IllegalAccessException, DataDependencyException, TefExecutionException {
+        Class<? extends IBizlogic> bizlogicClass = graph.getBizlogic(id);
+        if (!CompletableDataAdapterBizlogic.class.isAssignableFrom(bizlogicClass)) {
+            executeBizlogic(id);
+            return null;
+        }
+        if (compiledFlow.getExecutionMode() == ExecutionMode.LAZY && !graph.isDemanded(id)) {
+            return null;
+        }
+        if (isSkippedOnDeadline(id)) {
+            return null;
+        }
+        AdaptiveConcurrencyLimiter limiter = compiledFlow.getConcurrencyLimiter(id);
+        if (isShed(id, limiter)) {
+            return null;
+        }
+        return doExecuteBizlogicAsync(id, limiter, limiter == null ? 0 : System.nanoTime());
+    }
+
+    /**
+     * @param limiter     The concurrency limiter of the bizlogic, whose permit has been taken. Null if there is none.
+     * @param permitStart When the permit was taken
+     */
+    private CompletableFuture<Void> doExecuteBizlogicAsync(int id, AdaptiveConcurrencyLimiter limiter, long permitStart)
+            throws IllegalAccessException, DataDependencyException, TefExecutionException {
+        Object event = RECORDER.beginBizlogic();
+        CompletableDataAdapterBizlogic<?> bizlogic;
+        try {
+            bizlogic = (CompletableDataAdapterBizlogic<?>) instantiate(id);
+        } catch (Throwable t) {
+            // e.g. the injector could not provision the bizlogic
+            if (limiter != null) {
+                releasePermit(id, limiter, permitStart, t);
+            }
+            RECORDER.endBizlogic(event, compiledFlow, graph.getBizlogic(id), t);
+            throw t;
+        }
+        long start = listeners.isTimed() ? System.nanoTime() : 0;
+        listeners.pre(bizlogic, start, tefContext.getExceptionLogger());
+        try {
+            injectData(bizlogic);
+        } catch (IllegalAccessException | DataDependencyException | TefExecutionException | RuntimeException e) {
+            if (limiter != null) {
+                releasePermit(id, limiter, permitStart, e);
+            }
+            listeners.failed(bizlogic, start, e, tefContext.getExceptionLogger());
+            RECORDER.endBizlogic(event, compiledFlow, graph.getBizlogic(id), e);
+            throw e;
+        }
+
+        // The permit is returned by the attempts of the adapter from here on
+        CompletableFuture<Optional<DataAdapterResult>> source = executeForDataAsync(id, bizlogic, limiter, permitStart);
+        CompletableFuture<Void> completion = new CompletableFuture<>();
+        // Set by whichever of the stage and the timeout completes first
+        AtomicBoolean settled = new AtomicBoolean();
+        ScheduledFuture<?> timeout = scheduleTimeout(id, bizlogic, start, source, completion, settled);
+        source.whenComplete((result, throwable) -> {
+            if (timeout != null) {
+                timeout.cancel(false);
+                outstanding.remove(source);
+            }
+            if (!settled.compareAndSet(false, true)) {
+                return;
+            }
+            if (throwable != null) {
+                TefExecutionException e = CompletableDataAdapterBizlogic.toTefExecutionException(throwable);
+                tefContext.getExceptionLogger().accept(e);
+                listeners.failed(bizlogic, start, e, tefContext.getExceptionLogger());
+                completion.completeExceptionally(e);
+                return;
+            }
+            try {
+                if (result.isPresent()) {
+                    context.put(result.get());
+                    listeners.emitted(bizlogic, start, result.get(), tefContext.getExceptionLogger());
+                }
+                listeners.post(bizlogic, start, tefContext.getExceptionLogger());
+                completion.complete(null);
+            } catch (RuntimeException e) {
+                completion.completeExceptionally(e);
+            }
+        });
+        if (event != null) {
+            completion.whenComplete((result, throwable) -> RECORDER.endBizlogic(event, compiledFlow, graph.getBizlogic(id), throwable));
+        }
+        return completion;
+    }
+
+    private void doExecuteBizlogic(int id) throws IllegalAccessException, DataDependencyException, TefExecutionException {
+        AdaptiveConcurrencyLimiter limiter = compiledFlow.getConcurrencyLimiter(id);
+        if (isShed(id, limiter)) {
+            return;
+        }
+        long timeoutNanos = compiledFlow.getTimeoutNanos(id);
+        long start = timeoutNanos > 0 || limiter != null || listeners.isTimed() ? System.nanoTime() : 0;
+        // Until the attempts of the bizlogic take over the permit, see executeForData
+        boolean permitHeld = limiter != null;
+        Object event = RECORDER.beginBizlogic();
+        Throwable failure = null;
+
+        try {
+            IBizlogic bizlogic = instantiate(id);
+            listeners.pre(bizlogic, start, tefContext.getExceptionLogger());
+            try {
+                injectData(bizlogic);
+                try {
+                    permitHeld = false;
+                    Optional<DataAdapterResult> resultFromBizlogic = executeForData(id, bizlogic, limiter, start);
+                    if (resultFromBizlogic.isPresent()) {
+                        if (resultFromBizlogic.get().getResult() instanceof Future) {
+                            outstanding.add((Future<?>) resultFromBizlogic.get().getResult());
+                        }
+                        context.put(resultFromBizlogic.get());
+                        listeners.emitted(bizlogic, start, resultFromBizlogic.get(), tefContext.getExceptionLogger());
+                    }
+                } catch (TefExecutionException e) {
+                    tefContext.getExceptionLogger().accept(e);
+                    throw e;
+                }
+
+                // The bizlogic cannot be interrupted, so its timeout is checked once it completes
+                if (timeoutNanos > 0 && System.nanoTime() - start > timeoutNanos && !compiledFlow.isNonCritical(id)) {
+                    throw deadlineExceeded(String.format(Messages.BIZLOGIC_TIMED_OUT, graph.getBizlogic(id).getName()));
+                }
+            } catch (IllegalAccessException | DataDependencyException | TefExecutionException | RuntimeException e) {
+                listeners.failed(bizlogic, start, e, tefContext.getExceptionLogger());
+                throw e;
+            }
+            listeners.post(bizlogic, start, tefContext.getExceptionLogger());
+        } catch (Throwable t) {
+            failure = t;
+            throw t;
+        } finally {
+            if (permitHeld) {
+                releasePermit(id, limiter, start, failure);
+            }
+            RECORDER.endBizlogic(event, compiledFlow, graph.getBizlogic(id), failure);
+        }
+    }
+
+    private void injectData(IBizlogic bizlogic) throws IllegalAccessException, DataDependencyException, TefExecutionException {
+        Object event = RECORDER.beginInjection();
+        Throwable failure = null;
+        try {
+            dataInjector.injectData(bizlogic, bizlogic.getClass(), this);
+        } catch (Throwable t) {
+            failure = t;
+            throw t;
+        } finally {
+            RECORDER.endInjection(event, compiledFlow, bizlogic.getClass(), failure);
+        }
+    }
+
+    /**
+     * Takes a permit from the concurrency limiter of a bizlogic before it is executed.
+     *
+     * @param limiter The concurrency limiter of the bizlogic, null if it is not limited
+     * @return true if the limit has been reached and the bizlogic is not critical, and hence should be skipped.
+     * @throws TefExecutionException If the limit has been reached and the bizlogic is critical.
+     */
+    private boolean isShed(int id, AdaptiveConcurrencyLimiter limiter) throws TefExecutionException {
+        if (limiter == null || limiter.tryAcquire()) {
+            return false;
+        }
+        if (compiledFlow.isNonCritical(id)) {
+            return true;
+        }
+        TefExecutionException e = new TefExecutionException(String.format(AdaptiveConcurrencyLimiter.Messages.LIMIT_REACHED,
+                graph.getBizlogic(id).getName()), ErrorCode.TOO_MANY_REQUEST);
+        tefContext.getExceptionLogger().accept(e);
+        throw e;
+    }
+
+    /**
+     * Executes the bizlogic, retrying it as per its {@link RetryPolicy}. The thread sleeps during the backoff.
+     * <p>
+     * The permit of the concurrency limiter is held per attempt: it is returned with the latency of a failed attempt
+     * before the backoff, and taken again for the next attempt, so that the backoff neither holds a permit nor counts
+     * as latency. The bizlogic is not retried if the permit cannot be taken again.
+     *
+     * @param limiter     The concurrency limiter of the bizlogic, whose permit has been taken. Null if there is none.
+     * @param permitStart When the permit was taken
+     */
+    private Optional<DataAdapterResult> executeForData(int id, IBizlogic bizlogic, AdaptiveConcurrencyLimiter limiter,
+                                                       long permitStart) throws TefExecutionException {
+        RetryPolicy retryPolicy = compiledFlow.getRetryPolicy(id);
+        for (int attempt = 1; ; attempt++) {
+            Optional<DataAdapterResult> result;
+            try {
+                result = bizlogic.executeForData(tefContext);
+            } catch (TefExecutionException e) {
+                if (limiter != null) {
+                    releasePermit(id, limiter, permitStart, e);
+                }
+                long backoffNanos = retryPolicy == null ? -1 : getRetryBackoffNanos(retryPolicy, attempt, e);
+                if (backoffNanos < 0) {
+                    throw e;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.sleep(backoffNanos);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                if (limiter != null) {
+                    if (!limiter.tryAcquire()) {
+                        throw e;
+                    }
+                    permitStart = System.nanoTime();
+                }
+                continue;
+            } catch (RuntimeException | Error e) {
+                if (limiter != null) {
+                    releasePermit(id, limiter, permitStart, e);
+                }
+                throw e;
+            }
+            if (limiter != null) {
+                releasePermit(id, limiter, permitStart, null);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Executes the completable data adapter, retrying it as per its {@link RetryPolicy}.
+     * No thread is held during the backoff. Cancelling the returned future stops the retries.
+     * The permit of the concurrency limiter is held per attempt, as in {@link #executeForData(int, IBizlogic, AdaptiveConcurrencyLimiter, long)}
+     */
+    private CompletableFuture<Optional<DataAdapterResult>> executeForDataAsync(int id, CompletableDataAdapterBizlogic<?> bizlogic,
+                                                                               AdaptiveConcurrencyLimiter limiter, long permitStart) {
+        RetryPolicy retryPolicy = compiledFlow.getRetryPolicy(id);
+        CompletableFuture<Optional<DataAdapterResult>> firstAttempt = bizlogic.executeForDataAsync(tefContext).toCompletableFuture();
+        if (retryPolicy == null) {
+            if (limiter != null) {
+                firstAttempt.whenComplete((value, throwable) -> releasePermit(id, limiter, permitStart, throwable));
+            }
+            return firstAttempt;
+        }
+        CompletableFuture<Optional<DataAdapterResult>> result = new CompletableFuture<>();
+        retryOnFailure(id, bizlogic, retryPolicy, limiter, 1, permitStart, firstAttempt, result);
+        return result;
+    }
+
+    private void retryOnFailure(int id, CompletableDataAdapterBizlogic<?> bizlogic, RetryPolicy retryPolicy,
+                                AdaptiveConcurrencyLimiter limiter, int attempt, long permitStart,
+                                CompletionStage<Optional<DataAdapterResult>> stage, CompletableFuture<Optional<DataAdapterResult>> result) {
+        stage.whenComplete((value, throwable) -> {
+            if (limiter != null) {
+                releasePermit(id, limiter, permitStart, throwable);
+            }
+            if (throwable == null) {
+                result.complete(value);
+                return;
+            }
+            TefExecutionException e = CompletableDataAdapterBizlogic.toTefExecutionException(throwable);
+            long backoffNanos = result.isDone() ? -1 : getRetryBackoffNanos(retryPolicy, attempt, e);
+            if (backoffNanos < 0) {
+                result.completeExceptionally(e);
+                return;
+            }
+            SCHEDULER.schedule(() -> {
+                if (result.isDone()) {
+                    return;
+                }
+                if (limiter != null && !limiter.tryAcquire()) {
+                    result.completeExceptionally(e);
+                    return;
+                }
+                long nextPermitStart = limiter == null ? 0 : System.nanoTime();
+                retryOnFailure(id, bizlogic, retryPolicy, limiter, attempt + 1, nextPermitStart,
+                        bizlogic.executeForDataAsync(tefContext), result);
+            }, backoffNanos, TimeUnit.NANOSECONDS);
+        });
+    }
+
+    /**
+     * Returns a permit to the concurrency limiter of a bizlogic. An attempt signals overload if it failed with an
+     * overload error, or if it outlasted the timeout of a critical bizlogic.
+     *
+     * @param failure The failure of the attempt, null if it succeeded
+     */
+    private void releasePermit(int id, AdaptiveConcurrencyLimiter limiter, long permitStart, Throwable failure) {
+        long latencyNanos = System.nanoTime() - permitStart;
+        long timeoutNanos = compiledFlow.getTimeoutNanos(id);
+        boolean overload = failure != null
+                && AdaptiveConcurrencyLimiter.isOverloaded(CompletableDataAdapterBizlogic.toTefExecutionException(failure).getErrorCode());
+        if (timeoutNanos > 0 && latencyNanos > timeoutNanos && !compiledFlow.isNonCritical(id)) {
+            overload = true;
+        }
+        limiter.release(latencyNanos, overload);
+    }
+
+    /**
+     * Decides if a failed attempt of a bizlogic should be retried. A retry is made if the failure is retryable, the
+     * bizlogic has attempts left, the backoff ends before the deadline of the flow, and the retry budget has a token.
+     *
+     * @param attempt The attempt which failed, starting from 1
+     * @return The backoff before the next attempt in nanos, or -1 if the bizlogic should not be retried.
+     */
+    private long getRetryBackoffNanos(RetryPolicy retryPolicy, int attempt, TefExecutionException e) {
+        if (attempt >= retryPolicy.getMaxAttempts() || !retryPolicy.isRetryable(e)) {
+            return -1;
+        }
+        long backoffNanos = retryPolicy.getBackoffNanos(attempt, e.getErrorCode());
+        if (deadline != null && backoffNanos >= deadline.remaining(TimeUnit.NANOSECONDS)) {
+            return -1;
+        }
+        return getRetryBudget().tryAcquire() ? backoffNanos : -1;
+    }
+
+    private RetryBudget getRetryBudget() {
+        if (retryBudget == null) {
+            Binding<RetryBudget> binding = tefContext.getInjector() == null ? null : tefContext.getInjector().getExistingBinding(RETRY_BUDGET);
+            // Racy, but the lookup is idempotent
+            retryBudget = binding == null ? RetryBudget.getDefault() : binding.getProvider().get();
+        }
+        return retryBudget;
+    }
+
+    /**
+     * Checks the deadline of the flow before a bizlogic is executed.
+     *
+     * @return true if the deadline has expired and the bizlogic is not critical, and hence should be skipped.
+     * @throws TefExecutionException If the deadline has expired and the bizlogic is critical.
+     */
+    private boolean isSkippedOnDeadline(int id) throws TefExecutionException {
+        if (deadline == null || !deadline.isExpired()) {
+            return false;
+        }
+        if (compiledFlow.isNonCritical(id)) {
+            return true;
+        }
+        throw deadlineExceeded(String.format(Messages.DEADLINE_EXCEEDED_BEFORE, graph.getBizlogic(id).getName()));
+    }
+
+    /**
+     * Fails the stage of a completable data adapter (and cancels it) if it does not complete within the earlier of
+     * its timeout and the deadline of the flow. A non-critical data adapter completes without emitting data instead.
+     *
+     * @return The scheduled timeout, null if there is neither a timeout nor a deadline.
+     */
+    private ScheduledFuture<?> scheduleTimeout(int id, IBizlogic bizlogic, long start, Future<?> source, CompletableFuture<Void> completion, AtomicBoolean settled) {
+        long timeLeftNanos = compiledFlow.getTimeoutNanos(id) > 0 ? compiledFlow.getTimeoutNanos(id) : Long.MAX_VALUE;
+        if (deadline != null) {
+            timeLeftNanos = Math.min(timeLeftNanos, deadline.remaining(TimeUnit.NANOSECONDS));
+        }
+        if (timeLeftNanos == Long.MAX_VALUE) {
+            return null;
+        }
+
+        outstanding.add(source);
+        return SCHEDULER.schedule(() -> {
+            if (!settled.compareAndSet(false, true)) {
+                return;
+            }
+            source.cancel(true);
+            TefExecutionException e = new TefExecutionException(
+                    String.format(Messages.BIZLOGIC_TIMED_OUT, graph.getBizlogic(id).getName()), ErrorCode.DEADLINE_EXCEEDED);
+            listeners.failed(bizlogic, start, e, tefContext.getExceptionLogger());
+            if (compiledFlow.isNonCritical(id)) {
+                // The data is not emitted, so the injections of the dependents resolve to null
+                dataAdapterInstances.set(id, null);
+                completion.complete(null);
+            } else {
+                tefContext.getExceptionLogger().accept(e);
+                completion.completeExceptionally(e);
+            }
+        }, Math.max(0, timeLeftNanos), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Logs the failure, and cancels the outstanding futures of the flow.
+     */
+    private TefExecutionException deadlineExceeded(String message) {
+        TefExecutionException e = new TefExecutionException(message, ErrorCode.DEADLINE_EXCEEDED);
+        tefContext.getExceptionLogger().accept(e);
+        cancelOutstanding();
+        return e;
+    }
+
+    /**
+     * Cancels the futures of this run which have not completed. Invoked when the flow exceeds its deadline.
+     */
+    void cancelOutstanding() {
+        for (Future<?> future : outstanding) {
+            future.cancel(true);
+        }
+        outstanding.clear();
+    }
+
+    private IBizlogic instantiate(int id) {
+        IBizlogic bizlogic = tefContext.getInjector().getInstance(graph.getBizlogic(id));
+
+        if (bizlogic instanceof IDataBizlogic && compiledFlow.getEmittedKey(id) != null) {
+            dataAdapterInstances.set(id, (IDataBizlogic<?>) bizlogic);
+        }
+
+        if (bizlogic instanceof MutationListener) {
+            mutationListeners.add((MutationListener) bizlogic);
+        }
+        return bizlogic;
+    }
+
+    @Override
+    public Object getValueToInject(Class<?> fieldType, String name) throws TefExecutionException {
+        return getValueToInject(DataAdapterKey.of(name, fieldType));
+    }
+
+    @Override
+    public Object getValueToInject(DataAdapterKey<?> key) throws TefExecutionException {
+        Object event = RECORDER.beginResolution();
+        Throwable failure = null;
+        try {
+            return resolve(key);
+        } catch (Throwable t) {
+            failure = t;
+            throw t;
+        } finally {
+            RECORDER.endResolution(event, compiledFlow, key, failure);
+        }
+    }
+
+    private Object resolve(DataAdapterKey<?> key) throws TefExecutionException {
+        // This step will stash the result in the context
+        int adapterId = compiledFlow.getAdapterId(key);
+        IDataBizlogic<?> adapter;
+        if (adapterId >= 0 && compiledFlow.getExecutionMode() == ExecutionMode.LAZY && !graph.isDemanded(adapterId)) {
+            adapter = executeSkippedAdapter(adapterId);
+        } else {
+            adapter = adapterId < 0 ? null : dataAdapterInstances.get(adapterId);
+        }
+        if (adapter != null) {
+            // Adapter can be null in case of implicit bindings
+            long start = listeners.isTimed() ? System.nanoTime() : 0;
+            listeners.pre(adapter, start, tefContext.getExceptionLogger());
+            try {
+                Optional<DataAdapterResult> adaptedData = adapter.executeForData(tefContext);
+                if (adaptedData.isPresent()) {
+                    context.put(adaptedData.get());
+                    listeners.emitted(adapter, start, adaptedData.get(), tefContext.getExceptionLogger());
+                }
+            } catch (TefExecutionException | RuntimeException e) {
+                if (e instanceof TefExecutionException) {
+                    tefContext.getExceptionLogger().accept(e);
+                }
+                listeners.failed(adapter, start, e, tefContext.getExceptionLogger());
+                throw e;
+            }
+            listeners.post(adapter, start, tefContext.getExceptionLogger());
+        }
+
+        return context.get(key);
+    }
+
+    /**
+     * Executes a data adapter which was skipped in lazy mode, since its data was not demanded by the flow.
+     * The adapter is executed once, by the first injection of its data; concurrent injections of the same data
+     * wait for that execution, while injections of other data proceed independently.
+     *
+     * @param id Id of the data adapter
+     * @return The executed adapter, null if it was skipped
+     */
+    private IDataBizlogic<?> executeSkippedAdapter(int id) throws TefExecutionException {
+        CompletableFuture<IDataBizlogic<?>> execution = skippedAdapterExecutions.get(id);
+        if (execution == null) {
+            CompletableFuture<IDataBizlogic<?>> newExecution = new CompletableFuture<>();
+            if (skippedAdapterExecutions.compareAndSet(id, null, newExecution)) {
+                try {
+                    if (!isSkippedOnDeadline(id)) {
+                        doExecuteBizlogic(id);
+                    }
+                } catch (IllegalAccessException | DataDependencyException e) {
+                    TefExecutionException failure = new TefExecutionException("Unable to execute data adapter " + graph.getBizlogic(id).getName(), e, ErrorCode.NON_RETRYABLE);
+                    newExecution.completeExceptionally(failure);
+                    throw failure;
+                } catch (Throwable t) {
+                    newExecution.completeExceptionally(t);
+                    throw t;
+                }
+                newExecution.complete(dataAdapterInstances.get(id));
+                return newExecution.join();
+            }
+            execution = skippedAdapterExecutions.get(id);
+        }
+
+        try {
+            return execution.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TefExecutionException) {
+                throw (TefExecutionException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void mutated(DataAdapterResult object) {
+        mutationListeners.forEach(i -> i.mutated(object));
+    }
+
+    public CompiledFlow getCompiledFlow() {
+        return compiledFlow;
+    }
+
+    static class Messages {
+        public static final String DEADLINE_EXCEEDED_BEFORE = "Deadline of the flow exceeded before executing %s";
+        public static final String BIZLOGIC_TIMED_OUT = "%s did not complete within its time budget";
+    }
+}
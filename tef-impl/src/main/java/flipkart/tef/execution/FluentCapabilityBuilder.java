@@ -16,7 +16,11 @@
 
 package flipkart.tef.execution;
 
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.Lists;
+import com.google.common.collect.SetMultimap;
 import flipkart.tef.bizlogics.BasicEnrichmentBizlogic;
 import flipkart.tef.bizlogics.BasicValidationBizlogic;
 import flipkart.tef.bizlogics.DataAdapterBizlogic;
@@ -25,12 +29,17 @@ import flipkart.tef.capability.BizlogicDependency;
 import flipkart.tef.capability.CapabilityDefinition;
 import flipkart.tef.flow.SimpleFlow;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Simple Flow Builder
  * <p>
+ * If a {@link FlowCache} is supplied, the flow is built once per distinct set of inputs and shared thereafter.
+ * <p>
  * 
  * Date: 23/06/20
  * Time: 6:57 PM
@@ -39,9 +48,30 @@ import java.util.List;
 public class FluentCapabilityBuilder {
 
     private final FlowBuilder flowBuilder;
+    private final FlowCache flowCache;
+
+    /**
+     * Normalized inputs to the flow builder, which form the key of the flow cache.
+     */
+    private final Set<Class<? extends IBizlogic>> bizlogics;
+    private final SetMultimap<Class<? extends IBizlogic>, Class<? extends IBizlogic>> dependencies;
+    private final Set<Class<? extends IBizlogic>> exclusions;
+    private final Set<Class<?>> implicitBindings;
 
     public FluentCapabilityBuilder() {
-        flowBuilder = new FlowBuilder();
+        this(null);
+    }
+
+    /**
+     * @param flowCache Cache of flows, shared across builders. Can be null, in which case the flow is always built.
+     */
+    public FluentCapabilityBuilder(FlowCache flowCache) {
+        this.flowBuilder = new FlowBuilder();
+        this.flowCache = flowCache;
+        this.bizlogics = new HashSet<>();
+        this.dependencies = HashMultimap.create();
+        this.exclusions = new HashSet<>();
+        this.implicitBindings = new HashSet<>();
     }
 
     public FluentCapabilityBuilder withValidator(Class<? extends BasicValidationBizlogic>... validators) {
@@ -53,7 +83,7 @@ public class FluentCapabilityBuilder {
     }
 
     public FluentCapabilityBuilder withAdapter(Class<? extends DataAdapterBizlogic> adapter) {
-        flowBuilder.add(adapter);
+        add(adapter);
         return this;
     }
 
@@ -68,7 +98,7 @@ public class FluentCapabilityBuilder {
         }
 
         for (Class<? extends BasicValidationBizlogic> validator : validators) {
-            flowBuilder.add(validator);
+            add(validator);
         }
         return this;
     }
@@ -80,7 +110,7 @@ public class FluentCapabilityBuilder {
         }
 
         for (Class<? extends BasicEnrichmentBizlogic> enricher : enrichers) {
-            flowBuilder.add(enricher);
+            add(enricher);
         }
         return this;
     }
@@ -92,7 +122,7 @@ public class FluentCapabilityBuilder {
         }
 
         for (Class<? extends DataAdapterBizlogic> adapter : adapters) {
-            flowBuilder.add(adapter);
+            add(adapter);
         }
         return this;
     }
@@ -134,11 +164,17 @@ public class FluentCapabilityBuilder {
     }
 
     public SimpleFlow dataflow() {
-        return flowBuilder.build();
+        if (flowCache == null) {
+            return flowBuilder.build();
+        }
+        FlowCache.Key key = new FlowCache.Key(ImmutableSet.copyOf(bizlogics), ImmutableSetMultimap.copyOf(dependencies),
+                ImmutableSet.copyOf(exclusions), ImmutableSet.copyOf(implicitBindings));
+        return flowCache.get(key, flowBuilder::build);
     }
 
     public FluentCapabilityBuilder withImplicitBindings(Class<?>... bindings) {
         flowBuilder.withImplicitBindings(bindings);
+        implicitBindings.addAll(Arrays.asList(bindings));
         return this;
     }
 
@@ -149,16 +185,19 @@ public class FluentCapabilityBuilder {
         }
 
         flowBuilder.exclude(exclusion);
+        exclusions.add(exclusion);
         return this;
     }
 
     public FluentCapabilityBuilder withDependency(Class<? extends IBizlogic> bizlogic, Class<? extends IBizlogic>[] dependencies) {
         flowBuilder.add(bizlogic, dependencies);
+        this.bizlogics.add(bizlogic);
+        this.dependencies.putAll(bizlogic, Arrays.asList(dependencies));
         return this;
     }
 
     public FluentCapabilityBuilder withBizlogic(Class<? extends IBizlogic> bizlogic) {
-        flowBuilder.add(bizlogic);
+        add(bizlogic);
         return this;
     }
 
@@ -169,11 +208,16 @@ public class FluentCapabilityBuilder {
         }
 
         for (Class<? extends IBizlogic> bizlogic : bizlogics) {
-            flowBuilder.add(bizlogic);
+            add(bizlogic);
         }
         return this;
     }
 
+    private void add(Class<? extends IBizlogic> bizlogic) {
+        flowBuilder.add(bizlogic);
+        bizlogics.add(bizlogic);
+    }
+
     private boolean isNullOrEmpty(Collection<?> collection) {
         return (collection == null || collection.isEmpty());
     }
@@ -0,0 +1,79 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.execution;
+
+import java.util.Optional;
+
+/**
+ * Looks up the data injectors generated by the tef-processor annotation processor.
+ * A generated injector writes the {@link flipkart.tef.annotations.InjectData} fields declared in a single class,
+ * and is named after that class, e.g. {@code Outer_Inner_TefDataInjector} for {@code Outer.Inner}.
+ * <p>
+ * The lookup is done once per class.
+ * <p>
+ * Date: 17/10/26
+ */
+final class GeneratedDataInjectors {
+
+    /**
+     * Should be kept in sync with {@code InjectDataProcessor} in tef-processor.
+     */
+    static final String SUFFIX = "_TefDataInjector";
+
+    private static final ClassValue<Optional<DataInjector>> INJECTORS = new ClassValue<Optional<DataInjector>>() {
+        @Override
+        protected Optional<DataInjector> computeValue(Class<?> type) {
+            return load(type);
+        }
+    };
+
+    private GeneratedDataInjectors() {
+    }
+
+    /**
+     * @param bizlogicClass A class which may declare injectable fields
+     * @return The generated injector for the fields declared in the class, if present.
+     */
+    static Optional<DataInjector> get(Class<?> bizlogicClass) {
+        return INJECTORS.get(bizlogicClass);
+    }
+
+    static String getInjectorName(Class<?> bizlogicClass) {
+        String name = bizlogicClass.getName();
+        int idx = name.lastIndexOf('.');
+        return name.substring(0, idx + 1) + name.substring(idx + 1).replace('$', '_') + SUFFIX;
+    }
+
+    private static Optional<DataInjector> load(Class<?> bizlogicClass) {
+        if (bizlogicClass.isPrimitive() || bizlogicClass.isArray() || bizlogicClass.getClassLoader() == null) {
+            // JDK classes do not have generated injectors
+            return Optional.empty();
+        }
+        try {
+            Class<?> injectorClass = Class.forName(getInjectorName(bizlogicClass), true, bizlogicClass.getClassLoader());
+            if (!DataInjector.class.isAssignableFrom(injectorClass)) {
+                return Optional.empty();
+            }
+            return Optional.of((DataInjector) injectorClass.getConstructor().newInstance());
+        } catch (ClassNotFoundException e) {
+            return Optional.empty();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // A stale or incompatible injector, fallback to reflection
+            return Optional.empty();
+        }
+    }
+}
@@ -16,6 +16,7 @@
 
 package flipkart.tef.execution;
 
+import flipkart.tef.bizlogics.DataAdapterKey;
 import flipkart.tef.exception.TefExecutionException;
 
 /**
@@ -33,4 +34,14 @@ public interface InjectableValueProvider {
      * @return
      */
     Object getValueToInject(Class<?> fieldType, String name) throws TefExecutionException;
+
+    /**
+     * Returns the value to be injected for a pre-resolved key.
+     *
+     * @param key Key of the data to be injected
+     * @return
+     */
+    default Object getValueToInject(DataAdapterKey<?> key) throws TefExecutionException {
+        return getValueToInject(key.getResultClass(), key.getName());
+    }
 }
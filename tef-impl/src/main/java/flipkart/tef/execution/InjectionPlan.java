@@ -0,0 +1,153 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.execution;
+
+import com.google.common.collect.ImmutableList;
+import flipkart.tef.annotations.InjectData;
+import flipkart.tef.bizlogics.DataAdapterKey;
+import flipkart.tef.exception.TefExecutionException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.Optional;
+
+/**
+ * An immutable plan to inject the data into all the {@link InjectData} fields of a class, including the fields
+ * declared in its superclasses. The fields are resolved, and their annotations parsed, once when the plan is built.
+ * <p>
+ * The fields of a class which has an injector generated by tef-processor are injected via that injector,
+ * the other fields are set via a {@link MethodHandle}.
+ * <p>
+ * Date: 17/10/26
+ */
+final class InjectionPlan {
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Class<?> bizlogicClass;
+    private final ImmutableList<Step> steps;
+
+    private InjectionPlan(Class<?> bizlogicClass, ImmutableList<Step> steps) {
+        this.bizlogicClass = bizlogicClass;
+        this.steps = steps;
+    }
+
+    /**
+     * Builds the plan for the given class. The order of injection is same as that of {@link DefaultDataInjector}.
+     */
+    static InjectionPlan of(Class<?> bizlogicClass) {
+        ImmutableList.Builder<Step> steps = ImmutableList.builder();
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        for (Class<?> clazz = bizlogicClass; clazz != null; clazz = clazz.getSuperclass()) {
+            Optional<DataInjector> generatedInjector = GeneratedDataInjectors.get(clazz);
+            if (generatedInjector.isPresent()) {
+                steps.add(new GeneratedInjectorStep(clazz, generatedInjector.get()));
+                continue;
+            }
+            for (Field field : clazz.getDeclaredFields()) {
+                InjectData injectable = field.getAnnotation(InjectData.class);
+                if (injectable != null) {
+                    field.setAccessible(true);
+                    MethodHandle setter;
+                    try {
+                        setter = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+                    } catch (IllegalAccessException e) {
+                        throw new IllegalStateException(String.format(Messages.UNABLE_TO_ACCESS_FIELD, field.getName(), clazz.getName()), e);
+                    }
+                    steps.add(new FieldStep(clazz, field.getName(), DataAdapterKey.of(injectable.name(), field.getType()),
+                            injectable.nullable() || injectable.optional(), setter));
+                }
+            }
+        }
+        return new InjectionPlan(bizlogicClass, steps.build());
+    }
+
+    void inject(Object bizlogic, InjectableValueProvider valueProvider) throws DataDependencyException, IllegalAccessException, TefExecutionException {
+        for (Step step : steps) {
+            step.inject(bizlogic, valueProvider);
+        }
+    }
+
+    Class<?> getBizlogicClass() {
+        return bizlogicClass;
+    }
+
+    /**
+     * @return Number of steps in the plan. Each step is either a field, or a class with a generated injector.
+     */
+    int size() {
+        return steps.size();
+    }
+
+    private interface Step {
+        void inject(Object bizlogic, InjectableValueProvider valueProvider) throws DataDependencyException, IllegalAccessException, TefExecutionException;
+    }
+
+    private static final class FieldStep implements Step {
+        private final Class<?> declaringClass;
+        private final String fieldName;
+        private final DataAdapterKey<?> key;
+        private final boolean canBeNull;
+        private final MethodHandle setter;
+
+        FieldStep(Class<?> declaringClass, String fieldName, DataAdapterKey<?> key, boolean canBeNull, MethodHandle setter) {
+            this.declaringClass = declaringClass;
+            this.fieldName = fieldName;
+            this.key = key;
+            this.canBeNull = canBeNull;
+            this.setter = setter;
+        }
+
+        @Override
+        public void inject(Object bizlogic, InjectableValueProvider valueProvider) throws DataDependencyException, TefExecutionException {
+            Object valueToInject = valueProvider.getValueToInject(key);
+            if (valueToInject == null && !canBeNull) {
+                throw new DataDependencyException(String.format(Messages.INJECTABLE_CANNOT_BE_NULL, fieldName, declaringClass.getName()));
+            }
+            try {
+                setter.invokeExact(bizlogic, valueToInject);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                // setters do not throw checked exceptions
+                throw new IllegalStateException(t);
+            }
+        }
+    }
+
+    private static final class GeneratedInjectorStep implements Step {
+        private final Class<?> declaringClass;
+        private final DataInjector injector;
+
+        GeneratedInjectorStep(Class<?> declaringClass, DataInjector injector) {
+            this.declaringClass = declaringClass;
+            this.injector = injector;
+        }
+
+        @Override
+        public void inject(Object bizlogic, InjectableValueProvider valueProvider) throws DataDependencyException, IllegalAccessException, TefExecutionException {
+            injector.injectData(bizlogic, declaringClass, valueProvider);
+        }
+    }
+
+    static class Messages {
+        public static final String INJECTABLE_CANNOT_BE_NULL = "Injectable Data %s cannot be null in %s";
+        public static final String UNABLE_TO_ACCESS_FIELD = "Unable to access field %s in %s";
+    }
+}
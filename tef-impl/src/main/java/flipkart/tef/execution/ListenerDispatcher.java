@@ -0,0 +1,335 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.execution;
+
+import flipkart.tef.ExecutionEvent;
+import flipkart.tef.ExecutionEventListener;
+import flipkart.tef.FlowExecutionListener;
+import flipkart.tef.bizlogics.DataAdapterBizlogic;
+import flipkart.tef.bizlogics.DataAdapterResult;
+import flipkart.tef.bizlogics.IBizlogic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Notifies the listeners of a {@link CompiledFlow}. The dispatcher is specialized once per compiled flow, on the number
+ * and kind of its listeners: a flow without listeners does nothing, a flow with a single listener calls it directly, and
+ * others loop over the listeners. This keeps the notifications, made for every bizlogic and for every injection of data,
+ * cheap enough to be inlined.
+ * <p>
+ * An exception thrown by a listener is logged to the exception logger, and does not fail the flow.
+ * <p>
+ * Date: 17/10/26
+ */
+abstract class ListenerDispatcher {
+
+    private static final ListenerDispatcher NONE = new ListenerDispatcher() {
+        @Override
+        boolean isTimed() {
+            return false;
+        }
+
+        @Override
+        void pre(IBizlogic bizlogic, long start, Consumer<Throwable> exceptionLogger) {
+        }
+
+        @Override
+        void post(IBizlogic bizlogic, long start, Consumer<Throwable> exceptionLogger) {
+        }
+
+        @Override
+        void failed(IBizlogic bizlogic, long start, Throwable failure, Consumer<Throwable> exceptionLogger) {
+        }
+
+        @Override
+        void emitted(IBizlogic bizlogic, long start, DataAdapterResult result, Consumer<Throwable> exceptionLogger) {
+        }
+    };
+
+    static ListenerDispatcher of(List<FlowExecutionListener> listeners) {
+        if (listeners.isEmpty()) {
+            return NONE;
+        } else if (listeners.size() == 1 && listeners.get(0) instanceof ExecutionEventListener) {
+            return new SingleEventListener((ExecutionEventListener) listeners.get(0));
+        } else if (listeners.size() == 1) {
+            return new SingleListener(listeners.get(0));
+        }
+        return new Listeners(listeners);
+    }
+
+    /**
+     * @return true if the listeners need the {@link System#nanoTime()} at which an execution starts, i.e. if there are
+     * {@link ExecutionEventListener}s
+     */
+    abstract boolean isTimed();
+
+    /**
+     * @param start {@link System#nanoTime()} when the execution started, taken only if {@link #isTimed()}
+     */
+    abstract void pre(IBizlogic bizlogic, long start, Consumer<Throwable> exceptionLogger);
+
+    abstract void post(IBizlogic bizlogic, long start, Consumer<Throwable> exceptionLogger);
+
+    abstract void failed(IBizlogic bizlogic, long start, Throwable failure, Consumer<Throwable> exceptionLogger);
+
+    /**
+     * Notifies the data emitted by a bizlogic, preceded by a cache hit if the data adapter did not compute it.
+     */
+    abstract void emitted(IBizlogic bizlogic, long start, DataAdapterResult result, Consumer<Throwable> exceptionLogger);
+
+    private static boolean isCacheHit(IBizlogic bizlogic) {
+        return bizlogic instanceof DataAdapterBizlogic && ((DataAdapterBizlogic<?>) bizlogic).isCacheHit();
+    }
+
+    private static void dispatch(ExecutionEventListener listener, MutableExecutionEvent event, Consumer<Throwable> exceptionLogger) {
+        try {
+            switch (event.getType()) {
+                case START:
+                    listener.onStart(event);
+                    break;
+                case SUCCESS:
+                    listener.onSuccess(event);
+                    break;
+                case FAILURE:
+                    listener.onFailure(event);
+                    break;
+                case CACHE_HIT:
+                    listener.onCacheHit(event);
+                    break;
+                case DATA_EMITTED:
+                    listener.onDataEmitted(event);
+                    break;
+            }
+        } catch (Exception e) {
+            exceptionLogger.accept(e);
+        }
+    }
+
+    private static final class SingleListener extends ListenerDispatcher {
+        private final FlowExecutionListener listener;
+
+        SingleListener(FlowExecutionListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        boolean isTimed() {
+            return false;
+        }
+
+        @Override
+        void pre(IBizlogic bizlogic, long start, Consumer<Throwable> exceptionLogger) {
+            try {
+                listener.pre(bizlogic);
+            } catch (Exception e) {
+                exceptionLogger.accept(e);
+            }
+        }
+
+        @Override
+        void post(IBizlogic bizlogic, long start, Consumer<Throwable> exceptionLogger) {
+            try {
+                listener.post(bizlogic);
+            } catch (Exception e) {
+                exceptionLogger.accept(e);
+            }
+        }
+
+        @Override
+        void failed(IBizlogic bizlogic, long start, Throwable failure, Consumer<Throwable> exceptionLogger) {
+            try {
+                listener.failed(bizlogic, failure);
+            } catch (Exception e) {
+                exceptionLogger.accept(e);
+            }
+        }
+
+        @Override
+        void emitted(IBizlogic bizlogic, long start, DataAdapterResult result, Consumer<Throwable> exceptionLogger) {
+        }
+    }
+
+    private static final class SingleEventListener extends ListenerDispatcher {
+        private final ExecutionEventListener listener;
+
+        SingleEventListener(ExecutionEventListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        boolean isTimed() {
+            return true;
+        }
+
+        @Override
+        void pre(IBizlogic bizlogic, long start, Consumer<Throwable> exceptionLogger) {
+            MutableExecutionEvent event = MutableExecutionEvent.get()
+                    .set(ExecutionEvent.Type.START, bizlogic, start, start, null, null, null);
+            try {
+                listener.onStart(event);
+            } catch (Exception e) {
+                exceptionLogger.accept(e);
+            } finally {
+                event.clear();
+            }
+        }
+
+        @Override
+        void post(IBizlogic bizlogic, long start, Consumer<Throwable> exceptionLogger) {
+            MutableExecutionEvent event = MutableExecutionEvent.get()
+                    .set(ExecutionEvent.Type.SUCCESS, bizlogic, start, System.nanoTime(), null, null, null);
+            try {
+                listener.onSuccess(event);
+            } catch (Exception e) {
+                exceptionLogger.accept(e);
+            } finally {
+                event.clear();
+            }
+        }
+
+        @Override
+        void failed(IBizlogic bizlogic, long start, Throwable failure, Consumer<Throwable> exceptionLogger) {
+            MutableExecutionEvent event = MutableExecutionEvent.get()
+                    .set(ExecutionEvent.Type.FAILURE, bizlogic, start, System.nanoTime(), null, null, failure);
+            try {
+                listener.onFailure(event);
+            } catch (Exception e) {
+                exceptionLogger.accept(e);
+            } finally {
+                event.clear();
+            }
+        }
+
+        @Override
+        void emitted(IBizlogic bizlogic, long start, DataAdapterResult result, Consumer<Throwable> exceptionLogger) {
+            if (result.getKey() == null) {
+                return;
+            }
+            long now = System.nanoTime();
+            MutableExecutionEvent event = MutableExecutionEvent.get();
+            try {
+                if (isCacheHit(bizlogic)) {
+                    event.set(ExecutionEvent.Type.CACHE_HIT, bizlogic, start, now, result.getKey(), result.getResult(), null);
+                    dispatch(listener, event, exceptionLogger);
+                }
+                event.set(ExecutionEvent.Type.DATA_EMITTED, bizlogic, start, now, result.getKey(), result.getResult(), null);
+                dispatch(listener, event, exceptionLogger);
+            } finally {
+                event.clear();
+            }
+        }
+    }
+
+    private static final class Listeners extends ListenerDispatcher {
+        private final FlowExecutionListener[] listeners;
+        private final ExecutionEventListener[] eventListeners;
+
+        Listeners(List<FlowExecutionListener> all) {
+            List<FlowExecutionListener> listeners = new ArrayList<>();
+            List<ExecutionEventListener> eventListeners = new ArrayList<>();
+            for (FlowExecutionListener listener : all) {
+                if (listener instanceof ExecutionEventListener) {
+                    eventListeners.add((ExecutionEventListener) listener);
+                } else {
+                    listeners.add(listener);
+                }
+            }
+            this.listeners = listeners.toArray(new FlowExecutionListener[0]);
+            this.eventListeners = eventListeners.toArray(new ExecutionEventListener[0]);
+        }
+
+        @Override
+        boolean isTimed() {
+            return eventListeners.length > 0;
+        }
+
+        @Override
+        void pre(IBizlogic bizlogic, long start, Consumer<Throwable> exceptionLogger) {
+            for (FlowExecutionListener listener : listeners) {
+                try {
+                    listener.pre(bizlogic);
+                } catch (Exception e) {
+                    exceptionLogger.accept(e);
+                }
+            }
+            if (eventListeners.length > 0) {
+                dispatchAll(ExecutionEvent.Type.START, bizlogic, start, start, null, exceptionLogger);
+            }
+        }
+
+        @Override
+        void post(IBizlogic bizlogic, long start, Consumer<Throwable> exceptionLogger) {
+            for (FlowExecutionListener listener : listeners) {
+                try {
+                    listener.post(bizlogic);
+                } catch (Exception e) {
+                    exceptionLogger.accept(e);
+                }
+            }
+            if (eventListeners.length > 0) {
+                dispatchAll(ExecutionEvent.Type.SUCCESS, bizlogic, start, System.nanoTime(), null, exceptionLogger);
+            }
+        }
+
+        @Override
+        void failed(IBizlogic bizlogic, long start, Throwable failure, Consumer<Throwable> exceptionLogger) {
+            for (FlowExecutionListener listener : listeners) {
+                try {
+                    listener.failed(bizlogic, failure);
+                } catch (Exception e) {
+                    exceptionLogger.accept(e);
+                }
+            }
+            if (eventListeners.length > 0) {
+                MutableExecutionEvent event = MutableExecutionEvent.get()
+                        .set(ExecutionEvent.Type.FAILURE, bizlogic, start, System.nanoTime(), null, null, failure);
+                dispatchAll(event, exceptionLogger);
+            }
+        }
+
+        @Override
+        void emitted(IBizlogic bizlogic, long start, DataAdapterResult result, Consumer<Throwable> exceptionLogger) {
+            if (eventListeners.length == 0 || result.getKey() == null) {
+                return;
+            }
+            long now = System.nanoTime();
+            if (isCacheHit(bizlogic)) {
+                dispatchAll(ExecutionEvent.Type.CACHE_HIT, bizlogic, start, now, result, exceptionLogger);
+            }
+            dispatchAll(ExecutionEvent.Type.DATA_EMITTED, bizlogic, start, now, result, exceptionLogger);
+        }
+
+        private void dispatchAll(ExecutionEvent.Type type, IBizlogic bizlogic, long start, long now, DataAdapterResult result,
+                               Consumer<Throwable> exceptionLogger) {
+            MutableExecutionEvent event = MutableExecutionEvent.get().set(type, bizlogic, start, now,
+                    result == null ? null : result.getKey(), result == null ? null : result.getResult(), null);
+            dispatchAll(event, exceptionLogger);
+        }
+
+        private void dispatchAll(MutableExecutionEvent event, Consumer<Throwable> exceptionLogger) {
+            try {
+                for (ExecutionEventListener listener : eventListeners) {
+                    dispatch(listener, event, exceptionLogger);
+                }
+            } finally {
+                event.clear();
+            }
+        }
+    }
+}
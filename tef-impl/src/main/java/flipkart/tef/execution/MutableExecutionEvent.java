@@ -0,0 +1,125 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.execution;
+
+import flipkart.tef.ExecutionEvent;
+import flipkart.tef.bizlogics.DataAdapterKey;
+import flipkart.tef.bizlogics.IBizlogic;
+
+/**
+ * The {@link ExecutionEvent} passed to the listeners. There is one instance per thread, which is filled before the
+ * listeners are notified and cleared after, so notifying an event does not allocate.
+ * <p>
+ * Date: 17/10/26
+ */
+final class MutableExecutionEvent implements ExecutionEvent {
+
+    private static final ThreadLocal<MutableExecutionEvent> EVENTS = ThreadLocal.withInitial(MutableExecutionEvent::new);
+
+    private final Thread thread;
+    private Type type;
+    private IBizlogic bizlogic;
+    private long startNanos;
+    private long nanoTime;
+    private DataAdapterKey<?> key;
+    private Object data;
+    private Throwable failure;
+
+    private MutableExecutionEvent() {
+        this.thread = Thread.currentThread();
+    }
+
+    /**
+     * @return The event of the current thread
+     */
+    static MutableExecutionEvent get() {
+        return EVENTS.get();
+    }
+
+    MutableExecutionEvent set(Type type, IBizlogic bizlogic, long startNanos, long nanoTime, DataAdapterKey<?> key,
+                              Object data, Throwable failure) {
+        this.type = type;
+        this.bizlogic = bizlogic;
+        this.startNanos = startNanos;
+        this.nanoTime = nanoTime;
+        this.key = key;
+        this.data = data;
+        this.failure = failure;
+        return this;
+    }
+
+    /**
+     * Releases the references held by the event, so that they are not retained by the thread.
+     */
+    void clear() {
+        this.bizlogic = null;
+        this.key = null;
+        this.data = null;
+        this.failure = null;
+    }
+
+    @Override
+    public Type getType() {
+        return type;
+    }
+
+    @Override
+    public IBizlogic getBizlogic() {
+        return bizlogic;
+    }
+
+    @Override
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    @Override
+    public long getNanoTime() {
+        return nanoTime;
+    }
+
+    @Override
+    public Thread getThread() {
+        return thread;
+    }
+
+    @Override
+    public DataAdapterKey<?> getKey() {
+        return key;
+    }
+
+    @Override
+    public Object getData() {
+        return data;
+    }
+
+    @Override
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutionEvent{" +
+                "type=" + type +
+                ", bizlogic=" + (bizlogic == null ? null : bizlogic.getClass().getName()) +
+                ", elapsedNanos=" + getElapsedNanos() +
+                ", thread=" + thread.getName() +
+                ", key=" + key +
+                '}';
+    }
+}
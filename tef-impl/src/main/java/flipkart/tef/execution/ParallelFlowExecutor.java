@@ -0,0 +1,306 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.execution;
+
+import com.google.common.base.Preconditions;
+import flipkart.tef.bizlogics.Deadline;
+import flipkart.tef.bizlogics.TefContext;
+import flipkart.tef.exception.ErrorCode;
+import flipkart.tef.exception.TefExecutionException;
+import flipkart.tef.flow.FlowGraph;
+import flipkart.tef.flow.SimpleFlow;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A flow executor which executes a bizlogic as soon as all its control and data dependencies have completed.
+ * Bizlogics which do not depend upon each other are executed concurrently on the supplied executor,
+ * so the latency of a flow is bound by its critical path instead of the sum of all the bizlogics.
+ * <p>
+ * The listener, exception logger and data context semantics are same as that of {@link FlowExecutor}.
+ * Since the listeners are notified from the executor threads, they are expected to be thread-safe.
+ * <p>
+ * On the first failure no new bizlogics are scheduled, the bizlogics which are already running are allowed to
+ * complete and the failure is rethrown to the caller of {@link #execute()}.
+ * <p>
+ * If the {@link TefContext} has a deadline, {@link #execute()} returns when the deadline expires, failing with
+ * {@link ErrorCode#DEADLINE_EXCEEDED}, without waiting for the bizlogics which are still running.
+ * <p>
+ * A {@link flipkart.tef.bizlogics.CompletableDataAdapterBizlogic} does not hold an executor thread while its stage is
+ * pending. Its dependents are submitted to the executor once the stage completes.
+ * <p>
+ * This is a stateful class, and a new object should be created for every api call.
+ * <p>
+ * Date: 17/10/26
+ */
+public class ParallelFlowExecutor extends FlowExecutor {
+
+    private final SimpleFlow flow;
+    private final DataContext context;
+    private final TefContext tefContext;
+    private final Executor executor;
+
+    /**
+     * Create an instance of ParallelFlowExecutor.
+     *
+     * @param flow       The flow to execute
+     * @param context    Data context for the flow
+     * @param tefContext Tef Context
+     * @param executor   The executor on which the bizlogics will be executed
+     */
+    public ParallelFlowExecutor(SimpleFlow flow, DataContext context, TefContext tefContext, Executor executor) {
+        this(flow, context, tefContext, executor, ExecutionMode.EAGER);
+    }
+
+    /**
+     * Create an instance of ParallelFlowExecutor.
+     *
+     * @param flow          The flow to execute
+     * @param context       Data context for the flow
+     * @param tefContext    Tef Context
+     * @param executor      The executor on which the bizlogics will be executed
+     * @param executionMode Decides which data adapters of the flow are executed
+     */
+    public ParallelFlowExecutor(SimpleFlow flow, DataContext context, TefContext tefContext, Executor executor,
+                                ExecutionMode executionMode) {
+        super(flow, context, tefContext, executionMode);
+        this.flow = flow;
+        this.context = context;
+        this.tefContext = tefContext;
+        this.executor = executor;
+    }
+
+    /**
+     * Create an instance of ParallelFlowExecutor for a compiled flow.
+     *
+     * @param compiledFlow The compiled flow to execute
+     * @param context      Data context for the flow
+     * @param tefContext   Tef Context
+     * @param executor     The executor on which the bizlogics will be executed
+     */
+    public ParallelFlowExecutor(CompiledFlow compiledFlow, DataContext context, TefContext tefContext, Executor executor) {
+        super(compiledFlow, context, tefContext);
+        this.flow = compiledFlow == null ? null : compiledFlow.getFlow();
+        this.context = context;
+        this.tefContext = tefContext;
+        this.executor = executor;
+    }
+
+    @Override
+    public void execute() throws IllegalAccessException, InstantiationException, DataDependencyException, TefExecutionException {
+        Preconditions.checkArgument(flow != null);
+        Preconditions.checkArgument(context != null);
+        Preconditions.checkArgument(tefContext != null);
+        Preconditions.checkArgument(executor != null);
+
+        if (flow.getBizlogics().isEmpty()) {
+            return;
+        }
+
+        FlightRecorder recorder = FlightRecorder.get();
+        Object event = recorder.beginFlow();
+        Throwable failure = null;
+        Execution execution = new Execution(flow.getGraph(), getRun());
+        try {
+            execution.start();
+            execution.await();
+        } catch (Throwable t) {
+            failure = t;
+            throw t;
+        } finally {
+            recorder.endFlow(event, execution.flowRun.getCompiledFlow(), failure);
+        }
+    }
+
+    /**
+     * Holds the scheduling state of a single execution of the flow.
+     */
+    private class Execution {
+        private final FlowGraph graph;
+        private final FlowRun flowRun;
+
+        /**
+         * Number of dependencies of the bizlogic with a given id, which are yet to complete.
+         */
+        private final AtomicIntegerArray pendingDependencies;
+
+        /**
+         * Number of tasks which are either running or have been handed over to the executor.
+         * The caller holds 1 token till all the start nodes are scheduled.
+         */
+        private final AtomicInteger inFlight;
+        private final AtomicReference<Throwable> failure;
+        private final CountDownLatch done;
+
+        Execution(FlowGraph graph, FlowRun flowRun) {
+            this.graph = graph;
+            this.flowRun = flowRun;
+            this.pendingDependencies = new AtomicIntegerArray(graph.size());
+            for (int id = 0; id < graph.size(); id++) {
+                pendingDependencies.set(id, graph.getInDegree(id));
+            }
+            this.inFlight = new AtomicInteger(1);
+            this.failure = new AtomicReference<>();
+            this.done = new CountDownLatch(1);
+        }
+
+        void start() {
+            for (int i = 0; i < graph.getStartNodeCount(); i++) {
+                submit(graph.getStartNode(i));
+            }
+            release();
+        }
+
+        void await() throws IllegalAccessException, InstantiationException, DataDependencyException, TefExecutionException {
+            try {
+                Deadline deadline = tefContext.getDeadline();
+                if (deadline == null) {
+                    done.await();
+                } else if (!done.await(Math.max(0, deadline.remaining(TimeUnit.NANOSECONDS)), TimeUnit.NANOSECONDS)) {
+                    // The bizlogics which are running are not waited for
+                    TefExecutionException e = new TefExecutionException(Messages.FLOW_DEADLINE_EXCEEDED, ErrorCode.DEADLINE_EXCEEDED);
+                    fail(e);
+                    flowRun.cancelOutstanding();
+                    tefContext.getExceptionLogger().accept(e);
+                    throw e;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+                throw new TefExecutionException("Interrupted while waiting for the flow to complete", e, ErrorCode.NON_RETRYABLE);
+            }
+
+            Throwable t = failure.get();
+            if (t == null) {
+                return;
+            }
+            if (t instanceof TefExecutionException) {
+                throw (TefExecutionException) t;
+            } else if (t instanceof DataDependencyException) {
+                throw (DataDependencyException) t;
+            } else if (t instanceof IllegalAccessException) {
+                throw (IllegalAccessException) t;
+            } else if (t instanceof InstantiationException) {
+                throw (InstantiationException) t;
+            } else if (t instanceof RuntimeException) {
+                throw (RuntimeException) t;
+            } else if (t instanceof Error) {
+                throw (Error) t;
+            } else {
+                throw new RuntimeException(t);
+            }
+        }
+
+        private void submit(int node) {
+            inFlight.incrementAndGet();
+            try {
+                executor.execute(() -> run(node));
+            } catch (RuntimeException e) {
+                // The executor rejected the task
+                fail(e);
+                release();
+            }
+        }
+
+        /**
+         * Executes the bizlogic with the given id. Once done, the successors which become ready are scheduled.
+         * One of them is executed on the current thread to save a hand-off to the executor.
+         * <p>
+         * If the bizlogic completes asynchronously (See {@link flipkart.tef.bizlogics.CompletableDataAdapterBizlogic}),
+         * the current thread is released, and the successors are scheduled once the bizlogic completes.
+         */
+        private void run(int node) {
+            int next = node;
+            while (next >= 0) {
+                int current = next;
+
+                if (failure.get() != null) {
+                    break;
+                }
+
+                CompletionStage<Void> pending;
+                try {
+                    pending = flowRun.executeBizlogicAsync(current);
+                } catch (Throwable t) {
+                    fail(t);
+                    break;
+                }
+
+                if (pending != null) {
+                    inFlight.incrementAndGet();
+                    pending.whenComplete((result, throwable) -> {
+                        if (throwable != null) {
+                            fail(throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable);
+                        } else {
+                            int ready = releaseSuccessors(current);
+                            if (ready >= 0) {
+                                // Do not execute the successor on the thread which completed the stage
+                                submit(ready);
+                            }
+                        }
+                        release();
+                    });
+                    break;
+                }
+
+                next = releaseSuccessors(current);
+            }
+            release();
+        }
+
+        /**
+         * Marks the bizlogic with the given id as completed for its successors, and submits the successors which become ready.
+         *
+         * @return One of the successors which became ready, which has not been submitted. -1 if there is none.
+         */
+        private int releaseSuccessors(int node) {
+            int next = -1;
+            for (int i = 0; i < graph.getOutDegree(node); i++) {
+                int successor = graph.getSuccessor(node, i);
+                if (pendingDependencies.decrementAndGet(successor) == 0) {
+                    if (next < 0) {
+                        next = successor;
+                    } else {
+                        submit(successor);
+                    }
+                }
+            }
+            return next;
+        }
+
+        private void fail(Throwable t) {
+            failure.compareAndSet(null, t);
+        }
+
+        private void release() {
+            if (inFlight.decrementAndGet() == 0) {
+                done.countDown();
+            }
+        }
+    }
+
+    static class Messages {
+        public static final String FLOW_DEADLINE_EXCEEDED = "Flow did not complete within its deadline";
+    }
+}
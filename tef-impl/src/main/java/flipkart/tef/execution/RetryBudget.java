@@ -0,0 +1,134 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.execution;
+
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A token bucket which bounds the rate of retries across all the flows sharing it, so that retries do not multiply
+ * the load on a dependency which is already failing. Every retry takes a token, and the bucket refills at a fixed rate
+ * up to its capacity. A failed bizlogic is not retried if the bucket is empty.
+ * <p>
+ * The bucket is kept as the time at which it would be full (GCRA), which is updated with a single CAS per retry.
+ * <p>
+ * The flows use the budget bound in the injector of the {@link flipkart.tef.bizlogics.TefContext},
+ * or {@link #getDefault()} if there is none.
+ * <p>
+ * Date: 17/10/26
+ */
+public final class RetryBudget {
+
+    private static final RetryBudget DEFAULT = new RetryBudget(100, 10);
+
+    /**
+     * Time taken to refill a single token
+     */
+    private final long nanosPerToken;
+
+    /**
+     * Time taken to refill an empty bucket
+     */
+    private final long capacityNanos;
+
+    /**
+     * The time at which the bucket would be full, if no more tokens are taken
+     */
+    private final AtomicLong fullAt;
+
+    private final LongAdder retries;
+    private final LongAdder exhausted;
+
+    /**
+     * @param capacity        Maximum number of retries which can be made in a burst
+     * @param tokensPerSecond Sustained rate of retries
+     */
+    public RetryBudget(int capacity, double tokensPerSecond) {
+        Preconditions.checkArgument(capacity > 0, Messages.INVALID_CAPACITY);
+        Preconditions.checkArgument(tokensPerSecond > 0, Messages.INVALID_RATE);
+        this.nanosPerToken = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / tokensPerSecond));
+        this.capacityNanos = toCapacityNanos(nanosPerToken, capacity, tokensPerSecond);
+        this.fullAt = new AtomicLong(System.nanoTime());
+        this.retries = new LongAdder();
+        this.exhausted = new LongAdder();
+    }
+
+    /**
+     * @return Time taken to refill an empty bucket. tryAcquire computes up to a token beyond it, hence that must not
+     * overflow either.
+     */
+    private static long toCapacityNanos(long nanosPerToken, int capacity, double tokensPerSecond) {
+        try {
+            Math.multiplyExact(nanosPerToken, capacity + 1L);
+            return nanosPerToken * capacity;
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(String.format(Messages.CAPACITY_OVERFLOW, capacity, tokensPerSecond), e);
+        }
+    }
+
+    /**
+     * @return The budget shared by the flows whose injector does not bind a budget: 100 retries, refilled at 10 per second.
+     */
+    public static RetryBudget getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Takes a token for a retry.
+     *
+     * @return true if the retry can be made, false if the budget is exhausted.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            long now = System.nanoTime();
+            long current = fullAt.get();
+            // A bucket which is already full, does not accumulate more tokens
+            long next = (current - now < 0 ? now : current) + nanosPerToken;
+            if (next - now > capacityNanos) {
+                exhausted.increment();
+                return false;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                retries.increment();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return Number of retries allowed by this budget
+     */
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    /**
+     * @return Number of retries which were not made, since the budget was exhausted
+     */
+    public long getExhaustedCount() {
+        return exhausted.sum();
+    }
+
+    static class Messages {
+        public static final String INVALID_CAPACITY = "Capacity of a retry budget should be positive";
+        public static final String INVALID_RATE = "Refill rate of a retry budget should be positive";
+        public static final String CAPACITY_OVERFLOW = "Refilling a retry budget of %s retries at %s per second takes too long";
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.execution;
+
+import com.google.common.base.Preconditions;
+import flipkart.tef.annotations.Retry;
+import flipkart.tef.exception.ErrorCode;
+import flipkart.tef.exception.TefExecutionException;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The retry policy of a bizlogic, as declared via {@link Retry}.
+ * <p>
+ * The backoff before the n-th retry is {@code min(maxBackoff, backoff * multiplier^(n-1))}, of which a random half is
+ * waited for (equal jitter), so that the retries of concurrent requests do not hit the dependency at the same time.
+ * <p>
+ * Date: 17/10/26
+ */
+public final class RetryPolicy {
+
+    private final int maxAttempts;
+    private final long backoffNanos;
+    private final long maxBackoffNanos;
+    private final double multiplier;
+    private final long throttledBackoffNanos;
+
+    private RetryPolicy(int maxAttempts, long backoffNanos, long maxBackoffNanos, double multiplier, long throttledBackoffNanos) {
+        Preconditions.checkArgument(maxAttempts >= 1, Messages.INVALID_MAX_ATTEMPTS);
+        Preconditions.checkArgument(backoffNanos >= 0 && throttledBackoffNanos >= 0 && maxBackoffNanos >= 0, Messages.INVALID_BACKOFF);
+        Preconditions.checkArgument(multiplier >= 1, Messages.INVALID_MULTIPLIER);
+        this.maxAttempts = maxAttempts;
+        this.backoffNanos = backoffNanos;
+        this.maxBackoffNanos = maxBackoffNanos;
+        this.multiplier = multiplier;
+        this.throttledBackoffNanos = throttledBackoffNanos;
+    }
+
+    /**
+     * @return The policy declared by the annotation, or null if the annotation is null.
+     */
+    public static RetryPolicy of(Retry retry) {
+        if (retry == null) {
+            return null;
+        }
+        return new RetryPolicy(retry.maxAttempts(), retry.unit().toNanos(retry.backoff()), retry.unit().toNanos(retry.maxBackoff()),
+                retry.multiplier(), retry.unit().toNanos(retry.throttledBackoff()));
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * @return true if the failure is transient, i.e. its error code is RETRYABLE or TOO_MANY_REQUEST
+     */
+    public boolean isRetryable(TefExecutionException e) {
+        return e.getErrorCode() == ErrorCode.RETRYABLE || e.getErrorCode() == ErrorCode.TOO_MANY_REQUEST;
+    }
+
+    /**
+     * @param attempt   The attempt which failed, starting from 1
+     * @param errorCode The error code of the failure
+     * @return Time to wait before the next attempt, in nanos
+     */
+    public long getBackoffNanos(int attempt, ErrorCode errorCode) {
+        long initial = errorCode == ErrorCode.TOO_MANY_REQUEST ? throttledBackoffNanos : backoffNanos;
+        // A throttled dependency is given at least the throttled backoff, even if it is more than the max backoff
+        long cap = Math.max(maxBackoffNanos, errorCode == ErrorCode.TOO_MANY_REQUEST ? throttledBackoffNanos : 0);
+        long backoff = (long) Math.min(cap, initial * Math.pow(multiplier, attempt - 1));
+        long half = backoff / 2;
+        return half + (half > 0 ? ThreadLocalRandom.current().nextLong(half + 1) : 0);
+    }
+
+    static class Messages {
+        public static final String INVALID_MAX_ATTEMPTS = "Max attempts of a retry policy should be at least 1";
+        public static final String INVALID_BACKOFF = "Backoff of a retry policy should not be negative";
+        public static final String INVALID_MULTIPLIER = "Multiplier of a retry policy should be at least 1";
+    }
+}
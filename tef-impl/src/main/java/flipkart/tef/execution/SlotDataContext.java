@@ -0,0 +1,83 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.execution;
+
+import flipkart.tef.bizlogics.DataAdapterKey;
+import flipkart.tef.bizlogics.DataAdapterResult;
+import flipkart.tef.flow.DataSlots;
+import flipkart.tef.flow.SimpleFlow;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A DataContext which stores the data emitted by the data adapters of a flow in an array, indexed by the
+ * slots assigned to the data keys when the flow was built (See {@link DataSlots}).
+ * Lookups of such data do not allocate, and the memory used per request is fixed by the flow.
+ * <p>
+ * Data for keys which are not emitted by any data adapter of the flow, is stored in the map of {@link DataContext}.
+ * <p>
+ * The context is safe to be shared by bizlogics executing in parallel.
+ * <p>
+ * Date: 17/10/26
+ */
+public class SlotDataContext extends DataContext {
+
+    private final DataSlots slots;
+    private final AtomicReferenceArray<Object> values;
+
+    public SlotDataContext(SimpleFlow flow) {
+        this(flow.getDataSlots());
+    }
+
+    public SlotDataContext(DataSlots slots) {
+        this.slots = slots;
+        this.values = new AtomicReferenceArray<>(slots.size());
+    }
+
+    @Override
+    public void put(DataAdapterResult value) {
+        if (value != null && value.getResult() != null) {
+            int slot = slots.getSlot(value.getKey());
+            if (slot < 0) {
+                super.put(value);
+                return;
+            }
+            if (values.get(slot) != null) {
+                notifyMutation(value);
+            }
+            values.set(slot, value.getResult());
+        }
+    }
+
+    @Override
+    public <T> T get(DataAdapterKey<T> key) {
+        int slot = slots.getSlot(key);
+        if (slot < 0) {
+            return super.get(key);
+        }
+        Object value = values.get(slot);
+        return value != null ? key.getResultClass().cast(value) : null;
+    }
+
+    /**
+     * @param slot Slot of a data key, as assigned by {@link DataSlots}
+     * @return The data stored in the given slot, or null if the data is not yet emitted.
+     */
+    public Object get(int slot) {
+        return values.get(slot);
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.execution;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Creates executors which run every task on a new virtual thread, when the JDK supports virtual threads (21+).
+ * On older JDKs, the tasks are run on a cached pool of daemon platform threads instead.
+ * <p>
+ * The executors are meant to be passed to {@link ParallelFlowExecutor} and
+ * {@link flipkart.tef.bizlogics.AsyncDataAdapterBizlogic}, whose tasks mostly block on I/O.
+ * <p>
+ * This class is compiled against Java 8 and looks up the virtual thread API reflectively, once.
+ * <p>
+ * Date: 17/10/26
+ */
+public final class VirtualThreads {
+
+    private static final Method OF_VIRTUAL;
+    private static final Method NAME;
+    private static final Method FACTORY;
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method factory = null;
+        Method newThreadPerTaskExecutor = null;
+        try {
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            name = builder.getMethod("name", String.class, long.class);
+            factory = builder.getMethod("factory");
+            newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            // Fails on the JDKs which have virtual threads as a preview feature, unless previews are enabled
+            ofVirtual.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            // Virtual threads are not supported by this JDK
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        FACTORY = factory;
+        NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+    }
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @return true if the executors created by this class run the tasks on virtual threads.
+     */
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Creates an executor which runs every task on a new virtual thread, or on a cached pool of platform threads
+     * if virtual threads are not supported. The executor should be shutdown by the caller.
+     *
+     * @param namePrefix Prefix of the names of the threads created by the executor
+     * @return The executor
+     */
+    public static ExecutorService newExecutor(String namePrefix) {
+        if (isSupported()) {
+            try {
+                Object builder = NAME.invoke(OF_VIRTUAL.invoke(null), namePrefix, 0L);
+                return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, FACTORY.invoke(builder));
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new IllegalStateException(Messages.UNABLE_TO_CREATE_VIRTUAL_THREADS, e);
+            }
+        }
+        return Executors.newCachedThreadPool(new PlatformThreadFactory(namePrefix));
+    }
+
+    private static class PlatformThreadFactory implements ThreadFactory {
+        private final String namePrefix;
+        private final AtomicLong counter = new AtomicLong();
+
+        PlatformThreadFactory(String namePrefix) {
+            this.namePrefix = namePrefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, namePrefix + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    static class Messages {
+        public static final String UNABLE_TO_CREATE_VIRTUAL_THREADS = "Unable to create virtual threads";
+    }
+}
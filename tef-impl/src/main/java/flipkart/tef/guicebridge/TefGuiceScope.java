@@ -6,6 +6,12 @@ import com.google.inject.Provider;
 import com.google.inject.Scope;
 import flipkart.tef.execution.InjectableValueProvider;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
 /**
  * Custom guice scope (request-scoped) that injects an instance of
  *
@@ -49,8 +55,156 @@ public class TefGuiceScope implements Scope, AutoCloseable {
         threadLocal.set(valueProvider);
     }
 
+    /**
+     * Captures the scoping block of the calling thread, so that it can be restored on another thread.
+     * See {@link Snapshot}
+     *
+     * @return A snapshot of the scoping block of the calling thread. The snapshot is empty if there is no scoping block.
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(threadLocal.get());
+    }
+
+    /**
+     * Wraps an executor, so that the tasks submitted from within a scoping block are executed within the same
+     * scoping block. The scope is held in a thread-local, which is not visible to the threads of an executor
+     * (pooled or virtual threads) otherwise.
+     * <p>
+     * The scope is captured when a task is submitted. For the async stages of a CompletableFuture, which are submitted
+     * by the thread completing the previous stage, use {@link Snapshot#wrap(Executor)} instead.
+     *
+     * @param executor The executor to wrap
+     * @return An executor which carries the scope of the submitting thread to the task
+     */
+    public Executor wrap(Executor executor) {
+        return task -> executor.execute(wrap(task));
+    }
+
+    /**
+     * @param task A task
+     * @return A task which runs within the scoping block of the calling thread, if any.
+     */
+    public Runnable wrap(Runnable task) {
+        return snapshot().wrap(task);
+    }
+
+    /**
+     * Same as {@link CompletableFuture#supplyAsync(Supplier, Executor)}, except that the supplier runs within the
+     * scoping block of the calling thread.
+     */
+    public <V> CompletableFuture<V> supplyAsync(Supplier<V> supplier, Executor executor) {
+        return CompletableFuture.supplyAsync(snapshot().wrapSupplier(supplier), executor);
+    }
+
     @Override
     public void close() {
         threadLocal.remove();
     }
+
+    /**
+     * The scoping block of a thread, captured via {@link #snapshot()}.
+     * <p>
+     * Restoring a snapshot replaces the scoping block of the current thread (if any) till the returned
+     * {@link Restoration} is closed, after which the previous scoping block is restored.
+     * <pre>
+     * TefGuiceScope.Snapshot snapshot = scope.snapshot();
+     * executor.execute(() -> {
+     *     try (TefGuiceScope.Restoration ignored = snapshot.restore()) {
+     *         ...
+     *     }
+     * });
+     * </pre>
+     */
+    public final class Snapshot {
+        private final InjectableValueProvider valueProvider;
+
+        private Snapshot(InjectableValueProvider valueProvider) {
+            this.valueProvider = valueProvider;
+        }
+
+        /**
+         * @return true if there was no scoping block when the snapshot was taken
+         */
+        public boolean isEmpty() {
+            return valueProvider == null;
+        }
+
+        public Restoration restore() {
+            InjectableValueProvider previous = threadLocal.get();
+            set(valueProvider);
+            return () -> set(previous);
+        }
+
+        public Runnable wrap(Runnable task) {
+            if (isEmpty()) {
+                return task;
+            }
+            return () -> {
+                try (Restoration ignored = restore()) {
+                    task.run();
+                }
+            };
+        }
+
+        public <V> Callable<V> wrapCallable(Callable<V> task) {
+            if (isEmpty()) {
+                return task;
+            }
+            return () -> {
+                try (Restoration ignored = restore()) {
+                    return task.call();
+                }
+            };
+        }
+
+        public <V> Supplier<V> wrapSupplier(Supplier<V> supplier) {
+            if (isEmpty()) {
+                return supplier;
+            }
+            return () -> {
+                try (Restoration ignored = restore()) {
+                    return supplier.get();
+                }
+            };
+        }
+
+        public <V, R> Function<V, R> wrapFunction(Function<V, R> function) {
+            if (isEmpty()) {
+                return function;
+            }
+            return value -> {
+                try (Restoration ignored = restore()) {
+                    return function.apply(value);
+                }
+            };
+        }
+
+        /**
+         * Unlike {@link TefGuiceScope#wrap(Executor)}, every task submitted to the returned executor runs within this
+         * snapshot, irrespective of the thread which submits it. e.g.
+         * {@code future.thenApplyAsync(fn, scope.snapshot().wrap(executor))}
+         */
+        public Executor wrap(Executor executor) {
+            if (isEmpty()) {
+                return executor;
+            }
+            return task -> executor.execute(wrap(task));
+        }
+
+        private void set(InjectableValueProvider valueProvider) {
+            if (valueProvider == null) {
+                threadLocal.remove();
+            } else {
+                threadLocal.set(valueProvider);
+            }
+        }
+    }
+
+    /**
+     * Restores the scoping block which was replaced by {@link Snapshot#restore()}, when closed.
+     */
+    public interface Restoration extends AutoCloseable {
+        @Override
+        void close();
+    }
 }
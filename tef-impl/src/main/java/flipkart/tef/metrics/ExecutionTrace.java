@@ -0,0 +1,382 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.metrics;
+
+import com.google.common.base.Preconditions;
+import com.google.inject.internal.BytecodeGen;
+import flipkart.tef.ExecutionEvent;
+import flipkart.tef.ExecutionEventListener;
+import flipkart.tef.bizlogics.CompletableDataAdapterBizlogic;
+import flipkart.tef.bizlogics.DataAdapterKey;
+import flipkart.tef.bizlogics.IBizlogic;
+import flipkart.tef.exception.TefExecutionException;
+import flipkart.tef.flow.FlowGraph;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Records the execution trace of a single request: a {@link Span} for every execution of a bizlogic, for every
+ * resolution of the data of a data adapter during the injection of another bizlogic, and for the wait on the stage of
+ * every {@link CompletableDataAdapterBizlogic}.
+ * <p>
+ * A trace is added as a listener to the executor of the request (typically a sampled fraction of the requests), and
+ * once the flow completes, {@link #getCriticalPath(FlowGraph)} tells the chain of dependent bizlogics which bounds the
+ * latency of the flow, and {@link #writeChromeTrace(Path, FlowGraph)} writes the trace in the Chrome trace event format,
+ * which can be opened in chrome://tracing or Perfetto.
+ * <p>
+ * The wait on a future emitted by an {@link flipkart.tef.bizlogics.AsyncDataAdapterBizlogic} happens in its consumers,
+ * and is part of their spans.
+ * <p>
+ * Date: 17/10/26
+ */
+public class ExecutionTrace implements ExecutionEventListener {
+
+    private final List<Span> open = new ArrayList<>();
+    private final List<Span> spans = new ArrayList<>();
+
+    /**
+     * Bizlogic instances which have started once. A later start of the same instance serves its data again.
+     */
+    private final Set<IBizlogic> started = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    public enum Kind {
+        /**
+         * Execution of a bizlogic, including the injection of its data
+         */
+        EXECUTION,
+        /**
+         * A data adapter serving its data again while it is injected in another bizlogic
+         */
+        RESOLUTION,
+        /**
+         * Execution of a {@link CompletableDataAdapterBizlogic}, till its stage completes
+         */
+        ASYNC
+    }
+
+    @Override
+    public synchronized void onStart(ExecutionEvent event) {
+        IBizlogic bizlogic = event.getBizlogic();
+        Kind kind;
+        if (!started.add(bizlogic)) {
+            kind = Kind.RESOLUTION;
+        } else if (bizlogic instanceof CompletableDataAdapterBizlogic) {
+            kind = Kind.ASYNC;
+        } else {
+            kind = Kind.EXECUTION;
+        }
+        open.add(new Span(bizlogic, unwrap(bizlogic.getClass()), kind, event.getStartNanos(), event.getThread()));
+    }
+
+    @Override
+    public synchronized void onCacheHit(ExecutionEvent event) {
+        Span span = find(event);
+        if (span != null) {
+            span.cacheHit = true;
+        }
+    }
+
+    @Override
+    public synchronized void onDataEmitted(ExecutionEvent event) {
+        Span span = find(event);
+        if (span != null) {
+            span.key = event.getKey();
+        }
+    }
+
+    @Override
+    public synchronized void onSuccess(ExecutionEvent event) {
+        close(event);
+    }
+
+    @Override
+    public synchronized void onFailure(ExecutionEvent event) {
+        close(event);
+    }
+
+    /**
+     * @return The completed spans, in the order of their start
+     */
+    public synchronized List<Span> getSpans() {
+        List<Span> sorted = new ArrayList<>(spans);
+        sorted.sort(Comparator.comparingLong(Span::getStartNanos));
+        return sorted;
+    }
+
+    /**
+     * Computes the critical path, i.e. the chain of bizlogics (each depending upon the previous one in the flow graph)
+     * with the largest total duration. This is the latency of the flow if every bizlogic were executed as soon as its
+     * dependencies complete, so speeding up (or caching) a bizlogic which is not on it does not help.
+     * Resolutions are not part of the path, and bizlogics which were not executed (e.g. skipped) count as 0.
+     *
+     * @param graph Graph of the flow which was traced
+     * @return The execution spans of the bizlogics on the critical path, from a start node onwards
+     */
+    public synchronized List<Span> getCriticalPath(FlowGraph graph) {
+        Preconditions.checkArgument(graph != null);
+        Span[] executions = new Span[graph.size()];
+        for (Span span : spans) {
+            int id = span.kind == Kind.RESOLUTION ? -1 : graph.getId(span.bizlogicClass);
+            if (id >= 0 && (executions[id] == null || executions[id].startNanos > span.startNanos)) {
+                executions[id] = span;
+            }
+        }
+
+        // Predecessors have a smaller id, so the longest paths are computed in the order of the ids
+        long[] lengths = new long[graph.size()];
+        int[] previous = new int[graph.size()];
+        int last = -1;
+        for (int id = 0; id < graph.size(); id++) {
+            previous[id] = -1;
+            for (int i = 0; i < graph.getInDegree(id); i++) {
+                int predecessor = graph.getPredecessor(id, i);
+                if (previous[id] < 0 || lengths[predecessor] > lengths[previous[id]]) {
+                    previous[id] = predecessor;
+                }
+            }
+            lengths[id] = (previous[id] < 0 ? 0 : lengths[previous[id]])
+                    + (executions[id] == null ? 0 : executions[id].getDurationNanos());
+            if (last < 0 || lengths[id] > lengths[last]) {
+                last = id;
+            }
+        }
+
+        List<Span> path = new ArrayList<>();
+        for (int id = last; id >= 0; id = previous[id]) {
+            if (executions[id] != null) {
+                path.add(executions[id]);
+            }
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Writes the trace in the Chrome trace event format. See {@link #writeChromeTrace(Writer, FlowGraph)}
+     */
+    public void writeChromeTrace(Path file, FlowGraph graph) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writeChromeTrace(writer, graph);
+        }
+    }
+
+    /**
+     * Writes the trace in the Chrome trace event format. Executions and resolutions are complete events on the thread
+     * which executed them, while the stages of completable data adapters are async events. Timestamps are in micros
+     * since the start of the first span.
+     *
+     * @param writer Writer for the JSON
+     * @param graph  Graph of the flow, to flag the spans on the critical path. Can be null.
+     */
+    public void writeChromeTrace(Writer writer, FlowGraph graph) throws IOException {
+        List<Span> sorted = getSpans();
+        Set<Span> criticalPath = graph == null ? Collections.emptySet() : new HashSet<>(getCriticalPath(graph));
+        long origin = sorted.isEmpty() ? 0 : sorted.get(0).startNanos;
+
+        Map<Long, String> threads = new LinkedHashMap<>();
+        List<String> events = new ArrayList<>();
+        for (int i = 0; i < sorted.size(); i++) {
+            Span span = sorted.get(i);
+            threads.put(span.startThread.getId(), span.startThread.getName());
+            String common = "\"name\":" + quote(span.bizlogicClass.getSimpleName())
+                    + ",\"cat\":" + quote(span.kind.name().toLowerCase(Locale.ROOT))
+                    + ",\"pid\":1,\"tid\":" + span.startThread.getId();
+            String args = ",\"args\":{\"bizlogic\":" + quote(span.bizlogicClass.getName())
+                    + ",\"outcome\":" + quote(span.getOutcome())
+                    + (span.key == null ? "" : ",\"data\":" + quote(span.key.getName() + ":" + span.key.getResultClass().getName()))
+                    + ",\"cacheHit\":" + span.cacheHit
+                    + ",\"critical\":" + criticalPath.contains(span) + "}";
+            if (span.kind == Kind.ASYNC) {
+                events.add("{" + common + ",\"ph\":\"b\",\"id\":" + i + ",\"ts\":" + micros(span.startNanos - origin) + args + "}");
+                events.add("{" + common + ",\"ph\":\"e\",\"id\":" + i + ",\"ts\":" + micros(span.endNanos - origin) + "}");
+            } else {
+                events.add("{" + common + ",\"ph\":\"X\",\"ts\":" + micros(span.startNanos - origin)
+                        + ",\"dur\":" + micros(span.getDurationNanos()) + args + "}");
+            }
+        }
+        for (Map.Entry<Long, String> thread : threads.entrySet()) {
+            events.add("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":" + thread.getKey()
+                    + ",\"args\":{\"name\":" + quote(thread.getValue()) + "}}");
+        }
+
+        writer.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+        for (int i = 0; i < events.size(); i++) {
+            writer.write(i == 0 ? "\n" : ",\n");
+            writer.write(events.get(i));
+        }
+        writer.write("\n]}\n");
+    }
+
+    private Span find(ExecutionEvent event) {
+        for (int i = open.size() - 1; i >= 0; i--) {
+            Span span = open.get(i);
+            if (span.bizlogic == event.getBizlogic() && span.startNanos == event.getStartNanos()) {
+                return span;
+            }
+        }
+        return null;
+    }
+
+    private void close(ExecutionEvent event) {
+        for (Iterator<Span> iterator = open.iterator(); iterator.hasNext(); ) {
+            Span span = iterator.next();
+            if (span.bizlogic == event.getBizlogic() && span.startNanos == event.getStartNanos()) {
+                iterator.remove();
+                span.endNanos = event.getNanoTime();
+                span.failure = event.getFailure();
+                span.bizlogic = null;
+                spans.add(span);
+                return;
+            }
+        }
+    }
+
+    private static String micros(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1000.0);
+    }
+
+    private static String quote(String value) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<? extends IBizlogic> unwrap(Class<? extends IBizlogic> bizlogicClass) {
+        if (bizlogicClass.getName().contains(BytecodeGen.ENHANCER_BY_GUICE_MARKER)) {
+            return (Class<? extends IBizlogic>) bizlogicClass.getSuperclass();
+        }
+        return bizlogicClass;
+    }
+
+    /**
+     * A span of the trace. Times are {@link System#nanoTime()} values.
+     */
+    public static final class Span {
+        private final Class<? extends IBizlogic> bizlogicClass;
+        private final Kind kind;
+        private final long startNanos;
+        private final Thread startThread;
+
+        /**
+         * Held till the span is closed, to match the events of the execution
+         */
+        private IBizlogic bizlogic;
+        private long endNanos;
+        private boolean cacheHit;
+        private DataAdapterKey<?> key;
+        private Throwable failure;
+
+        Span(IBizlogic bizlogic, Class<? extends IBizlogic> bizlogicClass, Kind kind, long startNanos, Thread startThread) {
+            this.bizlogic = bizlogic;
+            this.bizlogicClass = bizlogicClass;
+            this.kind = kind;
+            this.startNanos = startNanos;
+            this.startThread = startThread;
+        }
+
+        public Class<? extends IBizlogic> getBizlogicClass() {
+            return bizlogicClass;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public long getStartNanos() {
+            return startNanos;
+        }
+
+        public long getEndNanos() {
+            return endNanos;
+        }
+
+        public long getDurationNanos() {
+            return endNanos - startNanos;
+        }
+
+        /**
+         * @return The thread on which the span started
+         */
+        public Thread getThread() {
+            return startThread;
+        }
+
+        public boolean isCacheHit() {
+            return cacheHit;
+        }
+
+        /**
+         * @return The key of the data emitted, null if none
+         */
+        public DataAdapterKey<?> getKey() {
+            return key;
+        }
+
+        /**
+         * @return The failure, null if the bizlogic succeeded
+         */
+        public Throwable getFailure() {
+            return failure;
+        }
+
+        /**
+         * @return SUCCESS, the error code of a {@link TefExecutionException}, or the class of any other failure
+         */
+        public String getOutcome() {
+            if (failure == null) {
+                return "SUCCESS";
+            } else if (failure instanceof TefExecutionException && ((TefExecutionException) failure).getErrorCode() != null) {
+                return ((TefExecutionException) failure).getErrorCode().name();
+            }
+            return failure.getClass().getSimpleName();
+        }
+
+        @Override
+        public String toString() {
+            return "Span{" +
+                    "bizlogic=" + bizlogicClass.getSimpleName() +
+                    ", kind=" + kind +
+                    ", durationNanos=" + getDurationNanos() +
+                    ", outcome=" + getOutcome() +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.metrics;
+
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of latencies (or any non-negative long), for computing percentiles on the hot path.
+ * <p>
+ * Values are counted in log-linear buckets: every power of two is split into 8 buckets, so a percentile is reported
+ * with an error of at most 12.5%, using a fixed array of 488 counters for the whole range of long.
+ * Recording a value is a single atomic increment, and the histogram never allocates after construction.
+ * <p>
+ * The histogram is cumulative, since it was created or last {@link #reset()}.
+ * <p>
+ * Date: 17/10/26
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts;
+    private final LongAdder count;
+
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(BUCKETS);
+        this.count = new LongAdder();
+    }
+
+    /**
+     * @param value A non-negative value, e.g. a latency in nanos. Negative values are recorded as 0.
+     */
+    public void record(long value) {
+        counts.incrementAndGet(getBucket(Math.max(0, value)));
+        count.increment();
+    }
+
+    /**
+     * @return Number of values recorded
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @param percentile Between 0 and 100, e.g. 99 for p99
+     * @return An upper bound of the value at the percentile, or 0 if nothing has been recorded.
+     */
+    public long getPercentile(double percentile) {
+        Preconditions.checkArgument(percentile >= 0 && percentile <= 100, Messages.INVALID_PERCENTILE, percentile);
+        long total = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return getUpperBound(i);
+            }
+        }
+        return getUpperBound(BUCKETS - 1);
+    }
+
+    /**
+     * Clears the recorded values. Values recorded concurrently may or may not be cleared.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            long value = counts.getAndSet(i, 0);
+            count.add(-value);
+        }
+    }
+
+    /**
+     * Values below 8 have a bucket each. Larger values are bucketed by their highest bit (the power of two),
+     * and the next 3 bits (the linear part).
+     */
+    static int getBucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) ((value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @return The largest value which falls in the bucket
+     */
+    static long getUpperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int subBucket = bucket % SUB_BUCKETS;
+        long lowerBound = (long) (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+        return lowerBound + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    static class Messages {
+        public static final String INVALID_PERCENTILE = "Percentile should be between 0 and 100, found %s";
+    }
+}
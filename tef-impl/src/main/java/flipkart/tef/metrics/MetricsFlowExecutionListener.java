@@ -0,0 +1,203 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.metrics;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.internal.BytecodeGen;
+import flipkart.tef.ExecutionEvent;
+import flipkart.tef.ExecutionEventListener;
+import flipkart.tef.bizlogics.IBizlogic;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An {@link ExecutionEventListener} which records the latency, and the success, failure and cache hit counts, of every
+ * bizlogic class across all the flows it is registered with. It is meant to be shared across requests and left on in
+ * production: after the first execution of a bizlogic class, recording is lock-free and does not allocate.
+ * <p>
+ * The latency of a bizlogic is the elapsed time of its success or failure event, and includes the injection of its data.
+ * <p>
+ * Date: 17/10/26
+ */
+public class MetricsFlowExecutionListener implements ExecutionEventListener {
+
+    private final ConcurrentHashMap<Class<?>, BizlogicMetrics> metrics = new ConcurrentHashMap<>();
+
+    @Override
+    public void onSuccess(ExecutionEvent event) {
+        getMetrics(event.getBizlogic().getClass()).record(event.getElapsedNanos(), true);
+    }
+
+    @Override
+    public void onFailure(ExecutionEvent event) {
+        getMetrics(event.getBizlogic().getClass()).record(event.getElapsedNanos(), false);
+    }
+
+    @Override
+    public void onCacheHit(ExecutionEvent event) {
+        getMetrics(event.getBizlogic().getClass()).cacheHitCount.increment();
+    }
+
+    /**
+     * @return Snapshot of the metrics of every bizlogic class executed so far
+     */
+    public Map<Class<?>, Snapshot> snapshot() {
+        ImmutableMap.Builder<Class<?>, Snapshot> snapshot = ImmutableMap.builder();
+        metrics.forEach((bizlogicClass, bizlogicMetrics) -> {
+            if (unwrap(bizlogicClass) == bizlogicClass) {
+                snapshot.put(bizlogicClass, bizlogicMetrics.snapshot());
+            }
+        });
+        return snapshot.build();
+    }
+
+    /**
+     * @param bizlogicClass The bizlogic class
+     * @return Snapshot of the metrics of the bizlogic class, null if it has not been executed
+     */
+    public Snapshot getSnapshot(Class<? extends IBizlogic> bizlogicClass) {
+        BizlogicMetrics bizlogicMetrics = metrics.get(unwrap(bizlogicClass));
+        return bizlogicMetrics == null ? null : bizlogicMetrics.snapshot();
+    }
+
+    /**
+     * Discards the metrics recorded so far.
+     */
+    public void reset() {
+        metrics.clear();
+    }
+
+    private BizlogicMetrics getMetrics(Class<?> bizlogicClass) {
+        BizlogicMetrics bizlogicMetrics = metrics.get(bizlogicClass);
+        if (bizlogicMetrics == null) {
+            bizlogicMetrics = metrics.computeIfAbsent(unwrap(bizlogicClass), k -> new BizlogicMetrics());
+            // Guice AOP subclasses are mapped to the same metrics as the bizlogic
+            metrics.putIfAbsent(bizlogicClass, bizlogicMetrics);
+        }
+        return bizlogicMetrics;
+    }
+
+    private static Class<?> unwrap(Class<?> bizlogicClass) {
+        if (bizlogicClass.getName().contains(BytecodeGen.ENHANCER_BY_GUICE_MARKER)) {
+            return bizlogicClass.getSuperclass();
+        }
+        return bizlogicClass;
+    }
+
+    private static class BizlogicMetrics {
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        private final LongAdder successCount = new LongAdder();
+        private final LongAdder failureCount = new LongAdder();
+        private final LongAdder cacheHitCount = new LongAdder();
+
+        void record(long latency, boolean success) {
+            latencies.record(latency);
+            if (success) {
+                successCount.increment();
+            } else {
+                failureCount.increment();
+            }
+        }
+
+        Snapshot snapshot() {
+            return new Snapshot(successCount.sum(), failureCount.sum(), cacheHitCount.sum(),
+                    latencies.getPercentile(50), latencies.getPercentile(90), latencies.getPercentile(99),
+                    latencies.getPercentile(99.9), latencies.getPercentile(100));
+        }
+    }
+
+    /**
+     * Metrics of a bizlogic class at a point in time. Latencies are in nanos, and are upper bounds of the
+     * percentile within the error of {@link LatencyHistogram}.
+     */
+    public static final class Snapshot {
+        private final long successCount;
+        private final long failureCount;
+        private final long cacheHitCount;
+        private final long p50;
+        private final long p90;
+        private final long p99;
+        private final long p999;
+        private final long max;
+
+        Snapshot(long successCount, long failureCount, long cacheHitCount, long p50, long p90, long p99, long p999, long max) {
+            this.successCount = successCount;
+            this.failureCount = failureCount;
+            this.cacheHitCount = cacheHitCount;
+            this.p50 = p50;
+            this.p90 = p90;
+            this.p99 = p99;
+            this.p999 = p999;
+            this.max = max;
+        }
+
+        public long getSuccessCount() {
+            return successCount;
+        }
+
+        public long getFailureCount() {
+            return failureCount;
+        }
+
+        public long getCount() {
+            return successCount + failureCount;
+        }
+
+        /**
+         * @return Number of executions of a data adapter which served a result computed earlier
+         */
+        public long getCacheHitCount() {
+            return cacheHitCount;
+        }
+
+        public long getP50() {
+            return p50;
+        }
+
+        public long getP90() {
+            return p90;
+        }
+
+        public long getP99() {
+            return p99;
+        }
+
+        public long getP999() {
+            return p999;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot{" +
+                    "successCount=" + successCount +
+                    ", failureCount=" + failureCount +
+                    ", cacheHitCount=" + cacheHitCount +
+                    ", p50=" + p50 +
+                    ", p90=" + p90 +
+                    ", p99=" + p99 +
+                    ", p999=" + p999 +
+                    ", max=" + max +
+                    '}';
+        }
+    }
+}
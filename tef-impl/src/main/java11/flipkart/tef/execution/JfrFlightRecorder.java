@@ -0,0 +1,227 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.execution;
+
+import flipkart.tef.bizlogics.DataAdapterKey;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A {@link FlightRecorder} backed by JFR, packaged under META-INF/versions/11 of the multi-release jar, and loaded
+ * reflectively by {@link FlightRecorder#get()}.
+ * <p>
+ * An event is only allocated if its type is enabled in a recording. The event of a bizlogic which completes
+ * asynchronously is committed on the thread which completes it.
+ * <p>
+ * Date: 17/10/26
+ */
+final class JfrFlightRecorder extends FlightRecorder {
+
+    private static final String CATEGORY = "TEF";
+
+    private final EventType flowExecution = EventType.getEventType(FlowExecution.class);
+    private final EventType bizlogicExecution = EventType.getEventType(BizlogicExecution.class);
+    private final EventType injectionPhase = EventType.getEventType(InjectionPhase.class);
+    private final EventType adapterResolution = EventType.getEventType(AdapterResolution.class);
+
+    @Override
+    boolean isSupported() {
+        return true;
+    }
+
+    @Override
+    Object beginFlow() {
+        if (!flowExecution.isEnabled()) {
+            return null;
+        }
+        FlowExecution event = new FlowExecution();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    void endFlow(Object event, CompiledFlow flow, Throwable failure) {
+        if (event == null) {
+            return;
+        }
+        FlowExecution flowEvent = (FlowExecution) event;
+        flowEvent.end();
+        if (flowEvent.shouldCommit()) {
+            flowEvent.flowId = flow.getId();
+            flowEvent.bizlogicCount = flow.getGraph().size();
+            flowEvent.executionMode = flow.getExecutionMode().name();
+            flowEvent.outcome = getOutcome(failure);
+            flowEvent.commit();
+        }
+    }
+
+    @Override
+    Object beginBizlogic() {
+        if (!bizlogicExecution.isEnabled()) {
+            return null;
+        }
+        BizlogicExecution event = new BizlogicExecution();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    void endBizlogic(Object event, CompiledFlow flow, Class<?> bizlogic, Throwable failure) {
+        if (event == null) {
+            return;
+        }
+        BizlogicExecution bizlogicEvent = (BizlogicExecution) event;
+        bizlogicEvent.end();
+        if (bizlogicEvent.shouldCommit()) {
+            bizlogicEvent.flowId = flow.getId();
+            bizlogicEvent.bizlogic = bizlogic;
+            bizlogicEvent.outcome = getOutcome(failure);
+            bizlogicEvent.commit();
+        }
+    }
+
+    @Override
+    Object beginInjection() {
+        if (!injectionPhase.isEnabled()) {
+            return null;
+        }
+        InjectionPhase event = new InjectionPhase();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    void endInjection(Object event, CompiledFlow flow, Class<?> bizlogic, Throwable failure) {
+        if (event == null) {
+            return;
+        }
+        InjectionPhase injectionEvent = (InjectionPhase) event;
+        injectionEvent.end();
+        if (injectionEvent.shouldCommit()) {
+            injectionEvent.flowId = flow.getId();
+            injectionEvent.bizlogic = bizlogic;
+            injectionEvent.outcome = getOutcome(failure);
+            injectionEvent.commit();
+        }
+    }
+
+    @Override
+    Object beginResolution() {
+        if (!adapterResolution.isEnabled()) {
+            return null;
+        }
+        AdapterResolution event = new AdapterResolution();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    void endResolution(Object event, CompiledFlow flow, DataAdapterKey<?> key, Throwable failure) {
+        if (event == null) {
+            return;
+        }
+        AdapterResolution resolutionEvent = (AdapterResolution) event;
+        resolutionEvent.end();
+        if (resolutionEvent.shouldCommit()) {
+            int adapterId = flow.getAdapterId(key);
+            resolutionEvent.flowId = flow.getId();
+            resolutionEvent.dataName = key.getName();
+            resolutionEvent.dataType = key.getResultClass();
+            resolutionEvent.adapter = adapterId < 0 ? null : flow.getGraph().getBizlogic(adapterId);
+            resolutionEvent.outcome = getOutcome(failure);
+            resolutionEvent.commit();
+        }
+    }
+
+    @Name("flipkart.tef.FlowExecution")
+    @Label("Flow Execution")
+    @Description("Execution of all the bizlogics of a flow")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class FlowExecution extends Event {
+        @Label("Flow Id")
+        String flowId;
+
+        @Label("Bizlogics")
+        int bizlogicCount;
+
+        @Label("Execution Mode")
+        String executionMode;
+
+        @Label("Outcome")
+        String outcome;
+    }
+
+    @Name("flipkart.tef.BizlogicExecution")
+    @Label("Bizlogic Execution")
+    @Description("Execution of a bizlogic, including the injection of its data and its retries")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class BizlogicExecution extends Event {
+        @Label("Flow Id")
+        String flowId;
+
+        @Label("Bizlogic")
+        Class<?> bizlogic;
+
+        @Label("Outcome")
+        String outcome;
+    }
+
+    @Name("flipkart.tef.InjectionPhase")
+    @Label("Injection Phase")
+    @Description("Injection of the data of a bizlogic, including the data adapters executed for it")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class InjectionPhase extends Event {
+        @Label("Flow Id")
+        String flowId;
+
+        @Label("Bizlogic")
+        Class<?> bizlogic;
+
+        @Label("Outcome")
+        String outcome;
+    }
+
+    @Name("flipkart.tef.AdapterResolution")
+    @Label("Adapter Resolution")
+    @Description("Resolution of an injected data key, via its data adapter or an implicit binding")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class AdapterResolution extends Event {
+        @Label("Flow Id")
+        String flowId;
+
+        @Label("Data Name")
+        String dataName;
+
+        @Label("Data Type")
+        Class<?> dataType;
+
+        @Label("Data Adapter")
+        Class<?> adapter;
+
+        @Label("Outcome")
+        String outcome;
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.bizlogics;
+
+import flipkart.tef.TestTefContext;
+import flipkart.tef.annotations.Coalesce;
+import flipkart.tef.annotations.InjectData;
+import flipkart.tef.exception.ErrorCode;
+import flipkart.tef.exception.TefExecutionException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AdapterCoalescerTest {
+
+    // static so that the bizlogics can access
+    private static AtomicInteger adaptCount;
+    private static CountDownLatch entered;
+    private static CountDownLatch release;
+
+    private ExecutorService executorService;
+
+    @Before
+    public void setUp() {
+        adaptCount = new AtomicInteger();
+        entered = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+        executorService = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentExecutionsWithSameInputsAreCoalesced() throws Exception {
+        Future<Result> first = executorService.submit(() -> execute(new CoalescedAdapter("listing-1")));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        Future<Result> second = executorService.submit(() -> execute(new CoalescedAdapter("listing-1")));
+
+        // Give the second execution time to join the in-flight computation
+        Thread.sleep(100);
+        release.countDown();
+
+        assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, adaptCount.get());
+        assertEquals(0, AdapterCoalescer.INSTANCE.getInFlightCount());
+    }
+
+    @Test
+    public void testExecutionsWithDifferentInputsAreNotCoalesced() throws Exception {
+        Future<Result> first = executorService.submit(() -> execute(new CoalescedAdapter("listing-1")));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        Future<Result> second = executorService.submit(() -> execute(new CoalescedAdapter("listing-2")));
+        release.countDown();
+
+        assertNotEquals(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        assertEquals(2, adaptCount.get());
+    }
+
+    @Test
+    public void testResultIsNotRetainedAfterCompletion() throws Exception {
+        release.countDown();
+
+        Result first = execute(new CoalescedAdapter("listing-1"));
+        Result second = execute(new CoalescedAdapter("listing-1"));
+
+        assertEquals(first, second);
+        assertTrue(first != second);
+        assertEquals(2, adaptCount.get());
+    }
+
+    @Test
+    public void testFailureIsSharedWithWaitingExecutions() throws Exception {
+        Future<Result> first = executorService.submit(() -> execute(new CoalescedAdapter("failure")));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        Future<Result> second = executorService.submit(() -> execute(new CoalescedAdapter("failure")));
+        Thread.sleep(100);
+        release.countDown();
+
+        for (Future<Result> future : Arrays.asList(first, second)) {
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                fail("Exception was expected");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof TefExecutionException);
+                assertEquals(ErrorCode.NON_RETRYABLE, ((TefExecutionException) e.getCause()).getErrorCode());
+            }
+        }
+        assertEquals(1, adaptCount.get());
+    }
+
+    @Test
+    public void testErrorIsSharedWithWaitingExecutions() throws Exception {
+        Future<Result> first = executorService.submit(() -> execute(new CoalescedAdapter("error")));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        Future<Result> second = executorService.submit(() -> execute(new CoalescedAdapter("error")));
+        Thread.sleep(100);
+        release.countDown();
+
+        for (Future<Result> future : Arrays.asList(first, second)) {
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                fail("Error was expected");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof AssertionError);
+            }
+        }
+        assertEquals(1, adaptCount.get());
+        assertEquals(0, AdapterCoalescer.INSTANCE.getInFlightCount());
+
+        // The failed computation must not be left behind for later executions
+        assertEquals(new Result("listing-1"), execute(new CoalescedAdapter("listing-1")));
+    }
+
+    @Test
+    public void testExecutionsWithDifferentContextInputsAreNotCoalesced() throws Exception {
+        Future<Result> first = executorService.submit(() -> execute(new TenantAdapter("listing-1"), "tenant-1"));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        Future<Result> second = executorService.submit(() -> execute(new TenantAdapter("listing-1"), "tenant-2"));
+        Thread.sleep(100);
+        release.countDown();
+
+        assertEquals(new Result("tenant-1/listing-1"), first.get(5, TimeUnit.SECONDS));
+        assertEquals(new Result("tenant-2/listing-1"), second.get(5, TimeUnit.SECONDS));
+        assertEquals(2, adaptCount.get());
+    }
+
+    private static Result execute(CoalescedAdapter adapter) throws TefExecutionException {
+        return (Result) adapter.executeForData(new TestTefContext()).get().getResult();
+    }
+
+    private static Result execute(CoalescedAdapter adapter, String tenant) throws TefExecutionException {
+        TefContext tefContext = new TestTefContext(Collections.singletonMap("tenant", tenant),
+                new TestTefContext().getInjector(), System.out::println);
+        return (Result) adapter.executeForData(tefContext).get().getResult();
+    }
+
+    static class Result {
+        private final String listingId;
+
+        Result(String listingId) {
+            this.listingId = listingId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Result && ((Result) o).listingId.equals(listingId);
+        }
+
+        @Override
+        public int hashCode() {
+            return listingId.hashCode();
+        }
+    }
+
+    @Coalesce
+    static class CoalescedAdapter extends DataAdapterBizlogic<Result> {
+
+        @InjectData
+        String listingId;
+
+        CoalescedAdapter(String listingId) {
+            this.listingId = listingId;
+        }
+
+        @Override
+        public Result adapt(TefContext tefContext) throws TefExecutionException {
+            adaptCount.incrementAndGet();
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if ("failure".equals(listingId)) {
+                throw new TefExecutionException("failed", ErrorCode.NON_RETRYABLE);
+            } else if ("error".equals(listingId)) {
+                throw new AssertionError("failed");
+            }
+            return new Result(listingId);
+        }
+    }
+
+    /**
+     * Emits data which depends on the tenant of the request, besides the injected listing.
+     */
+    static class TenantAdapter extends CoalescedAdapter {
+
+        TenantAdapter(String listingId) {
+            super(listingId);
+        }
+
+        @Override
+        public Result adapt(TefContext tefContext) throws TefExecutionException {
+            super.adapt(tefContext);
+            return new Result(tefContext.getAdditionalContext("tenant", String.class) + "/" + listingId);
+        }
+
+        @Override
+        protected Object fingerprintInputs(TefContext tefContext) {
+            return tefContext.getAdditionalContext("tenant", String.class);
+        }
+    }
+}
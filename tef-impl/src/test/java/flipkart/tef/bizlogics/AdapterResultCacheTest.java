@@ -0,0 +1,251 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.bizlogics;
+
+import com.google.common.cache.CacheStats;
+import com.google.inject.AbstractModule;
+import flipkart.tef.TestGuiceModule;
+import flipkart.tef.TestTefContext;
+import flipkart.tef.annotations.CacheResult;
+import flipkart.tef.annotations.InjectData;
+import flipkart.tef.exception.TefExecutionException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class AdapterResultCacheTest {
+
+    // static so that the bizlogics can access
+    private static AtomicInteger adaptCount;
+
+    @Before
+    public void setUp() {
+        adaptCount = new AtomicInteger();
+        AdapterResultCaches.getDefault(CachedAdapter.class).invalidateAll();
+        AdapterResultCaches.getDefault(ExpiringAdapter.class).invalidateAll();
+        AdapterResultCaches.getDefault(WeighedAdapter.class).invalidateAll();
+        AdapterResultCaches.getDefault(TenantCachedAdapter.class).invalidateAll();
+        MapAdapterResultCache.CACHE.clear();
+    }
+
+    @Test
+    public void testHitSkipsTheAdapter() throws Exception {
+        GuavaAdapterResultCache cache = AdapterResultCaches.getDefault(CachedAdapter.class);
+        // Stats are not reset when the cache is invalidated
+        CacheStats initialStats = cache.stats();
+
+        String first = execute(new CachedAdapter("listing-1"));
+        String second = execute(new CachedAdapter("listing-1"));
+        String third = execute(new CachedAdapter("listing-2"));
+
+        assertSame(first, second);
+        assertEquals("listing-2-2", third);
+        assertEquals(2, adaptCount.get());
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.stats().minus(initialStats).hitCount());
+        assertEquals(2, cache.stats().minus(initialStats).missCount());
+    }
+
+    @Test
+    public void testNullResultIsNotCached() throws Exception {
+        assertNull(execute(new CachedAdapter(null)));
+        assertNull(execute(new CachedAdapter(null)));
+
+        assertEquals(2, adaptCount.get());
+    }
+
+    @Test
+    public void testResultsExpire() throws Exception {
+        execute(new ExpiringAdapter("listing-1"));
+        TimeUnit.MILLISECONDS.sleep(100);
+        execute(new ExpiringAdapter("listing-1"));
+
+        assertEquals(2, adaptCount.get());
+    }
+
+    @Test
+    public void testCacheIsBoundByWeight() throws Exception {
+        execute(new WeighedAdapter("listing-1"));
+        execute(new WeighedAdapter("listing-2"));
+
+        assertEquals(1, AdapterResultCaches.getDefault(WeighedAdapter.class).size());
+    }
+
+    @Test
+    public void testCustomCacheIsObtainedFromInjector() throws Exception {
+        TefContext tefContext = new TestTefContext(new TestGuiceModule(), new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(MapAdapterResultCache.class).toInstance(new MapAdapterResultCache());
+            }
+        });
+
+        new CustomCachedAdapter("listing-1").executeForData(tefContext);
+        new CustomCachedAdapter("listing-1").executeForData(tefContext);
+
+        assertEquals(1, adaptCount.get());
+        assertEquals(1, MapAdapterResultCache.CACHE.size());
+        assertNull(AdapterResultCaches.getDefault(CustomCachedAdapter.class));
+    }
+
+    @Test
+    public void testRequestsWithDifferentContextInputsDoNotShareResults() throws Exception {
+        String first = execute(new TenantCachedAdapter("listing-1"), "tenant-1");
+        String second = execute(new TenantCachedAdapter("listing-1"), "tenant-2");
+        String third = execute(new TenantCachedAdapter("listing-1"), "tenant-1");
+
+        assertEquals("tenant-1/listing-1-1", first);
+        assertEquals("tenant-2/listing-1-2", second);
+        assertSame(first, third);
+        assertEquals(2, adaptCount.get());
+        assertEquals(2, AdapterResultCaches.getDefault(TenantCachedAdapter.class).size());
+    }
+
+    private static String execute(DataAdapterBizlogic<String> adapter) throws TefExecutionException {
+        return (String) adapter.executeForData(new TestTefContext()).get().getResult();
+    }
+
+    private static String execute(DataAdapterBizlogic<String> adapter, String tenant) throws TefExecutionException {
+        TefContext tefContext = new TestTefContext(Collections.singletonMap("tenant", tenant),
+                new TestTefContext().getInjector(), System.out::println);
+        return (String) adapter.executeForData(tefContext).get().getResult();
+    }
+
+    static String adapt(String listingId) {
+        int count = adaptCount.incrementAndGet();
+        return listingId == null ? null : listingId + "-" + count;
+    }
+
+    @CacheResult(maximumSize = 10)
+    static class CachedAdapter extends DataAdapterBizlogic<String> {
+
+        @InjectData
+        String listingId;
+
+        CachedAdapter(String listingId) {
+            this.listingId = listingId;
+        }
+
+        @Override
+        public String adapt(TefContext tefContext) {
+            return AdapterResultCacheTest.adapt(listingId);
+        }
+    }
+
+    /**
+     * Emits data which depends on the tenant of the request, besides the injected listing.
+     */
+    @CacheResult(maximumSize = 10)
+    static class TenantCachedAdapter extends DataAdapterBizlogic<String> {
+
+        @InjectData
+        String listingId;
+
+        TenantCachedAdapter(String listingId) {
+            this.listingId = listingId;
+        }
+
+        @Override
+        public String adapt(TefContext tefContext) {
+            return tefContext.getAdditionalContext("tenant", String.class) + "/" + AdapterResultCacheTest.adapt(listingId);
+        }
+
+        @Override
+        protected Object fingerprintInputs(TefContext tefContext) {
+            return tefContext.getAdditionalContext("tenant", String.class);
+        }
+    }
+
+    @CacheResult(expireAfterWrite = 50, timeUnit = TimeUnit.MILLISECONDS)
+    static class ExpiringAdapter extends DataAdapterBizlogic<String> {
+
+        @InjectData
+        String listingId;
+
+        ExpiringAdapter(String listingId) {
+            this.listingId = listingId;
+        }
+
+        @Override
+        public String adapt(TefContext tefContext) {
+            return AdapterResultCacheTest.adapt(listingId);
+        }
+    }
+
+    @CacheResult(maximumWeight = 15, weigher = LengthWeigher.class)
+    static class WeighedAdapter extends DataAdapterBizlogic<String> {
+
+        @InjectData
+        String listingId;
+
+        WeighedAdapter(String listingId) {
+            this.listingId = listingId;
+        }
+
+        @Override
+        public String adapt(TefContext tefContext) {
+            return AdapterResultCacheTest.adapt(listingId);
+        }
+    }
+
+    @CacheResult(cache = MapAdapterResultCache.class)
+    static class CustomCachedAdapter extends DataAdapterBizlogic<String> {
+
+        @InjectData
+        String listingId;
+
+        CustomCachedAdapter(String listingId) {
+            this.listingId = listingId;
+        }
+
+        @Override
+        public String adapt(TefContext tefContext) {
+            return AdapterResultCacheTest.adapt(listingId);
+        }
+    }
+
+    public static class LengthWeigher implements AdapterResultCache.Weigher {
+
+        @Override
+        public int weigh(Object result) {
+            return result.toString().length();
+        }
+    }
+
+    static class MapAdapterResultCache implements AdapterResultCache {
+        static final ConcurrentHashMap<InputFingerprint, Object> CACHE = new ConcurrentHashMap<>();
+
+        @Override
+        public Object getIfPresent(InputFingerprint fingerprint) {
+            return CACHE.get(fingerprint);
+        }
+
+        @Override
+        public void put(InputFingerprint fingerprint, Object result) {
+            CACHE.put(fingerprint, result);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.bizlogics;
+
+import com.google.inject.Guice;
+import flipkart.tef.TestGuiceModule;
+import flipkart.tef.TestTefContext;
+import flipkart.tef.annotations.EmitData;
+import flipkart.tef.annotations.InjectData;
+import flipkart.tef.exception.ErrorCode;
+import flipkart.tef.exception.TefExecutionException;
+import flipkart.tef.execution.DataContext;
+import flipkart.tef.execution.FlowExecutor;
+import flipkart.tef.execution.FluentCapabilityBuilder;
+import flipkart.tef.execution.ParallelFlowExecutor;
+import flipkart.tef.flow.SimpleFlow;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BatchingDataAdapterBizlogicTest {
+
+    // static so that the bizlogics can access
+    private static List<Set<Integer>> batches;
+    private static List<String> consumed;
+
+    private ExecutorService executorService;
+
+    @Before
+    public void setUp() {
+        batches = Collections.synchronizedList(new ArrayList<>());
+        consumed = Collections.synchronizedList(new ArrayList<>());
+        executorService = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testEmittedTypeIsTheValueType() {
+        assertEquals(String.class, DataAdapterBizlogic.getEmittedType(Product1Adapter.class));
+        assertEquals(String.class, new Product1Adapter().getResultType());
+    }
+
+    @Test(timeout = 10000)
+    public void testKeysAreLoadedInOneBatch() throws Exception {
+        FluentCapabilityBuilder flowBuilder = new FluentCapabilityBuilder();
+        flowBuilder.withAdapter(Product1Adapter.class);
+        flowBuilder.withAdapter(Product2Adapter.class);
+        flowBuilder.withAdapter(AnotherProduct1Adapter.class);
+        flowBuilder.withBizlogic(ConsumerBizlogic.class);
+        SimpleFlow flow = flowBuilder.dataflow();
+
+        new ParallelFlowExecutor(flow, new DataContext(), new TestTefContext(), executorService).execute();
+
+        assertEquals(Arrays.asList("product-1", "product-2", "product-1"), consumed);
+        assertEquals(1, batches.size());
+        assertEquals(new HashSet<>(Arrays.asList(1, 2)), batches.get(0));
+    }
+
+    @Test(timeout = 10000)
+    public void testFailureIsPropagatedToAllTheAdapters() throws Exception {
+        FluentCapabilityBuilder flowBuilder = new FluentCapabilityBuilder();
+        flowBuilder.withAdapter(FailingProductAdapter.class);
+        flowBuilder.withBizlogic(FailingConsumerBizlogic.class);
+        SimpleFlow flow = flowBuilder.dataflow();
+
+        List<Throwable> logged = Collections.synchronizedList(new ArrayList<>());
+        TefContext tefContext = new TestTefContext(new HashMap<>(), Guice.createInjector(new TestGuiceModule()), logged::add);
+        try {
+            new ParallelFlowExecutor(flow, new DataContext(), tefContext, executorService).execute();
+            fail("Exception was expected");
+        } catch (TefExecutionException e) {
+            assertEquals(ErrorCode.RETRYABLE, e.getErrorCode());
+            assertEquals(1, logged.size());
+        }
+        assertTrue(consumed.isEmpty());
+    }
+
+    @Test(timeout = 10000)
+    public void testKeysAreLoadedRightAwayWithoutBatchWindow() throws Exception {
+        FluentCapabilityBuilder flowBuilder = new FluentCapabilityBuilder();
+        flowBuilder.withAdapter(UnbatchedProductAdapter.class);
+        flowBuilder.withBizlogic(UnbatchedConsumerBizlogic.class);
+        SimpleFlow flow = flowBuilder.dataflow();
+
+        new FlowExecutor(flow, new DataContext(), new TestTefContext()).execute();
+        new FlowExecutor(flow, new DataContext(), new TestTefContext()).execute();
+
+        assertEquals(Arrays.asList("product-3", "product-3"), consumed);
+        assertEquals(Arrays.asList(Collections.singleton(3), Collections.singleton(3)), batches);
+    }
+
+    @Test
+    public void testInvalidConfigurationIsRejected() {
+        for (long[] configuration : new long[][]{{-1, 100}, {200, 0}}) {
+            try {
+                new ProductLoader(configuration[0], (int) configuration[1]);
+                fail("Exception was expected");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    static class ProductLoader extends BatchLoader<Integer, String> {
+
+        static final ProductLoader INSTANCE = new ProductLoader(200, 100);
+
+        ProductLoader(long batchWindowMillis, int maxBatchSize) {
+            super(batchWindowMillis, maxBatchSize);
+        }
+
+        @Override
+        protected Map<Integer, String> loadAll(Set<Integer> keys) {
+            batches.add(new HashSet<>(keys));
+            Map<Integer, String> products = new HashMap<>();
+            for (Integer key : keys) {
+                products.put(key, "product-" + key);
+            }
+            return products;
+        }
+    }
+
+    public abstract static class ProductAdapter extends BatchingDataAdapterBizlogic<Integer, String> {
+
+        @Override
+        protected BatchLoader<Integer, String> getLoader() {
+            return ProductLoader.INSTANCE;
+        }
+    }
+
+    @EmitData(name = "product1")
+    public static class Product1Adapter extends ProductAdapter {
+
+        @Override
+        protected Integer getKey(TefContext tefContext) {
+            return 1;
+        }
+    }
+
+    @EmitData(name = "product2")
+    public static class Product2Adapter extends ProductAdapter {
+
+        @Override
+        protected Integer getKey(TefContext tefContext) {
+            return 2;
+        }
+    }
+
+    @EmitData(name = "anotherProduct1")
+    public static class AnotherProduct1Adapter extends ProductAdapter {
+
+        @Override
+        protected Integer getKey(TefContext tefContext) {
+            return 1;
+        }
+    }
+
+    @EmitData(name = "failingProduct")
+    public static class FailingProductAdapter extends BatchingDataAdapterBizlogic<Integer, String> {
+
+        @Override
+        protected Integer getKey(TefContext tefContext) {
+            return 1;
+        }
+
+        @Override
+        protected BatchLoader<Integer, String> getLoader() {
+            return FAILING_LOADER;
+        }
+    }
+
+    @EmitData(name = "unbatchedProduct")
+    public static class UnbatchedProductAdapter extends BatchingDataAdapterBizlogic<Integer, String> {
+
+        @Override
+        protected Integer getKey(TefContext tefContext) {
+            return 3;
+        }
+
+        @Override
+        protected BatchLoader<Integer, String> getLoader() {
+            return UNBATCHED_LOADER;
+        }
+    }
+
+    private static final BatchLoader<Integer, String> FAILING_LOADER = new BatchLoader<Integer, String>() {
+        @Override
+        protected Map<Integer, String> loadAll(Set<Integer> keys) throws TefExecutionException {
+            throw new TefExecutionException("backend is down", ErrorCode.RETRYABLE);
+        }
+    };
+
+    private static final BatchLoader<Integer, String> UNBATCHED_LOADER = new BatchLoader<Integer, String>() {
+        @Override
+        protected Map<Integer, String> loadAll(Set<Integer> keys) {
+            batches.add(new HashSet<>(keys));
+            return Collections.singletonMap(3, "product-3");
+        }
+    };
+
+    public static class UnbatchedConsumerBizlogic implements IBizlogic {
+
+        @InjectData(name = "unbatchedProduct")
+        String product;
+
+        @Override
+        public void execute(TefContext tefContext) {
+            consumed.add(product);
+        }
+    }
+
+    public static class ConsumerBizlogic implements IBizlogic {
+
+        @InjectData(name = "product1")
+        String product1;
+
+        @InjectData(name = "product2")
+        String product2;
+
+        @InjectData(name = "anotherProduct1")
+        String anotherProduct1;
+
+        @Override
+        public void execute(TefContext tefContext) {
+            consumed.addAll(Arrays.asList(product1, product2, anotherProduct1));
+        }
+    }
+
+    public static class FailingConsumerBizlogic implements IBizlogic {
+
+        @InjectData(name = "failingProduct")
+        String product;
+
+        @Override
+        public void execute(TefContext tefContext) {
+            consumed.add(product);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.bizlogics;
+
+import com.google.inject.Guice;
+import flipkart.tef.TestGuiceModule;
+import flipkart.tef.TestTefContext;
+import flipkart.tef.annotations.EmitData;
+import flipkart.tef.annotations.InjectData;
+import flipkart.tef.exception.ErrorCode;
+import flipkart.tef.exception.TefExecutionException;
+import flipkart.tef.execution.DataContext;
+import flipkart.tef.execution.FlowExecutor;
+import flipkart.tef.execution.FluentCapabilityBuilder;
+import flipkart.tef.execution.ParallelFlowExecutor;
+import flipkart.tef.flow.SimpleFlow;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CompletableDataAdapterBizlogicTest {
+
+    // static so that the bizlogics can access
+    private static CompletableFuture<String> future;
+    private static List<String> consumed;
+
+    private ExecutorService executorService;
+
+    @Before
+    public void setUp() {
+        future = new CompletableFuture<>();
+        consumed = Collections.synchronizedList(new ArrayList<>());
+        executorService = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testResultType() {
+        assertEquals(String.class, new SampleCompletableAdapter().getResultType());
+    }
+
+    @Test
+    public void testSequentialExecutorWaitsForTheStage() throws Exception {
+        FluentCapabilityBuilder flowBuilder = new FluentCapabilityBuilder();
+        flowBuilder.withBizlogic(ConsumerBizlogic.class);
+        flowBuilder.withAdapter(SampleCompletableAdapter.class);
+        SimpleFlow flow = flowBuilder.dataflow();
+
+        executorService.execute(() -> {
+            sleep();
+            future.complete("sample");
+        });
+
+        DataContext dataContext = new DataContext();
+        new FlowExecutor(flow, dataContext, new TestTefContext()).execute();
+
+        assertEquals("sample", dataContext.get(new DataAdapterKey<>("sample", String.class)));
+        assertEquals(Collections.singletonList("sample"), consumed);
+    }
+
+    /**
+     * The executor has a single thread, so the stage can only be completed by {@link CompleterBizlogic}
+     * if the adapter does not block the thread while waiting for it.
+     */
+    @Test(timeout = 10000)
+    public void testParallelExecutorDoesNotBlockOnTheStage() throws Exception {
+        FluentCapabilityBuilder flowBuilder = new FluentCapabilityBuilder();
+        flowBuilder.withBizlogic(ConsumerBizlogic.class);
+        flowBuilder.withAdapter(SampleCompletableAdapter.class);
+        flowBuilder.withBizlogic(CompleterBizlogic.class);
+        SimpleFlow flow = flowBuilder.dataflow();
+
+        DataContext dataContext = new DataContext();
+        new ParallelFlowExecutor(flow, dataContext, new TestTefContext(), executorService).execute();
+
+        assertEquals("sample", dataContext.get(new DataAdapterKey<>("sample", String.class)));
+        assertEquals(Collections.singletonList("sample"), consumed);
+    }
+
+    @Test(timeout = 10000)
+    public void testExceptionalCompletionIsPropagated() throws Exception {
+        FluentCapabilityBuilder flowBuilder = new FluentCapabilityBuilder();
+        flowBuilder.withBizlogic(ConsumerBizlogic.class);
+        flowBuilder.withAdapter(SampleCompletableAdapter.class);
+        SimpleFlow flow = flowBuilder.dataflow();
+
+        List<Throwable> logged = Collections.synchronizedList(new ArrayList<>());
+        TefContext tefContext = new TestTefContext(new HashMap<>(), Guice.createInjector(new TestGuiceModule()), logged::add);
+        IllegalStateException cause = new IllegalStateException("failed");
+        future.completeExceptionally(cause);
+
+        try {
+            new ParallelFlowExecutor(flow, new DataContext(), tefContext, executorService).execute();
+            fail("Exception was expected");
+        } catch (TefExecutionException e) {
+            assertEquals(ErrorCode.NON_RETRYABLE, e.getErrorCode());
+            assertEquals(cause, e.getCause());
+            assertEquals(1, logged.size());
+            assertEquals(e, logged.get(0));
+        }
+
+        assertTrue(consumed.isEmpty());
+    }
+
+    @Test
+    public void testTefExecutionExceptionIsNotWrapped() {
+        TefExecutionException e = new TefExecutionException("failed", ErrorCode.TOO_MANY_REQUEST);
+        future.completeExceptionally(e);
+
+        try {
+            new SampleCompletableAdapter().adapt(new TestTefContext());
+            fail("Exception was expected");
+        } catch (TefExecutionException actual) {
+            assertEquals(e, actual);
+        }
+    }
+
+    private static void sleep() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @EmitData(name = "sample")
+    public static class SampleCompletableAdapter extends CompletableDataAdapterBizlogic<String> {
+
+        @Override
+        public CompletionStage<String> adaptAsync(TefContext tefContext) {
+            return future;
+        }
+    }
+
+    public static class CompleterBizlogic implements IBizlogic {
+
+        @Override
+        public void execute(TefContext tefContext) {
+            future.complete("sample");
+        }
+    }
+
+    public static class ConsumerBizlogic implements IBizlogic {
+
+        @InjectData(name = "sample")
+        String data;
+
+        @Override
+        public void execute(TefContext tefContext) {
+            consumed.add(data);
+        }
+    }
+}
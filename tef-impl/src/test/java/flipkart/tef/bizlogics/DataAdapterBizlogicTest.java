@@ -22,11 +22,21 @@ import com.google.inject.Injector;
 import com.google.inject.internal.BytecodeGen;
 import com.google.inject.matcher.Matchers;
 import flipkart.tef.annotations.EmitData;
+import flipkart.tef.annotations.InjectData;
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 public class DataAdapterBizlogicTest {
@@ -46,6 +56,50 @@ public class DataAdapterBizlogicTest {
         }
     }
 
+    static class MutableInputDataAdapterBizlogic extends DataAdapterBizlogic<Integer> {
+        @InjectData(name = "input", mutable = true)
+        private Integer input = 0;
+
+        @Override
+        public Integer adapt(TefContext tefContext) {
+            Thread.yield();
+            return input;
+        }
+    }
+
+    @Test
+    public void testMutationWhileInjecting() throws Exception {
+        MutableInputDataAdapterBizlogic adapter = new MutableInputDataAdapterBizlogic();
+        AtomicBoolean done = new AtomicBoolean(false);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                readers.add(executor.submit(() -> {
+                    while (!done.get()) {
+                        assertNotNull(adapter.executeForData(null).get().getResult());
+                    }
+                    return null;
+                }));
+            }
+
+            for (int i = 1; i <= 2000; i++) {
+                adapter.mutated(new DataAdapterResult(i, "input", Integer.class));
+                // a result computed from the inputs before the mutation must never be served after it
+                assertEquals(i, adapter.executeForData(null).get().getResult());
+                assertEquals(i, adapter.executeForData(null).get().getResult());
+            }
+
+            done.set(true);
+            for (Future<?> reader : readers) {
+                reader.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            done.set(true);
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     public void testGetEmittedDataName() {
         //setup
@@ -30,6 +30,9 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 /**
  * Test for DataAdapterResultKey
@@ -68,6 +71,27 @@ public class DataAdapterKeyTest {
         flowExecutor.execute();
     }
 
+    @Test
+    public void testKeysAreInterned() {
+        DataAdapterKey<SampleData> key = DataAdapterKey.of("1", SampleData.class);
+        assertSame(key, DataAdapterKey.of("1", SampleData.class));
+        assertNotSame(key, DataAdapterKey.of("2", SampleData.class));
+        assertNotEquals(key.getId(), DataAdapterKey.of("2", SampleData.class).getId());
+        assertSame(DataAdapterKey.of("", SampleData.class), new DataAdapterResult(new SampleData(1)).getKey());
+    }
+
+    @Test
+    public void testConstructedKeyIsEqualToInternedKey() {
+        DataAdapterKey<SampleData> key = new DataAdapterKey<>("1", SampleData.class);
+        DataAdapterKey<SampleData> internedKey = DataAdapterKey.of("1", SampleData.class);
+
+        assertNotSame(internedKey, key);
+        assertEquals(internedKey, key);
+        assertEquals(internedKey.hashCode(), key.hashCode());
+        assertEquals(internedKey.getId(), key.getId());
+        assertNotEquals(internedKey, new DataAdapterKey<>("2", SampleData.class));
+    }
+
     public static class SampleData {
         public int value;
 
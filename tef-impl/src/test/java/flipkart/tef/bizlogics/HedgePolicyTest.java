@@ -0,0 +1,151 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.bizlogics;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import flipkart.tef.TestTefContext;
+import flipkart.tef.annotations.Hedge;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class HedgePolicyTest {
+
+    // static so that the adapters can access
+    private static ExecutorService executorService;
+    private static AtomicInteger attempts;
+    private static CountDownLatch interrupted;
+
+    @Before
+    public void setUp() {
+        executorService = Executors.newFixedThreadPool(4);
+        attempts = new AtomicInteger();
+        interrupted = new CountDownLatch(1);
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test(timeout = 10000)
+    public void testSlowAttemptIsHedged() throws Exception {
+        Future<Optional<String>> future = new SlowFirstAttemptAdapter().adapt(new TestTefContext());
+
+        assertEquals(Optional.of("attempt-2"), future.get(5, TimeUnit.SECONDS));
+        // The slow attempt is cancelled
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+
+        HedgePolicy policy = HedgePolicy.of(SlowFirstAttemptAdapter.class);
+        assertEquals(1, policy.getExecutionCount());
+        assertEquals(1, policy.getHedgeCount());
+        assertEquals(1, policy.getHedgeWinCount());
+        assertEquals(1.0, policy.getWinRate(), 0);
+    }
+
+    @Test(timeout = 10000)
+    public void testHedgesAreBoundByRatio() throws Exception {
+        Future<Optional<String>> future = new UnhedgedAdapter().adapt(new TestTefContext());
+
+        assertEquals(Optional.of("attempt-1"), future.get(5, TimeUnit.SECONDS));
+        assertEquals(1, attempts.get());
+        HedgePolicy policy = HedgePolicy.of(UnhedgedAdapter.class);
+        assertEquals(0, policy.getHedgeCount());
+        assertEquals(0.0, policy.getHedgeRate(), 0);
+    }
+
+    @Test
+    public void testDelayFollowsPercentile() throws Exception {
+        HedgePolicy policy = new HedgePolicy(90, TimeUnit.SECONDS.toNanos(1), 0, 0.1);
+        ExecutorService directExecutor = MoreExecutors.newDirectExecutorService();
+
+        assertEquals(1, policy.getDelay(TimeUnit.SECONDS));
+        for (int i = 0; i < HedgePolicy.MIN_SAMPLES + HedgePolicy.RECOMPUTE_INTERVAL; i++) {
+            assertEquals("done", policy.execute(directExecutor, () -> "done").get());
+        }
+        assertEquals(HedgePolicy.MIN_SAMPLES + HedgePolicy.RECOMPUTE_INTERVAL, policy.getLatencies().getCount());
+        assertTrue(policy.getDelay(TimeUnit.MILLISECONDS) < 1000);
+        assertEquals(0, policy.getHedgeCount());
+    }
+
+    @Test
+    public void testFailureOfAllAttemptsIsPropagated() throws Exception {
+        HedgePolicy policy = new HedgePolicy(90, 0, 0, 0.1);
+        Future<String> future = policy.execute(MoreExecutors.newDirectExecutorService(), () -> {
+            throw new IllegalStateException("failed");
+        });
+
+        try {
+            future.get();
+            fail("Exception was expected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Hedge(initialDelay = 20, maxHedgeRatio = 1)
+    public static class SlowFirstAttemptAdapter extends AsyncDataAdapterBizlogic<Future<Optional<String>>, String> {
+
+        public SlowFirstAttemptAdapter() {
+            super(executorService, true);
+        }
+
+        @Override
+        public String getResult(TefContext tefContext) {
+            int attempt = attempts.incrementAndGet();
+            if (attempt == 1) {
+                try {
+                    TimeUnit.SECONDS.sleep(5);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+            }
+            return "attempt-" + attempt;
+        }
+    }
+
+    @Hedge(initialDelay = 1, maxHedgeRatio = 0)
+    public static class UnhedgedAdapter extends AsyncDataAdapterBizlogic<Future<Optional<String>>, String> {
+
+        public UnhedgedAdapter() {
+            super(executorService, true);
+        }
+
+        @Override
+        public String getResult(TefContext tefContext) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "attempt-" + attempts.incrementAndGet();
+        }
+    }
+}
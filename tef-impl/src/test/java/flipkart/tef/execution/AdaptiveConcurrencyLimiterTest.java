@@ -0,0 +1,345 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.execution;
+
+import com.google.inject.Guice;
+import flipkart.tef.TestGuiceModule;
+import flipkart.tef.annotations.ConcurrencyLimit;
+import flipkart.tef.annotations.EmitData;
+import flipkart.tef.annotations.InjectData;
+import flipkart.tef.annotations.NonCritical;
+import flipkart.tef.annotations.Retry;
+import flipkart.tef.bizlogics.DataAdapterBizlogic;
+import flipkart.tef.bizlogics.IBizlogic;
+import flipkart.tef.bizlogics.TefContext;
+import flipkart.tef.exception.ErrorCode;
+import flipkart.tef.exception.TefExecutionException;
+import flipkart.tef.flow.SimpleFlow;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    /**
+     * Once converged, the limit stays within one cut of the capacity
+     */
+    private static final double BACKOFF_BAND = 0.9;
+
+    // static so that the bizlogics can access
+    private static CountDownLatch release;
+    private static List<Class<?>> executed;
+
+    private ExecutorService executorService;
+
+    @Before
+    public void setUp() {
+        release = new CountDownLatch(1);
+        executed = Collections.synchronizedList(new ArrayList<>());
+        executorService = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testLimitAdapts() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 2, 5, TimeUnit.MILLISECONDS.toNanos(100));
+
+        // Grows only while at least half of the limit is in use
+        assertTrue(limiter.tryAcquire());
+        limiter.release(0, false);
+        assertEquals(4, limiter.getLimit());
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+        assertEquals(1, limiter.getShedCount());
+
+        // Grows by 1/limit per success, i.e. by one after about a limit's worth of successes, up to the max limit
+        for (int i = 0; i < 4; i++) {
+            limiter.release(0, false);
+            assertEquals(4, limiter.getLimit());
+            assertTrue(limiter.tryAcquire());
+        }
+        limiter.release(0, false);
+        assertEquals(5, limiter.getLimit());
+        for (int i = 0; i < 3; i++) {
+            limiter.release(0, false);
+        }
+        assertEquals(5, limiter.getLimit());
+
+        // Shrinks by 10% on overload or slow executions, up to the min limit
+        assertTrue(limiter.tryAcquire());
+        limiter.release(0, true);
+        assertEquals(4, limiter.getLimit());
+        assertTrue(limiter.tryAcquire());
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(200), false);
+        assertEquals(4, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+            limiter.release(0, true);
+        }
+        assertEquals(2, limiter.getLimit());
+        assertEquals(12, limiter.getOverloadCount());
+    }
+
+    @Test
+    public void testLimitIsCutOncePerRoundTrip() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 10, 0);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+
+        // The other executions were in flight when the limit was cut
+        for (int i = 0; i < 5; i++) {
+            limiter.release(0, true);
+            assertEquals(9, limiter.getLimit());
+        }
+        assertEquals(5, limiter.getOverloadCount());
+
+        assertTrue(limiter.tryAcquire());
+        limiter.release(0, true);
+        assertEquals(8, limiter.getLimit());
+    }
+
+    @Test
+    public void testLimitConvergesUnderSteadyLoad() {
+        // A dependency which is overloaded by more than 20 concurrent executions, under more demand than that
+        int capacity = 20;
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 100, 0);
+        Deque<Integer> concurrencyAtStart = new ArrayDeque<>();
+
+        int minLimit = Integer.MAX_VALUE;
+        int maxLimit = 0;
+        for (int i = 0; i < 10000; i++) {
+            while (limiter.tryAcquire()) {
+                concurrencyAtStart.add(limiter.getInFlight());
+            }
+            limiter.release(0, concurrencyAtStart.poll() > capacity);
+            if (i >= 2000) {
+                minLimit = Math.min(minLimit, limiter.getLimit());
+                maxLimit = Math.max(maxLimit, limiter.getLimit());
+            }
+        }
+
+        assertTrue("Limit dropped to " + minLimit, minLimit >= capacity * BACKOFF_BAND);
+        assertTrue("Limit grew to " + maxLimit, maxLimit <= capacity + 1);
+    }
+
+    @Test
+    public void testThrottledAdapterReducesLimit() throws Exception {
+        try {
+            new FlowExecutor(newFlow(ThrottledAdapter.class, ThrottledConsumer.class), new DataContext(), newTefContext()).execute();
+            fail("Exception was expected");
+        } catch (TefExecutionException e) {
+            assertEquals(ErrorCode.TOO_MANY_REQUEST, e.getErrorCode());
+        }
+        assertEquals(9, AdaptiveConcurrencyLimiter.of(ThrottledAdapter.class).getLimit());
+        assertEquals(0, AdaptiveConcurrencyLimiter.of(ThrottledAdapter.class).getInFlight());
+    }
+
+    @Test(timeout = 10000)
+    public void testCriticalBizlogicFailsFastOnLimit() throws Exception {
+        Future<?> blocked = executeInBackground(newFlow(BlockingAdapter.class, BlockingConsumer.class), BlockingAdapter.class);
+
+        try {
+            new FlowExecutor(newFlow(BlockingAdapter.class, BlockingConsumer.class), new DataContext(), newTefContext()).execute();
+            fail("Exception was expected");
+        } catch (TefExecutionException e) {
+            assertEquals(ErrorCode.TOO_MANY_REQUEST, e.getErrorCode());
+        }
+
+        release.countDown();
+        blocked.get();
+        assertEquals(Collections.singletonList(BlockingConsumer.class), executed);
+    }
+
+    @Test(timeout = 10000)
+    public void testNonCriticalBizlogicIsShedOnLimit() throws Exception {
+        Future<?> blocked = executeInBackground(newFlow(NonCriticalAdapter.class, NullableConsumer.class), NonCriticalAdapter.class);
+
+        new FlowExecutor(newFlow(NonCriticalAdapter.class, NullableConsumer.class), new DataContext(), newTefContext()).execute();
+        assertEquals(Collections.singletonList(NullableConsumer.class), executed);
+        assertEquals(1, AdaptiveConcurrencyLimiter.of(NonCriticalAdapter.class).getShedCount());
+
+        release.countDown();
+        blocked.get();
+        assertEquals(2, executed.size());
+    }
+
+    @Test
+    public void testRetryBackoffIsNotSampledAsLatency() throws Exception {
+        RetriedAdapter.attempts = 0;
+        new FlowExecutor(newFlow(RetriedAdapter.class, RetriedConsumer.class), new DataContext(), newTefContext()).execute();
+
+        assertEquals(2, RetriedAdapter.attempts);
+        AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter.of(RetriedAdapter.class);
+        // The backoff exceeds the latency threshold, but each attempt is quick
+        assertEquals(0, limiter.getOverloadCount());
+        assertEquals(4, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    /**
+     * Executes the flow on another thread, and waits till the adapter holds its permit.
+     */
+    private Future<?> executeInBackground(SimpleFlow flow, Class<?> adapter) throws InterruptedException {
+        Future<?> future = executorService.submit(() -> {
+            new FlowExecutor(flow, new DataContext(), newTefContext()).execute();
+            return null;
+        });
+        while (AdaptiveConcurrencyLimiter.of(adapter).getInFlight() == 0) {
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+        return future;
+    }
+
+    private static SimpleFlow newFlow(Class<? extends IBizlogic> adapter, Class<? extends IBizlogic> consumer) {
+        FluentCapabilityBuilder flowBuilder = new FluentCapabilityBuilder();
+        flowBuilder.withAdapter(adapter.asSubclass(DataAdapterBizlogic.class));
+        flowBuilder.withBizlogic(consumer);
+        return flowBuilder.dataflow();
+    }
+
+    private static TefContext newTefContext() {
+        return new TefContext(new HashMap<>(), Guice.createInjector(new TestGuiceModule()), e -> {
+        });
+    }
+
+    private static void awaitRelease() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @ConcurrencyLimit(initialLimit = 10)
+    @EmitData(name = "throttled")
+    public static class ThrottledAdapter extends DataAdapterBizlogic<String> {
+
+        @Override
+        public String adapt(TefContext tefContext) throws TefExecutionException {
+            throw new TefExecutionException("throttled", ErrorCode.TOO_MANY_REQUEST);
+        }
+    }
+
+    public static class ThrottledConsumer implements IBizlogic {
+
+        @InjectData(name = "throttled")
+        String data;
+
+        @Override
+        public void execute(TefContext tefContext) {
+        }
+    }
+
+    @Retry(maxAttempts = 2, backoff = 200)
+    @ConcurrencyLimit(initialLimit = 4, latencyThreshold = 100)
+    @EmitData(name = "retried")
+    public static class RetriedAdapter extends DataAdapterBizlogic<String> {
+
+        private static int attempts;
+
+        @Override
+        public String adapt(TefContext tefContext) throws TefExecutionException {
+            if (++attempts == 1) {
+                throw new TefExecutionException("retryable", ErrorCode.RETRYABLE);
+            }
+            return "retried";
+        }
+    }
+
+    public static class RetriedConsumer implements IBizlogic {
+
+        @InjectData(name = "retried")
+        String data;
+
+        @Override
+        public void execute(TefContext tefContext) {
+        }
+    }
+
+    @ConcurrencyLimit(initialLimit = 1, maxLimit = 1)
+    @EmitData(name = "blocking")
+    public static class BlockingAdapter extends DataAdapterBizlogic<String> {
+
+        @Override
+        public String adapt(TefContext tefContext) {
+            awaitRelease();
+            return "blocking";
+        }
+    }
+
+    public static class BlockingConsumer implements IBizlogic {
+
+        @InjectData(name = "blocking")
+        String data;
+
+        @Override
+        public void execute(TefContext tefContext) {
+            executed.add(getClass());
+        }
+    }
+
+    @NonCritical
+    @ConcurrencyLimit(initialLimit = 1, maxLimit = 1)
+    @EmitData(name = "nonCritical")
+    public static class NonCriticalAdapter extends DataAdapterBizlogic<String> {
+
+        @Override
+        public String adapt(TefContext tefContext) {
+            awaitRelease();
+            return "nonCritical";
+        }
+    }
+
+    public static class NullableConsumer implements IBizlogic {
+
+        @InjectData(name = "nonCritical", nullable = true)
+        String data;
+
+        @Override
+        public void execute(TefContext tefContext) {
+            executed.add(getClass());
+        }
+    }
+}
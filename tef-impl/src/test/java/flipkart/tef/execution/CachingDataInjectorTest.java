@@ -0,0 +1,93 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.execution;
+
+import flipkart.tef.bizlogics.DataAdapterKey;
+import flipkart.tef.exception.TefExecutionException;
+import flipkart.tef.execution.DefaultDataInjectorTest.ChildBizlogic;
+import flipkart.tef.execution.DefaultDataInjectorTest.NonNullableBizlogic;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class CachingDataInjectorTest {
+
+    @Test
+    public void testPlanIsBuiltOnce() {
+        InjectionPlan plan = CachingDataInjector.getPlan(ChildBizlogic.class);
+        assertSame(plan, CachingDataInjector.getPlan(ChildBizlogic.class));
+        assertEquals(ChildBizlogic.class, plan.getBizlogicClass());
+        // generated injectors of ChildBizlogic and GeneratedBizlogic, and a field of ReflectiveBizlogic
+        assertEquals(3, plan.size());
+    }
+
+    @Test
+    public void testInjection() throws Exception {
+        RecordingValueProvider valueProvider = new RecordingValueProvider();
+        ChildBizlogic bizlogic = new ChildBizlogic();
+        new CachingDataInjector().injectData(bizlogic, ChildBizlogic.class, valueProvider);
+
+        assertEquals("value", bizlogic.data);
+        assertEquals("named", bizlogic.namedData);
+        assertNull(bizlogic.nullableData);
+        assertEquals(Integer.valueOf(1), bizlogic.childData);
+        assertEquals("value", bizlogic.getReflectiveData());
+
+        // The reflective field and the generated injectors look up the data with pre-resolved keys
+        assertEquals(new HashSet<>(Arrays.asList(DataAdapterKey.of("", String.class), DataAdapterKey.of("named", String.class),
+                DataAdapterKey.of("", Long.class), DataAdapterKey.of("", Integer.class))), new HashSet<>(valueProvider.keys));
+        assertEquals(5, valueProvider.keys.size());
+    }
+
+    @Test
+    public void testNullInjection() throws Exception {
+        try {
+            new CachingDataInjector().injectData(new NonNullableBizlogic(), NonNullableBizlogic.class, new RecordingValueProvider());
+            fail("Exception was expected");
+        } catch (DataDependencyException e) {
+            assertEquals("Injectable Data data cannot be null in " + NonNullableBizlogic.class.getName(), e.getMessage());
+        }
+    }
+
+    static class RecordingValueProvider implements InjectableValueProvider {
+        private final List<DataAdapterKey<?>> keys = new ArrayList<>();
+
+        @Override
+        public Object getValueToInject(Class<?> fieldType, String name) {
+            if (fieldType == String.class) {
+                return name.isEmpty() ? "value" : name;
+            } else if (fieldType == Integer.class) {
+                return 1;
+            }
+            return null;
+        }
+
+        @Override
+        public Object getValueToInject(DataAdapterKey<?> key) throws TefExecutionException {
+            keys.add(key);
+            return InjectableValueProvider.super.getValueToInject(key);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.execution;
+
+import flipkart.tef.TestTefContext;
+import flipkart.tef.bizlogics.DataAdapterKey;
+import flipkart.tef.execution.FlowExecutorTest.LazyConsumerBizlogic;
+import flipkart.tef.execution.FlowExecutorTest.SampleData;
+import flipkart.tef.execution.FlowExecutorTest.SampleDataAdapter;
+import flipkart.tef.execution.FlowExecutorTest.UnusedData;
+import flipkart.tef.execution.FlowExecutorTest.UnusedDataAdapter;
+import flipkart.tef.flow.SimpleFlow;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class CompiledFlowTest {
+
+    private SimpleFlow flow;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        FlowBuilder flowBuilder = new FlowBuilder();
+        flowBuilder.add(SampleDataAdapter.class);
+        flowBuilder.add(LazyConsumerBizlogic.class);
+        flow = flowBuilder.build();
+        // FlowExecutorTest emits null from the same adapter
+        SampleDataAdapter.ADAPTED = new SampleData();
+    }
+
+    @Test
+    public void testCompiledFlow() {
+        CompiledFlow compiledFlow = CompiledFlow.builder(flow).build();
+
+        assertSame(flow, compiledFlow.getFlow());
+        assertEquals(ExecutionMode.EAGER, compiledFlow.getExecutionMode());
+
+        int adapterId = flow.getGraph().getId(SampleDataAdapter.class);
+        DataAdapterKey<SampleData> key = DataAdapterKey.of("", SampleData.class);
+        assertEquals(key, compiledFlow.getEmittedKey(adapterId));
+        assertNull(compiledFlow.getEmittedKey(flow.getGraph().getId(LazyConsumerBizlogic.class)));
+        assertEquals(adapterId, compiledFlow.getAdapterId(key));
+        assertEquals(-1, compiledFlow.getAdapterId(DataAdapterKey.of("", String.class)));
+    }
+
+    @Test
+    public void testRunsDoNotShareState() throws Exception {
+        MyFlowExecutionListener listener = new MyFlowExecutionListener();
+        CompiledFlow compiledFlow = CompiledFlow.builder(flow).addListener(listener).build();
+
+        SampleDataAdapter.ADAPTED = new SampleData();
+        DataContext dataContext1 = new DataContext();
+        compiledFlow.newRun(dataContext1, new TestTefContext()).execute();
+        assertSame(SampleDataAdapter.ADAPTED, dataContext1.getAnonymous(SampleData.class));
+        // adapter, consumer, and the adapter again during injection
+        assertEquals(6, listener.getExecutionOrder().size());
+
+        SampleData first = SampleDataAdapter.ADAPTED;
+        SampleDataAdapter.ADAPTED = new SampleData();
+        DataContext dataContext2 = new DataContext();
+        compiledFlow.newRun(dataContext2, new TestTefContext()).execute();
+        assertSame(SampleDataAdapter.ADAPTED, dataContext2.getAnonymous(SampleData.class));
+        assertSame(first, dataContext1.getAnonymous(SampleData.class));
+        assertEquals(12, listener.getExecutionOrder().size());
+    }
+
+    @Test
+    public void testExecutorsShareThePlanOfAFlow() throws Exception {
+        FlowExecutor first = new FlowExecutor(flow, new DataContext(), new TestTefContext(), ExecutionMode.LAZY);
+        first.execute();
+        MyFlowExecutionListener listener = new MyFlowExecutionListener();
+        FlowExecutor second = new FlowExecutor(flow, new DataContext(), new TestTefContext(), ExecutionMode.LAZY);
+        second.addListener(listener);
+        second.execute();
+
+        CompiledFlow plan = first.getRun().getCompiledFlow();
+        assertSame(plan, second.getRun().getCompiledFlow());
+        assertEquals(ExecutionMode.LAZY, plan.getExecutionMode());
+        assertEquals(6, listener.getExecutionOrder().size());
+        // listeners added to an executor are not added to the shared plan
+        assertEquals(0, plan.getListeners().size());
+
+        FlowExecutor eager = new FlowExecutor(flow, new DataContext(), new TestTefContext());
+        eager.execute();
+        assertEquals(ExecutionMode.EAGER, eager.getRun().getCompiledFlow().getExecutionMode());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testExecutorsWithCompiledFlow() throws Exception {
+        FlowBuilder flowBuilder = new FlowBuilder();
+        flowBuilder.add(SampleDataAdapter.class);
+        flowBuilder.add(UnusedDataAdapter.class);
+        flowBuilder.add(LazyConsumerBizlogic.class);
+        MyFlowExecutionListener compiledListener = new MyFlowExecutionListener();
+        CompiledFlow compiledFlow = CompiledFlow.builder(flowBuilder.build())
+                .executionMode(ExecutionMode.LAZY)
+                .addListener(compiledListener)
+                .build();
+
+        MyFlowExecutionListener executorListener = new MyFlowExecutionListener();
+        DataContext dataContext = new DataContext();
+        FlowExecutor executor = new FlowExecutor(compiledFlow, dataContext, new TestTefContext());
+        executor.addListener(executorListener);
+        executor.execute();
+
+        assertNull(dataContext.getAnonymous(UnusedData.class));
+        assertEquals(6, compiledListener.getExecutionOrder().size());
+        assertEquals(6, executorListener.getExecutionOrder().size());
+        // listeners added to an executor are not added to the shared compiled flow
+        assertEquals(1, compiledFlow.getListeners().size());
+
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            dataContext = new DataContext();
+            new ParallelFlowExecutor(compiledFlow, dataContext, new TestTefContext(), executorService).execute();
+            assertNotNull(dataContext.getAnonymous(SampleData.class));
+            assertNull(dataContext.getAnonymous(UnusedData.class));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+}
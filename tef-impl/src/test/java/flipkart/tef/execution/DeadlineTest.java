@@ -0,0 +1,291 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.execution;
+
+import com.google.inject.Guice;
+import flipkart.tef.TestGuiceModule;
+import flipkart.tef.annotations.EmitData;
+import flipkart.tef.annotations.InjectData;
+import flipkart.tef.annotations.NonCritical;
+import flipkart.tef.annotations.Timeout;
+import flipkart.tef.bizlogics.AsyncDataAdapterBizlogic;
+import flipkart.tef.bizlogics.CompletableDataAdapterBizlogic;
+import flipkart.tef.bizlogics.DataAdapterKey;
+import flipkart.tef.bizlogics.Deadline;
+import flipkart.tef.bizlogics.IBizlogic;
+import flipkart.tef.bizlogics.TefContext;
+import flipkart.tef.exception.ErrorCode;
+import flipkart.tef.exception.TefExecutionException;
+import flipkart.tef.flow.SimpleFlow;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DeadlineTest {
+
+    // static so that the bizlogics can access
+    private static List<Class<?>> executed;
+    private static CountDownLatch release;
+    private static CompletableFuture<String> pending;
+    private static ExecutorService asyncExecutor;
+
+    private ExecutorService executorService;
+    private List<Throwable> logged;
+
+    @Before
+    public void setUp() {
+        executed = Collections.synchronizedList(new ArrayList<>());
+        release = new CountDownLatch(1);
+        pending = new CompletableFuture<>();
+        asyncExecutor = Executors.newSingleThreadExecutor();
+        executorService = Executors.newFixedThreadPool(4);
+        logged = Collections.synchronizedList(new ArrayList<>());
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        asyncExecutor.shutdownNow();
+        executorService.shutdownNow();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testNonCriticalBizlogicsAreSkippedAfterDeadline() throws Exception {
+        FlowBuilder flowBuilder = new FlowBuilder();
+        flowBuilder.add(NonCriticalBizlogic.class);
+        SimpleFlow flow = flowBuilder.build();
+
+        new FlowExecutor(flow, new DataContext(), newTefContext(Deadline.after(0, TimeUnit.MILLISECONDS))).execute();
+
+        assertTrue(executed.isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCriticalBizlogicFailsAfterDeadline() throws Exception {
+        FlowBuilder flowBuilder = new FlowBuilder();
+        flowBuilder.add(NonCriticalBizlogic.class);
+        flowBuilder.add(CriticalBizlogic.class);
+        SimpleFlow flow = flowBuilder.build();
+
+        try {
+            new FlowExecutor(flow, new DataContext(), newTefContext(Deadline.after(0, TimeUnit.MILLISECONDS))).execute();
+            fail("Exception was expected");
+        } catch (TefExecutionException e) {
+            assertEquals(ErrorCode.DEADLINE_EXCEEDED, e.getErrorCode());
+            assertEquals(Collections.singletonList(e), logged);
+        }
+        assertTrue(executed.isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testBizlogicExceedingItsTimeoutFailsTheFlow() throws Exception {
+        FlowBuilder flowBuilder = new FlowBuilder();
+        flowBuilder.add(SlowBizlogic.class);
+        flowBuilder.add(CriticalBizlogic.class);
+        SimpleFlow flow = flowBuilder.build();
+        release.countDown();
+
+        try {
+            new FlowExecutor(flow, new DataContext(), newTefContext(null)).execute();
+            fail("Exception was expected");
+        } catch (TefExecutionException e) {
+            assertEquals(ErrorCode.DEADLINE_EXCEEDED, e.getErrorCode());
+        }
+        assertTrue(executed.contains(SlowBizlogic.class));
+    }
+
+    @Test(timeout = 10000)
+    public void testCompletableAdapterIsCancelledOnTimeout() throws Exception {
+        FluentCapabilityBuilder flowBuilder = new FluentCapabilityBuilder();
+        flowBuilder.withAdapter(PendingAdapter.class);
+        flowBuilder.withBizlogic(ConsumerBizlogic.class);
+        SimpleFlow flow = flowBuilder.dataflow();
+
+        try {
+            new ParallelFlowExecutor(flow, new DataContext(), newTefContext(null), executorService).execute();
+            fail("Exception was expected");
+        } catch (TefExecutionException e) {
+            assertEquals(ErrorCode.DEADLINE_EXCEEDED, e.getErrorCode());
+        }
+        assertTrue(executed.isEmpty());
+    }
+
+    @Test(timeout = 10000)
+    public void testNonCriticalCompletableAdapterIsSkippedOnTimeout() throws Exception {
+        FluentCapabilityBuilder flowBuilder = new FluentCapabilityBuilder();
+        flowBuilder.withAdapter(NonCriticalPendingAdapter.class);
+        flowBuilder.withBizlogic(NullableConsumerBizlogic.class);
+        SimpleFlow flow = flowBuilder.dataflow();
+
+        DataContext dataContext = new DataContext();
+        new ParallelFlowExecutor(flow, dataContext, newTefContext(null), executorService).execute();
+
+        assertEquals(Collections.singletonList(NullableConsumerBizlogic.class), executed);
+        assertNull(dataContext.get(new DataAdapterKey<>("nonCriticalPending", String.class)));
+    }
+
+    @Test(timeout = 10000)
+    @SuppressWarnings("unchecked")
+    public void testParallelExecutorReturnsOnDeadline() throws Exception {
+        FlowBuilder flowBuilder = new FlowBuilder();
+        flowBuilder.add(SampleAsyncAdapter.class);
+        flowBuilder.add(BlockedBizlogic.class);
+        SimpleFlow flow = flowBuilder.build();
+
+        DataContext dataContext = new DataContext();
+        try {
+            new ParallelFlowExecutor(flow, dataContext, newTefContext(Deadline.after(200, TimeUnit.MILLISECONDS)),
+                    executorService).execute();
+            fail("Exception was expected");
+        } catch (TefExecutionException e) {
+            assertEquals(ErrorCode.DEADLINE_EXCEEDED, e.getErrorCode());
+        }
+
+        // The future emitted by the async adapter is cancelled
+        Future<?> future = (Future<?>) dataContext.get(new DataAdapterKey<>("", Future.class));
+        assertTrue(future.isCancelled());
+    }
+
+    private TefContext newTefContext(Deadline deadline) {
+        return new TefContext(new HashMap<>(), Guice.createInjector(new TestGuiceModule()), logged::add, deadline);
+    }
+
+    private static void awaitRelease() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @NonCritical
+    public static class NonCriticalBizlogic implements IBizlogic {
+
+        @Override
+        public void execute(TefContext tefContext) {
+            executed.add(getClass());
+        }
+    }
+
+    public static class CriticalBizlogic implements IBizlogic {
+
+        @Override
+        public void execute(TefContext tefContext) {
+            executed.add(getClass());
+        }
+    }
+
+    @Timeout(10)
+    public static class SlowBizlogic implements IBizlogic {
+
+        @Override
+        public void execute(TefContext tefContext) throws TefExecutionException {
+            try {
+                TimeUnit.MILLISECONDS.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            executed.add(getClass());
+        }
+    }
+
+    public static class BlockedBizlogic implements IBizlogic {
+
+        @Override
+        public void execute(TefContext tefContext) {
+            awaitRelease();
+        }
+    }
+
+    @Timeout(50)
+    @EmitData(name = "pending")
+    public static class PendingAdapter extends CompletableDataAdapterBizlogic<String> {
+
+        @Override
+        public CompletionStage<String> adaptAsync(TefContext tefContext) {
+            return pending;
+        }
+    }
+
+    @NonCritical
+    @Timeout(50)
+    @EmitData(name = "nonCriticalPending")
+    public static class NonCriticalPendingAdapter extends CompletableDataAdapterBizlogic<String> {
+
+        @Override
+        public CompletionStage<String> adaptAsync(TefContext tefContext) {
+            return pending;
+        }
+    }
+
+    public static class ConsumerBizlogic implements IBizlogic {
+
+        @InjectData(name = "pending")
+        String data;
+
+        @Override
+        public void execute(TefContext tefContext) {
+            executed.add(getClass());
+        }
+    }
+
+    public static class NullableConsumerBizlogic implements IBizlogic {
+
+        @InjectData(name = "nonCriticalPending", nullable = true)
+        String data;
+
+        @Override
+        public void execute(TefContext tefContext) {
+            assertNull(data);
+            executed.add(getClass());
+        }
+    }
+
+    public static class SampleAsyncAdapter extends AsyncDataAdapterBizlogic<Future<Optional<String>>, String> {
+
+        public SampleAsyncAdapter() {
+            super(asyncExecutor);
+        }
+
+        @Override
+        public String getResult(TefContext tefContext) {
+            awaitRelease();
+            return "sample";
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.execution;
+
+import flipkart.tef.annotations.InjectData;
+import flipkart.tef.bizlogics.IBizlogic;
+import flipkart.tef.bizlogics.TefContext;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * The injectors for the bizlogics in this class are generated by tef-processor during test compilation.
+ */
+public class DefaultDataInjectorTest {
+
+    private final InjectableValueProvider valueProvider = (fieldType, name) -> {
+        if (fieldType == String.class) {
+            return name.isEmpty() ? "value" : name;
+        } else if (fieldType == Integer.class) {
+            return 1;
+        }
+        return null;
+    };
+
+    @Test
+    public void testGeneratedInjectorIsLookedUp() {
+        assertEquals("flipkart.tef.execution.DefaultDataInjectorTest_GeneratedBizlogic_TefDataInjector",
+                GeneratedDataInjectors.getInjectorName(GeneratedBizlogic.class));
+        assertTrue(GeneratedDataInjectors.get(GeneratedBizlogic.class).isPresent());
+        assertTrue(GeneratedDataInjectors.get(ChildBizlogic.class).isPresent());
+        // private fields cannot be written by a generated injector
+        assertFalse(GeneratedDataInjectors.get(ReflectiveBizlogic.class).isPresent());
+        assertFalse(GeneratedDataInjectors.get(Object.class).isPresent());
+    }
+
+    @Test
+    public void testInjection() throws Exception {
+        ChildBizlogic bizlogic = new ChildBizlogic();
+        new DefaultDataInjector().injectData(bizlogic, ChildBizlogic.class, valueProvider);
+
+        assertEquals("value", bizlogic.data);
+        assertEquals("named", bizlogic.namedData);
+        assertNull(bizlogic.nullableData);
+        assertEquals(Integer.valueOf(1), bizlogic.childData);
+        assertEquals("value", bizlogic.getReflectiveData());
+    }
+
+    @Test
+    public void testNullInjection() throws Exception {
+        try {
+            new DefaultDataInjector().injectData(new NonNullableBizlogic(), NonNullableBizlogic.class, valueProvider);
+            fail("Exception was expected");
+        } catch (DataDependencyException e) {
+            assertEquals("Injectable Data data cannot be null in " + NonNullableBizlogic.class.getName(), e.getMessage());
+        }
+    }
+
+    public static class ReflectiveBizlogic implements IBizlogic {
+
+        @InjectData
+        private String reflectiveData;
+
+        String getReflectiveData() {
+            return reflectiveData;
+        }
+
+        @Override
+        public void execute(TefContext tefContext) {
+
+        }
+    }
+
+    public static class GeneratedBizlogic extends ReflectiveBizlogic {
+
+        @InjectData
+        String data;
+
+        @InjectData(name = "named")
+        String namedData;
+
+        @InjectData(nullable = true)
+        Long nullableData;
+    }
+
+    public static class ChildBizlogic extends GeneratedBizlogic {
+
+        @InjectData
+        Integer childData;
+    }
+
+    public static class NonNullableBizlogic implements IBizlogic {
+
+        @InjectData
+        Long data;
+
+        @Override
+        public void execute(TefContext tefContext) {
+
+        }
+    }
+}
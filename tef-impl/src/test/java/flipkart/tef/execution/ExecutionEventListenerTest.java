@@ -0,0 +1,234 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.execution;
+
+import com.google.inject.Guice;
+import flipkart.tef.ExecutionEvent;
+import flipkart.tef.ExecutionEventListener;
+import flipkart.tef.TestGuiceModule;
+import flipkart.tef.annotations.CacheResult;
+import flipkart.tef.annotations.EmitData;
+import flipkart.tef.annotations.InjectData;
+import flipkart.tef.bizlogics.AdapterResultCaches;
+import flipkart.tef.bizlogics.CompletableDataAdapterBizlogic;
+import flipkart.tef.bizlogics.DataAdapterBizlogic;
+import flipkart.tef.bizlogics.DataAdapterKey;
+import flipkart.tef.bizlogics.IBizlogic;
+import flipkart.tef.bizlogics.TefContext;
+import flipkart.tef.exception.ErrorCode;
+import flipkart.tef.exception.TefExecutionException;
+import flipkart.tef.flow.SimpleFlow;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ExecutionEventListenerTest {
+
+    private RecordingListener listener;
+
+    @Before
+    public void setUp() {
+        listener = new RecordingListener();
+    }
+
+    @Test
+    public void testEventsOfAnAdapterAndItsConsumer() throws Exception {
+        FluentCapabilityBuilder flowBuilder = new FluentCapabilityBuilder();
+        flowBuilder.withAdapter(GreetingAdapter.class);
+        flowBuilder.withBizlogic(ConsumerBizlogic.class);
+
+        execute(flowBuilder.dataflow());
+
+        assertEquals(Arrays.asList(
+                "GreetingAdapter:START",
+                "GreetingAdapter:DATA_EMITTED",
+                "GreetingAdapter:SUCCESS",
+                "ConsumerBizlogic:START",
+                // The result of the adapter is served again while it is injected in the consumer
+                "GreetingAdapter:START",
+                "GreetingAdapter:CACHE_HIT",
+                "GreetingAdapter:DATA_EMITTED",
+                "GreetingAdapter:SUCCESS",
+                "ConsumerBizlogic:SUCCESS"), listener.events);
+
+        assertEquals(DataAdapterKey.of("greeting", String.class), listener.emittedKey);
+        assertEquals("hello", listener.emittedData);
+        assertSame(Thread.currentThread(), listener.thread);
+        assertTrue(listener.minElapsedNanos >= 0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testEventsOfAFailedBizlogic() throws Exception {
+        FlowBuilder flowBuilder = new FlowBuilder();
+        flowBuilder.add(FailingBizlogic.class);
+
+        try {
+            execute(flowBuilder.build());
+            fail("Exception was expected");
+        } catch (TefExecutionException e) {
+            assertEquals(Arrays.asList("FailingBizlogic:START", "FailingBizlogic:FAILURE"), listener.events);
+            assertSame(e, listener.failure);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testEventIsClearedAfterTheCallback() throws Exception {
+        FlowBuilder flowBuilder = new FlowBuilder();
+        flowBuilder.add(ConsumerBizlogic.class);
+
+        execute(flowBuilder.build());
+
+        assertEquals(Arrays.asList("ConsumerBizlogic:START", "ConsumerBizlogic:SUCCESS"), listener.events);
+        assertNull(listener.lastEvent.getBizlogic());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCacheHitOfACompletableAdapter() throws Exception {
+        AdapterResultCaches.getDefault(CachedGreetingAdapter.class).invalidateAll();
+        FlowBuilder flowBuilder = new FlowBuilder();
+        flowBuilder.add(CachedGreetingAdapter.class);
+        SimpleFlow flow = flowBuilder.build();
+
+        executeInParallel(flow);
+        assertEquals(Arrays.asList(
+                "CachedGreetingAdapter:START",
+                "CachedGreetingAdapter:DATA_EMITTED",
+                "CachedGreetingAdapter:SUCCESS"), listener.events);
+
+        listener.events.clear();
+        executeInParallel(flow);
+        assertEquals(Arrays.asList(
+                "CachedGreetingAdapter:START",
+                "CachedGreetingAdapter:CACHE_HIT",
+                "CachedGreetingAdapter:DATA_EMITTED",
+                "CachedGreetingAdapter:SUCCESS"), listener.events);
+        assertEquals("hello", listener.emittedData);
+    }
+
+    private void executeInParallel(SimpleFlow flow) throws Exception {
+        ParallelFlowExecutor executor = new ParallelFlowExecutor(flow, new DataContext(),
+                new TefContext(new HashMap<>(), Guice.createInjector(new TestGuiceModule()), e -> {
+                }), Runnable::run);
+        executor.addListener(listener);
+        executor.execute();
+    }
+
+    private void execute(SimpleFlow flow) throws Exception {
+        FlowExecutor executor = new FlowExecutor(flow, new DataContext(),
+                new TefContext(new HashMap<>(), Guice.createInjector(new TestGuiceModule()), e -> {
+                }));
+        executor.addListener(listener);
+        executor.execute();
+    }
+
+    static class RecordingListener implements ExecutionEventListener {
+        final List<String> events = new ArrayList<>();
+        DataAdapterKey<?> emittedKey;
+        Object emittedData;
+        Thread thread;
+        Throwable failure;
+        long minElapsedNanos = Long.MAX_VALUE;
+        ExecutionEvent lastEvent;
+
+        private void record(ExecutionEvent event) {
+            events.add(event.getBizlogic().getClass().getSimpleName() + ":" + event.getType());
+            thread = event.getThread();
+            lastEvent = event;
+        }
+
+        @Override
+        public void onStart(ExecutionEvent event) {
+            record(event);
+        }
+
+        @Override
+        public void onSuccess(ExecutionEvent event) {
+            record(event);
+            minElapsedNanos = Math.min(minElapsedNanos, event.getElapsedNanos());
+        }
+
+        @Override
+        public void onFailure(ExecutionEvent event) {
+            record(event);
+            failure = event.getFailure();
+        }
+
+        @Override
+        public void onCacheHit(ExecutionEvent event) {
+            record(event);
+        }
+
+        @Override
+        public void onDataEmitted(ExecutionEvent event) {
+            record(event);
+            emittedKey = event.getKey();
+            emittedData = event.getData();
+        }
+    }
+
+    @EmitData(name = "greeting")
+    public static class GreetingAdapter extends DataAdapterBizlogic<String> {
+
+        @Override
+        public String adapt(TefContext tefContext) {
+            return "hello";
+        }
+    }
+
+    @CacheResult(maximumSize = 10)
+    @EmitData(name = "cachedGreeting")
+    public static class CachedGreetingAdapter extends CompletableDataAdapterBizlogic<String> {
+
+        @Override
+        public CompletionStage<String> adaptAsync(TefContext tefContext) {
+            return CompletableFuture.completedFuture("hello");
+        }
+    }
+
+    public static class ConsumerBizlogic implements IBizlogic {
+
+        @InjectData(name = "greeting", optional = true, nullable = true)
+        String greeting;
+
+        @Override
+        public void execute(TefContext tefContext) {
+        }
+    }
+
+    public static class FailingBizlogic implements IBizlogic {
+
+        @Override
+        public void execute(TefContext tefContext) throws TefExecutionException {
+            throw new TefExecutionException("failed", ErrorCode.NON_RETRYABLE);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.execution;
+
+import flipkart.tef.exception.ErrorCode;
+import flipkart.tef.exception.TefExecutionException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class FlightRecorderTest {
+
+    @Test
+    public void testOutcome() {
+        assertEquals("SUCCESS", FlightRecorder.getOutcome(null));
+        assertEquals("DEADLINE_EXCEEDED", FlightRecorder.getOutcome(new TefExecutionException("", ErrorCode.DEADLINE_EXCEEDED)));
+        assertEquals("IllegalStateException", FlightRecorder.getOutcome(new IllegalStateException()));
+    }
+
+    @Test
+    public void testEventsAreNotBegunWhenDisabled() throws Exception {
+        // The recorder is backed by JFR only when loaded from the multi-release jar on JDK 11+
+        FlightRecorder recorder = FlightRecorder.get();
+        assertNotNull(recorder);
+
+        // No recording is running
+        assertNull(recorder.beginFlow());
+        assertNull(recorder.beginBizlogic());
+        assertNull(recorder.beginInjection());
+        assertNull(recorder.beginResolution());
+        recorder.endFlow(null, null, null);
+    }
+}
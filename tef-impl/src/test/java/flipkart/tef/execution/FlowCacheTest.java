@@ -0,0 +1,127 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.execution;
+
+import flipkart.tef.bizlogics.IBizlogic;
+import flipkart.tef.bizlogics.TefContext;
+import flipkart.tef.flow.SimpleFlow;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class FlowCacheTest {
+
+    private FlowCache flowCache;
+
+    @Before
+    public void setUp() {
+        flowCache = new FlowCache(2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFlowIsBuiltOncePerInputs() {
+        SimpleFlow flow = new FluentCapabilityBuilder(flowCache)
+                .withBizlogic(Bizlogic1.class)
+                .withBizlogic(Bizlogic2.class)
+                .withDependency(Bizlogic3.class, new Class[]{Bizlogic1.class})
+                .dataflow();
+
+        // Same inputs, in a different order
+        SimpleFlow cachedFlow = new FluentCapabilityBuilder(flowCache)
+                .withDependency(Bizlogic3.class, new Class[]{Bizlogic1.class})
+                .withBizlogic(Bizlogic2.class)
+                .withBizlogic(Bizlogic1.class)
+                .dataflow();
+
+        assertSame(flow, cachedFlow);
+        assertEquals(1, flowCache.size());
+        assertEquals(1, flowCache.stats().hitCount());
+    }
+
+    @Test
+    public void testDifferentInputs() {
+        SimpleFlow flow = new FluentCapabilityBuilder(flowCache)
+                .withBizlogic(Bizlogic1.class)
+                .withBizlogic(Bizlogic2.class)
+                .dataflow();
+
+        SimpleFlow flowWithExclusion = new FluentCapabilityBuilder(flowCache)
+                .withBizlogic(Bizlogic1.class)
+                .withBizlogic(Bizlogic2.class)
+                .withExclusion(Bizlogic2.class)
+                .dataflow();
+
+        assertNotSame(flow, flowWithExclusion);
+        assertEquals(2, flow.getBizlogics().size());
+        assertEquals(1, flowWithExclusion.getBizlogics().size());
+        assertEquals(2, flowCache.size());
+
+        new FluentCapabilityBuilder(flowCache).withBizlogic(Bizlogic3.class).dataflow();
+        // bounded
+        assertEquals(2, flowCache.size());
+    }
+
+    @Test
+    public void testFlowIsBuiltWithoutCache() {
+        SimpleFlow flow = new FluentCapabilityBuilder().withBizlogic(Bizlogic1.class).dataflow();
+        assertNotSame(flow, new FluentCapabilityBuilder().withBizlogic(Bizlogic1.class).dataflow());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFailureIsNotCached() {
+        try {
+            new FluentCapabilityBuilder(flowCache)
+                    .withDependency(Bizlogic1.class, new Class[]{Bizlogic2.class})
+                    .withDependency(Bizlogic2.class, new Class[]{Bizlogic1.class})
+                    .dataflow();
+            fail("Exception was expected");
+        } catch (IllegalArgumentException e) {
+            // cyclic flow
+        }
+        assertEquals(0, flowCache.size());
+    }
+
+    public static class Bizlogic1 implements IBizlogic {
+
+        @Override
+        public void execute(TefContext tefContext) {
+
+        }
+    }
+
+    public static class Bizlogic2 implements IBizlogic {
+
+        @Override
+        public void execute(TefContext tefContext) {
+
+        }
+    }
+
+    public static class Bizlogic3 implements IBizlogic {
+
+        @Override
+        public void execute(TefContext tefContext) {
+
+        }
+    }
+}
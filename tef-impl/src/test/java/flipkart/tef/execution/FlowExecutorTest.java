@@ -20,6 +20,7 @@ import flipkart.tef.TestTefContext;
 import flipkart.tef.annotations.InjectData;
 import flipkart.tef.bizlogics.BasicEnrichmentBizlogic;
 import flipkart.tef.bizlogics.DataAdapterBizlogic;
+import flipkart.tef.bizlogics.DataAdapterKey;
 import flipkart.tef.bizlogics.DataAdapterResult;
 import flipkart.tef.bizlogics.IBizlogic;
 import flipkart.tef.bizlogics.TefContext;
@@ -33,8 +34,15 @@ import org.junit.Test;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 @SuppressWarnings("unchecked")
@@ -50,6 +58,8 @@ public class FlowExecutorTest {
     @Before
     public void setUp() {
         flowBuilder = new FlowBuilder();
+        // Some tests emit null from the adapter
+        SampleDataAdapter.ADAPTED = new SampleData();
     }
 
     @Test
@@ -297,6 +307,73 @@ public class FlowExecutorTest {
         executor.execute();
     }
 
+    @Test
+    public void testLazyExecutionSkipsUnusedDataAdapter() throws Exception {
+        flowBuilder.add(SampleDataAdapter.class);
+        flowBuilder.add(UnusedDataAdapter.class);
+        flowBuilder.add(LazyConsumerBizlogic.class);
+        SimpleFlow flow = flowBuilder.build();
+
+        UnusedDataAdapter.counter = 0;
+        DataContext dataContext = new DataContext();
+        new FlowExecutor(flow, dataContext, new TestTefContext(), ExecutionMode.LAZY).execute();
+        assertEquals(0, UnusedDataAdapter.counter);
+        assertEquals(SampleDataAdapter.ADAPTED, dataContext.getAnonymous(SampleData.class));
+
+        new FlowExecutor(flow, new DataContext(), new TestTefContext()).execute();
+        assertEquals(1, UnusedDataAdapter.counter);
+    }
+
+    @Test
+    public void testLazyExecutionSkipsAdaptersOnlyConsumedBySkippedAdapters() throws Exception {
+        flowBuilder.add(SampleDataAdapter.class);
+        flowBuilder.add(UnusedDataAdapter.class);
+        SimpleFlow flow = flowBuilder.build();
+
+        UnusedDataAdapter.counter = 0;
+        FlowExecutor executor = new FlowExecutor(flow, new DataContext(), new TestTefContext(), ExecutionMode.LAZY);
+        MyFlowExecutionListener listener = new MyFlowExecutionListener();
+        executor.addListener(listener);
+        executor.execute();
+
+        assertEquals(0, UnusedDataAdapter.counter);
+        assertTrue(listener.getExecutionOrder().isEmpty());
+    }
+
+    @Test
+    public void testSkippedAdapterIsExecutedOnceOnConcurrentInjections() throws Exception {
+        flowBuilder.add(SampleDataAdapter.class);
+        flowBuilder.add(UnusedDataAdapter.class);
+        flowBuilder.add(LazyConsumerBizlogic.class);
+        SimpleFlow flow = flowBuilder.build();
+
+        UnusedDataAdapter.counter = 0;
+        FlowExecutor executor = new FlowExecutor(flow, new DataContext(), new TestTefContext(), ExecutionMode.LAZY);
+        executor.execute();
+        assertEquals(0, UnusedDataAdapter.counter);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            DataAdapterKey<UnusedData> key = DataAdapterKey.of("", UnusedData.class);
+            Future<Object> first = executorService.submit(() -> {
+                start.await();
+                return executor.getValueToInject(key);
+            });
+            Future<Object> second = executorService.submit(() -> {
+                start.await();
+                return executor.getValueToInject(key);
+            });
+            start.countDown();
+
+            assertNotNull(first.get(5, TimeUnit.SECONDS));
+            assertSame(first.get(), second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, UnusedDataAdapter.counter);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
     public static class NullableDataAdapter extends DataAdapterBizlogic<SampleData> {
 
         boolean executed;
@@ -331,6 +408,33 @@ public class FlowExecutorTest {
         }
     }
 
+    public static class UnusedData {
+    }
+
+    public static class UnusedDataAdapter extends DataAdapterBizlogic<UnusedData> {
+
+        private static int counter = 0;
+        @InjectData
+        private SampleData sampleData;
+
+        @Override
+        public UnusedData adapt(TefContext tefContext) {
+            counter++;
+            return new UnusedData();
+        }
+    }
+
+    public static class LazyConsumerBizlogic implements IBizlogic {
+
+        @InjectData
+        private SampleData sampleData;
+
+        @Override
+        public void execute(TefContext tefContext) {
+            assertEquals(SampleDataAdapter.ADAPTED, sampleData);
+        }
+    }
+
     public static class SampleData extends MapBaseData {
     }
 
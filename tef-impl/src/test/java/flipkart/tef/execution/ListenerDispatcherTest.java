@@ -0,0 +1,145 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.execution;
+
+import flipkart.tef.ExecutionEvent;
+import flipkart.tef.ExecutionEventListener;
+import flipkart.tef.FlowExecutionListener;
+import flipkart.tef.bizlogics.DataAdapterResult;
+import flipkart.tef.bizlogics.IBizlogic;
+import flipkart.tef.bizlogics.TefContext;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ListenerDispatcherTest {
+
+    private final IBizlogic bizlogic = new SampleBizlogic();
+    private final List<String> notified = new ArrayList<>();
+    private final List<Throwable> logged = new ArrayList<>();
+
+    @Test
+    public void testNoListeners() {
+        ListenerDispatcher dispatcher = ListenerDispatcher.of(Collections.emptyList());
+
+        assertSame(dispatcher, ListenerDispatcher.of(Collections.emptyList()));
+        assertFalse(dispatcher.isTimed());
+        dispatcher.pre(bizlogic, 0, logged::add);
+        dispatcher.post(bizlogic, 0, logged::add);
+        assertTrue(logged.isEmpty());
+    }
+
+    @Test
+    public void testSingleListener() {
+        ListenerDispatcher dispatcher = ListenerDispatcher.of(Collections.singletonList(new RecordingListener("a")));
+
+        assertFalse(dispatcher.isTimed());
+        dispatcher.pre(bizlogic, 0, logged::add);
+        dispatcher.failed(bizlogic, 0, new RuntimeException(), logged::add);
+        assertEquals(Arrays.asList("a:pre", "a:failed"), notified);
+    }
+
+    @Test
+    public void testSingleEventListener() {
+        ListenerDispatcher dispatcher = ListenerDispatcher.of(Collections.singletonList(new RecordingEventListener("e")));
+
+        assertTrue(dispatcher.isTimed());
+        dispatcher.pre(bizlogic, 10, logged::add);
+        dispatcher.emitted(bizlogic, 10, new DataAdapterResult("data"), logged::add);
+        dispatcher.post(bizlogic, 10, logged::add);
+        assertEquals(Arrays.asList("e:START", "e:DATA_EMITTED", "e:SUCCESS"), notified);
+    }
+
+    @Test
+    public void testFailingListenerDoesNotStopOthers() {
+        FlowExecutionListener failing = new RecordingListener("f") {
+            @Override
+            public void pre(IBizlogic bizlogic) {
+                throw new IllegalStateException("failed");
+            }
+        };
+        ListenerDispatcher dispatcher = ListenerDispatcher.of(Arrays.asList(
+                failing, new RecordingListener("a"), new RecordingEventListener("e")));
+
+        assertTrue(dispatcher.isTimed());
+        dispatcher.pre(bizlogic, 0, logged::add);
+        dispatcher.post(bizlogic, 0, logged::add);
+        assertEquals(Arrays.asList("a:pre", "e:START", "f:post", "a:post", "e:SUCCESS"), notified);
+        assertEquals(1, logged.size());
+    }
+
+    private class RecordingListener implements FlowExecutionListener {
+        private final String name;
+
+        RecordingListener(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void pre(IBizlogic bizlogic) {
+            notified.add(name + ":pre");
+        }
+
+        @Override
+        public void post(IBizlogic bizlogic) {
+            notified.add(name + ":post");
+        }
+
+        @Override
+        public void failed(IBizlogic bizlogic, Throwable failure) {
+            notified.add(name + ":failed");
+        }
+    }
+
+    private class RecordingEventListener implements ExecutionEventListener {
+        private final String name;
+
+        RecordingEventListener(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void onStart(ExecutionEvent event) {
+            notified.add(name + ":" + event.getType());
+        }
+
+        @Override
+        public void onSuccess(ExecutionEvent event) {
+            notified.add(name + ":" + event.getType());
+        }
+
+        @Override
+        public void onDataEmitted(ExecutionEvent event) {
+            notified.add(name + ":" + event.getType());
+        }
+    }
+
+    static class SampleBizlogic implements IBizlogic {
+
+        @Override
+        public void execute(TefContext tefContext) {
+        }
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.execution;
+
+import com.google.common.collect.HashBiMap;
+import com.google.inject.Guice;
+import flipkart.tef.FlowExecutionListener;
+import flipkart.tef.TestGuiceModule;
+import flipkart.tef.TestTefContext;
+import flipkart.tef.annotations.DependsOn;
+import flipkart.tef.annotations.InjectData;
+import flipkart.tef.bizlogics.DataAdapterBizlogic;
+import flipkart.tef.bizlogics.IBizlogic;
+import flipkart.tef.bizlogics.TefContext;
+import flipkart.tef.exception.ErrorCode;
+import flipkart.tef.exception.TefExecutionException;
+import flipkart.tef.flow.SimpleFlow;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ParallelFlowExecutorTest {
+
+    // static so that the bizlogics can access
+    private static CyclicBarrier barrier;
+    private static List<Class<?>> executed;
+
+    private ExecutorService executorService;
+
+    @Before
+    public void setUp() {
+        executorService = Executors.newFixedThreadPool(4);
+        barrier = new CyclicBarrier(2);
+        executed = Collections.synchronizedList(new ArrayList<>());
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    /**
+     * Both the validators wait for each other on a barrier, which can only succeed if they are executed concurrently.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testIndependentBizlogicsAreExecutedConcurrently() throws Exception {
+        FlowBuilder flowBuilder = new FlowBuilder();
+        flowBuilder.add(BarrierBizlogic1.class);
+        flowBuilder.add(BarrierBizlogic2.class);
+        flowBuilder.add(FinalBizlogic.class);
+        SimpleFlow flow = flowBuilder.build();
+
+        new ParallelFlowExecutor(flow, new DataContext(), new TestTefContext(), executorService).execute();
+
+        assertEquals(3, executed.size());
+        assertEquals(FinalBizlogic.class, executed.get(2));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testDependenciesAreHonored() throws Exception {
+        FlowBuilder flowBuilder = new FlowBuilder();
+        flowBuilder.add(ConsumerBizlogic.class);
+        flowBuilder.add(SampleDataAdapter.class);
+        flowBuilder.add(IndependentBizlogic.class);
+        SimpleFlow flow = flowBuilder.build();
+
+        SynchronizedFlowExecutionListener listener = new SynchronizedFlowExecutionListener();
+        DataContext dataContext = new DataContext();
+        ParallelFlowExecutor executor = new ParallelFlowExecutor(flow, dataContext, new TestTefContext(), executorService);
+        executor.addListener(listener);
+        executor.execute();
+
+        assertEquals("sample", dataContext.getAnonymous(String.class));
+        assertEquals(3, executed.size());
+        assertTrue(executed.indexOf(SampleDataAdapter.class) < executed.indexOf(ConsumerBizlogic.class));
+
+        // pre and post for all 3 bizlogics, and for the adapter during injection
+        assertEquals(8, listener.steps.size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFailureIsPropagated() throws Exception {
+        FlowBuilder flowBuilder = new FlowBuilder();
+        flowBuilder.add(FailingBizlogic.class);
+        flowBuilder.add(DependentOnFailingBizlogic.class);
+        SimpleFlow flow = flowBuilder.build();
+
+        List<Throwable> logged = Collections.synchronizedList(new ArrayList<>());
+        TefContext tefContext = new TestTefContext(new HashMap<>(), Guice.createInjector(new TestGuiceModule()), logged::add);
+
+        try {
+            new ParallelFlowExecutor(flow, new DataContext(), tefContext, executorService).execute();
+            fail("Exception was expected");
+        } catch (TefExecutionException e) {
+            assertEquals(ErrorCode.NON_RETRYABLE, e.getErrorCode());
+            assertEquals(1, logged.size());
+            assertEquals(e, logged.get(0));
+        }
+
+        assertTrue(executed.isEmpty());
+    }
+
+    @Test
+    public void testFlowWithUnknownDependenciesIsExecutedInOrder() throws Exception {
+        List<Class<? extends IBizlogic>> bizlogics = new ArrayList<>();
+        bizlogics.add(IndependentBizlogic.class);
+        bizlogics.add(FinalBizlogic.class);
+        SimpleFlow flow = new SimpleFlow(bizlogics, HashBiMap.create());
+
+        new ParallelFlowExecutor(flow, new DataContext(), new TestTefContext(), Runnable::run).execute();
+
+        assertEquals(bizlogics, executed);
+    }
+
+    static void await() throws TefExecutionException {
+        try {
+            barrier.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException | BrokenBarrierException | TimeoutException e) {
+            throw new TefExecutionException("Bizlogics were not executed concurrently", e, ErrorCode.NON_RETRYABLE);
+        }
+    }
+
+    public static class BarrierBizlogic1 implements IBizlogic {
+
+        @Override
+        public void execute(TefContext tefContext) throws TefExecutionException {
+            await();
+            executed.add(getClass());
+        }
+    }
+
+    public static class BarrierBizlogic2 implements IBizlogic {
+
+        @Override
+        public void execute(TefContext tefContext) throws TefExecutionException {
+            await();
+            executed.add(getClass());
+        }
+    }
+
+    @DependsOn({BarrierBizlogic1.class, BarrierBizlogic2.class})
+    public static class FinalBizlogic implements IBizlogic {
+
+        @Override
+        public void execute(TefContext tefContext) {
+            executed.add(getClass());
+        }
+    }
+
+    public static class IndependentBizlogic implements IBizlogic {
+
+        @Override
+        public void execute(TefContext tefContext) {
+            executed.add(getClass());
+        }
+    }
+
+    public static class SampleDataAdapter extends DataAdapterBizlogic<String> {
+
+        @Override
+        public String adapt(TefContext tefContext) {
+            executed.add(getClass());
+            return "sample";
+        }
+    }
+
+    public static class ConsumerBizlogic implements IBizlogic {
+
+        @InjectData
+        private String data;
+
+        @Override
+        public void execute(TefContext tefContext) {
+            assertEquals("sample", data);
+            executed.add(getClass());
+        }
+    }
+
+    public static class FailingBizlogic implements IBizlogic {
+
+        @Override
+        public void execute(TefContext tefContext) throws TefExecutionException {
+            throw new TefExecutionException("failed", ErrorCode.NON_RETRYABLE);
+        }
+    }
+
+    @DependsOn(FailingBizlogic.class)
+    public static class DependentOnFailingBizlogic implements IBizlogic {
+
+        @Override
+        public void execute(TefContext tefContext) {
+            executed.add(getClass());
+        }
+    }
+
+    static class SynchronizedFlowExecutionListener implements FlowExecutionListener {
+        private final List<ExecutionStep> steps = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void pre(IBizlogic bizlogic) {
+            steps.add(new ExecutionStep(bizlogic.getClass(), ExecutionStage.PRE));
+        }
+
+        @Override
+        public void post(IBizlogic bizlogic) {
+            steps.add(new ExecutionStep(bizlogic.getClass(), ExecutionStage.POST));
+        }
+    }
+}
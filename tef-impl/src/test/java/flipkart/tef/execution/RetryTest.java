@@ -0,0 +1,254 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.execution;
+
+import com.google.inject.Guice;
+import flipkart.tef.TestGuiceModule;
+import flipkart.tef.annotations.EmitData;
+import flipkart.tef.annotations.Retry;
+import flipkart.tef.bizlogics.CompletableDataAdapterBizlogic;
+import flipkart.tef.bizlogics.DataAdapterBizlogic;
+import flipkart.tef.bizlogics.DataAdapterKey;
+import flipkart.tef.bizlogics.IBizlogic;
+import flipkart.tef.bizlogics.TefContext;
+import flipkart.tef.exception.ErrorCode;
+import flipkart.tef.exception.TefExecutionException;
+import flipkart.tef.flow.SimpleFlow;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RetryTest {
+
+    // static so that the bizlogics can access
+    private static AtomicInteger attempts;
+    private static int failures;
+    private static ErrorCode errorCode;
+
+    private ExecutorService executorService;
+    private List<Throwable> logged;
+
+    @Before
+    public void setUp() {
+        attempts = new AtomicInteger();
+        failures = 2;
+        errorCode = ErrorCode.RETRYABLE;
+        executorService = Executors.newFixedThreadPool(2);
+        logged = Collections.synchronizedList(new ArrayList<>());
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testRetryableFailureIsRetried() throws Exception {
+        RetryBudget budget = new RetryBudget(10, 1);
+        DataContext dataContext = new DataContext();
+
+        new FlowExecutor(newFlow(FlakyAdapter.class), dataContext, newTefContext(budget)).execute();
+
+        assertEquals(3, attempts.get());
+        assertEquals("flaky", dataContext.get(new DataAdapterKey<>("flaky", String.class)));
+        assertEquals(2, budget.getRetryCount());
+        assertEquals(0, budget.getExhaustedCount());
+        assertTrue(logged.isEmpty());
+    }
+
+    @Test
+    public void testNonRetryableFailureIsNotRetried() throws Exception {
+        errorCode = ErrorCode.NON_RETRYABLE;
+        RetryBudget budget = new RetryBudget(10, 1);
+
+        try {
+            new FlowExecutor(newFlow(FlakyBizlogic.class), new DataContext(), newTefContext(budget)).execute();
+            fail("Exception was expected");
+        } catch (TefExecutionException e) {
+            assertEquals(ErrorCode.NON_RETRYABLE, e.getErrorCode());
+        }
+        assertEquals(1, attempts.get());
+        assertEquals(0, budget.getRetryCount());
+    }
+
+    @Test
+    public void testAttemptsAreBounded() throws Exception {
+        failures = 5;
+
+        try {
+            new FlowExecutor(newFlow(FlakyBizlogic.class), new DataContext(), newTefContext(new RetryBudget(10, 1))).execute();
+            fail("Exception was expected");
+        } catch (TefExecutionException e) {
+            assertEquals(ErrorCode.RETRYABLE, e.getErrorCode());
+            assertEquals(Collections.singletonList(e), logged);
+        }
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    public void testRetriesStopWhenBudgetIsExhausted() throws Exception {
+        RetryBudget budget = new RetryBudget(1, 0.001);
+
+        try {
+            new FlowExecutor(newFlow(FlakyBizlogic.class), new DataContext(), newTefContext(budget)).execute();
+            fail("Exception was expected");
+        } catch (TefExecutionException e) {
+            assertEquals(ErrorCode.RETRYABLE, e.getErrorCode());
+        }
+        assertEquals(2, attempts.get());
+        assertEquals(1, budget.getRetryCount());
+        assertEquals(1, budget.getExhaustedCount());
+    }
+
+    @Test(timeout = 10000)
+    public void testCompletableAdapterIsRetried() throws Exception {
+        RetryBudget budget = new RetryBudget(10, 1);
+        DataContext dataContext = new DataContext();
+
+        new ParallelFlowExecutor(newFlow(FlakyCompletableAdapter.class), dataContext, newTefContext(budget), executorService).execute();
+
+        assertEquals(3, attempts.get());
+        assertEquals("flakyCompletable", dataContext.get(new DataAdapterKey<>("flakyCompletable", String.class)));
+        assertEquals(2, budget.getRetryCount());
+    }
+
+    @Test
+    public void testBackoff() {
+        RetryPolicy policy = RetryPolicy.of(ThrottledBizlogic.class.getAnnotation(Retry.class));
+
+        for (int i = 0; i < 100; i++) {
+            long first = policy.getBackoffNanos(1, ErrorCode.RETRYABLE);
+            assertTrue(first >= TimeUnit.MILLISECONDS.toNanos(50) && first <= TimeUnit.MILLISECONDS.toNanos(100));
+            long capped = policy.getBackoffNanos(10, ErrorCode.RETRYABLE);
+            assertTrue(capped >= TimeUnit.MILLISECONDS.toNanos(200) && capped <= TimeUnit.MILLISECONDS.toNanos(400));
+            long throttled = policy.getBackoffNanos(1, ErrorCode.TOO_MANY_REQUEST);
+            assertTrue(throttled >= TimeUnit.MILLISECONDS.toNanos(500) && throttled <= TimeUnit.MILLISECONDS.toNanos(1000));
+        }
+        assertTrue(policy.isRetryable(new TefExecutionException("throttled", ErrorCode.TOO_MANY_REQUEST)));
+        assertFalse(policy.isRetryable(new TefExecutionException("failed", ErrorCode.NON_RETRYABLE)));
+    }
+
+    @Test
+    public void testBudgetRefills() throws Exception {
+        RetryBudget budget = new RetryBudget(2, 100);
+
+        assertTrue(budget.tryAcquire());
+        assertTrue(budget.tryAcquire());
+        assertFalse(budget.tryAcquire());
+        TimeUnit.MILLISECONDS.sleep(50);
+        assertTrue(budget.tryAcquire());
+        assertEquals(3, budget.getRetryCount());
+        assertEquals(1, budget.getExhaustedCount());
+    }
+
+    @Test
+    public void testBudgetWhichCannotBeRefilledIsRejected() {
+        // Refilling takes longer than the range of System.nanoTime
+        for (double tokensPerSecond : new double[]{1e-12, 1e-20}) {
+            try {
+                new RetryBudget(Integer.MAX_VALUE, tokensPerSecond);
+                fail("Exception was expected");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+        try {
+            new RetryBudget(1, 0);
+            fail("Exception was expected");
+        } catch (IllegalArgumentException e) {
+            assertEquals(RetryBudget.Messages.INVALID_RATE, e.getMessage());
+        }
+        new RetryBudget(Integer.MAX_VALUE, 1);
+    }
+
+    private static SimpleFlow newFlow(Class<? extends IBizlogic> bizlogic) {
+        FluentCapabilityBuilder flowBuilder = new FluentCapabilityBuilder();
+        flowBuilder.withBizlogic(bizlogic);
+        return flowBuilder.dataflow();
+    }
+
+    private TefContext newTefContext(RetryBudget budget) {
+        return new TefContext(new HashMap<>(), Guice.createInjector(new TestGuiceModule(),
+                binder -> binder.bind(RetryBudget.class).toInstance(budget)), logged::add);
+    }
+
+    private static void failIfRequired() throws TefExecutionException {
+        if (attempts.incrementAndGet() <= failures) {
+            throw new TefExecutionException("Attempt " + attempts.get() + " failed", errorCode);
+        }
+    }
+
+    @Retry(backoff = 1)
+    public static class FlakyBizlogic implements IBizlogic {
+
+        @Override
+        public void execute(TefContext tefContext) throws TefExecutionException {
+            failIfRequired();
+        }
+    }
+
+    @Retry(backoff = 1)
+    @EmitData(name = "flaky")
+    public static class FlakyAdapter extends DataAdapterBizlogic<String> {
+
+        @Override
+        public String adapt(TefContext tefContext) throws TefExecutionException {
+            failIfRequired();
+            return "flaky";
+        }
+    }
+
+    @Retry(backoff = 1)
+    @EmitData(name = "flakyCompletable")
+    public static class FlakyCompletableAdapter extends CompletableDataAdapterBizlogic<String> {
+
+        @Override
+        public CompletionStage<String> adaptAsync(TefContext tefContext) {
+            CompletableFuture<String> future = new CompletableFuture<>();
+            if (attempts.incrementAndGet() <= failures) {
+                future.completeExceptionally(new TefExecutionException("Attempt failed", errorCode));
+            } else {
+                future.complete("flakyCompletable");
+            }
+            return future;
+        }
+    }
+
+    @Retry(backoff = 100, maxBackoff = 400, throttledBackoff = 1000)
+    public static class ThrottledBizlogic implements IBizlogic {
+
+        @Override
+        public void execute(TefContext tefContext) {
+        }
+    }
+}
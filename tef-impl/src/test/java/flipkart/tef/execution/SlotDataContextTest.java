@@ -0,0 +1,88 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.execution;
+
+import flipkart.tef.TestTefContext;
+import flipkart.tef.bizlogics.DataAdapterKey;
+import flipkart.tef.bizlogics.DataAdapterResult;
+import flipkart.tef.execution.FlowExecutorTest.LazyConsumerBizlogic;
+import flipkart.tef.execution.FlowExecutorTest.SampleData;
+import flipkart.tef.execution.FlowExecutorTest.SampleDataAdapter;
+import flipkart.tef.flow.SimpleFlow;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class SlotDataContextTest {
+
+    private SimpleFlow flow;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        FlowBuilder flowBuilder = new FlowBuilder();
+        flowBuilder.add(SampleDataAdapter.class);
+        flowBuilder.add(LazyConsumerBizlogic.class);
+        flow = flowBuilder.build();
+    }
+
+    @Test
+    public void testFlowExecution() throws Exception {
+        SampleDataAdapter.ADAPTED = new SampleData();
+        SlotDataContext dataContext = new SlotDataContext(flow);
+        new FlowExecutor(flow, dataContext, new TestTefContext()).execute();
+
+        assertEquals(1, flow.getDataSlots().size());
+        int slot = flow.getDataSlots().getSlot(new DataAdapterKey<>("", SampleData.class));
+        assertEquals(0, slot);
+        assertSame(SampleDataAdapter.ADAPTED, dataContext.get(slot));
+        assertSame(SampleDataAdapter.ADAPTED, dataContext.getAnonymous(SampleData.class));
+    }
+
+    @Test
+    public void testDataNotEmittedByFlow() {
+        SlotDataContext dataContext = new SlotDataContext(flow);
+        assertEquals(-1, flow.getDataSlots().getSlot(new DataAdapterKey<>("", String.class)));
+        assertNull(dataContext.getAnonymous(String.class));
+
+        dataContext.put(new DataAdapterResult("implicit"));
+        assertEquals("implicit", dataContext.getAnonymous(String.class));
+    }
+
+    @Test
+    public void testMutation() {
+        List<DataAdapterResult> mutations = new ArrayList<>();
+        SlotDataContext dataContext = new SlotDataContext(flow);
+        dataContext.addMutationListener(mutations::add);
+
+        SampleData first = new SampleData();
+        SampleData second = new SampleData();
+        dataContext.put(new DataAdapterResult(first));
+        assertEquals(0, mutations.size());
+
+        dataContext.put(new DataAdapterResult(second));
+        assertEquals(1, mutations.size());
+        assertSame(second, mutations.get(0).getResult());
+        assertSame(second, dataContext.getAnonymous(SampleData.class));
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.execution;
+
+import flipkart.tef.TestTefContext;
+import flipkart.tef.annotations.DependsOn;
+import flipkart.tef.bizlogics.IBizlogic;
+import flipkart.tef.bizlogics.TefContext;
+import flipkart.tef.flow.SimpleFlow;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class VirtualThreadsTest {
+
+    // static so that the bizlogics can access
+    private static List<String> threadNames;
+
+    private ExecutorService executorService;
+
+    @Before
+    public void setUp() {
+        threadNames = Collections.synchronizedList(new ArrayList<>());
+        executorService = VirtualThreads.newExecutor("tef-test-");
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testIsSupported() {
+        boolean atLeastJava21;
+        try {
+            Thread.class.getMethod("ofVirtual");
+            atLeastJava21 = true;
+        } catch (NoSuchMethodException e) {
+            atLeastJava21 = false;
+        }
+        // Java 19 and 20 have virtual threads as a preview feature
+        if (!atLeastJava21) {
+            assertFalse(VirtualThreads.isSupported());
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFlowIsExecutedOnTheBackend() throws Exception {
+        FlowBuilder flowBuilder = new FlowBuilder();
+        flowBuilder.add(Bizlogic1.class);
+        flowBuilder.add(Bizlogic2.class);
+        SimpleFlow flow = flowBuilder.build();
+
+        new ParallelFlowExecutor(flow, new DataContext(), new TestTefContext(), executorService).execute();
+
+        assertEquals(2, threadNames.size());
+        for (String threadName : threadNames) {
+            assertTrue(threadName, threadName.startsWith("tef-test-"));
+        }
+    }
+
+    public static class Bizlogic1 implements IBizlogic {
+
+        @Override
+        public void execute(TefContext tefContext) {
+            threadNames.add(Thread.currentThread().getName());
+        }
+    }
+
+    @DependsOn(Bizlogic1.class)
+    public static class Bizlogic2 implements IBizlogic {
+
+        @Override
+        public void execute(TefContext tefContext) {
+            threadNames.add(Thread.currentThread().getName());
+        }
+    }
+}
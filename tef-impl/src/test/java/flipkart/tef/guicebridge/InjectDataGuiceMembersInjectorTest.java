@@ -6,8 +6,10 @@ import com.google.inject.Injector;
 import com.google.inject.ProvisionException;
 import com.google.inject.matcher.Matchers;
 import flipkart.tef.annotations.InjectData;
+import flipkart.tef.bizlogics.AsyncDataAdapterBizlogic;
 import flipkart.tef.bizlogics.DataAdapterKey;
 import flipkart.tef.bizlogics.DataAdapterResult;
+import flipkart.tef.bizlogics.TefContext;
 import flipkart.tef.exception.TefExecutionException;
 import flipkart.tef.execution.DataContext;
 import flipkart.tef.execution.InjectableValueProvider;
@@ -16,7 +18,15 @@ import org.junit.Test;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -134,6 +144,124 @@ public class InjectDataGuiceMembersInjectorTest {
     }
 
 
+    @Test
+    public void testScopeIsCarriedToExecutorThreads() throws Exception {
+
+        Injector rootInjector = Guice.createInjector(new GuiceBridgeModule(), new AbstractModule() {
+            @Override
+            protected void configure() {
+                bindListener(Matchers.any(), new TypeListenerForDataInjection());
+            }
+        });
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        // Create the thread of the pool before entering the scope
+        executorService.submit(() -> {
+        }).get();
+
+        Long threadId = Thread.currentThread().getId();
+        try (TefGuiceScope scope = rootInjector.getInstance(TefGuiceScope.class)) {
+            DataContext dataContext = new DataContext();
+            dataContext.put(new DataAdapterResult(new SimpleData()));
+            dataContext.put(new DataAdapterResult(threadId));
+            scope.open((fieldType, name) -> dataContext.get(new DataAdapterKey<>(name, fieldType)));
+
+            List<SimpleInterface> results = new ArrayList<>();
+            Executor executor = scope.wrap(executorService);
+            executor.execute(() -> results.add(rootInjector.getInstance(SimpleInterface.class)));
+
+            // The tasks submitted without the wrapper do not see the scope
+            Future<?> unscoped = executorService.submit(() -> rootInjector.getInstance(SimpleInterface.class));
+            try {
+                unscoped.get();
+                Assert.fail("Injection should have failed");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof ProvisionException);
+            }
+
+            assertEquals(1, results.size());
+            assertNotNull("Data injection failed", results.get(0).simpleData);
+            assertEquals(threadId, results.get(0).threadId);
+        } finally {
+            executorService.shutdown();
+            executorService.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+
+    @Test
+    public void testSnapshotIsRestored() throws Exception {
+
+        Injector rootInjector = Guice.createInjector(new GuiceBridgeModule(), new AbstractModule() {
+            @Override
+            protected void configure() {
+                bindListener(Matchers.any(), new TypeListenerForDataInjection());
+            }
+        });
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        Long threadId = Thread.currentThread().getId();
+        try (TefGuiceScope scope = rootInjector.getInstance(TefGuiceScope.class)) {
+            assertTrue(scope.snapshot().isEmpty());
+
+            DataContext dataContext = new DataContext();
+            dataContext.put(new DataAdapterResult(new SimpleData()));
+            dataContext.put(new DataAdapterResult(threadId));
+            scope.open((fieldType, name) -> dataContext.get(new DataAdapterKey<>(name, fieldType)));
+            TefGuiceScope.Snapshot snapshot = scope.snapshot();
+
+            SimpleInterface result = executorService.submit(() -> {
+                try (TefGuiceScope.Restoration ignored = snapshot.restore()) {
+                    return rootInjector.getInstance(SimpleInterface.class);
+                }
+            }).get();
+            assertEquals(threadId, result.threadId);
+
+            // The scope is removed from the pool thread once the restoration is closed
+            assertTrue(executorService.submit(() -> scope.snapshot().isEmpty()).get());
+
+            // Async stages of a CompletableFuture are submitted by the thread completing the previous stage
+            SimpleInterface stageResult = scope.supplyAsync(() -> rootInjector.getInstance(SimpleInterface.class), executorService)
+                    .thenApplyAsync(ignored -> rootInjector.getInstance(SimpleInterface.class), snapshot.wrap(executorService))
+                    .get(5, TimeUnit.SECONDS);
+            assertNotNull("Data injection failed", stageResult.simpleData);
+            assertEquals(threadId, stageResult.threadId);
+        } finally {
+            executorService.shutdown();
+            executorService.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testAsyncDataAdapterCanUseInjectedData() throws Exception {
+
+        Injector rootInjector = Guice.createInjector(new GuiceBridgeModule(), new AbstractModule() {
+            @Override
+            protected void configure() {
+                bindListener(Matchers.any(), new TypeListenerForDataInjection());
+            }
+        });
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        Long threadId = Thread.currentThread().getId();
+        try (TefGuiceScope scope = rootInjector.getInstance(TefGuiceScope.class)) {
+            DataContext dataContext = new DataContext();
+            dataContext.put(new DataAdapterResult(new SimpleData()));
+            dataContext.put(new DataAdapterResult(threadId));
+            scope.open((fieldType, name) -> dataContext.get(new DataAdapterKey<>(name, fieldType)));
+
+            TefContext tefContext = new TefContext(new HashMap<>(), rootInjector, Throwable::printStackTrace);
+            Optional<SimpleInterface> result = new SimpleAsyncDataAdapter(rootInjector, executorService)
+                    .adapt(tefContext).get(5, TimeUnit.SECONDS);
+            assertTrue(result.isPresent());
+            assertEquals(threadId, result.get().threadId);
+        } finally {
+            executorService.shutdown();
+            executorService.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+
     @Test
     public void testSubTypeMatcher() {
 
@@ -228,6 +356,20 @@ public class InjectDataGuiceMembersInjectorTest {
         private Long threadId;
     }
 
+    static class SimpleAsyncDataAdapter extends AsyncDataAdapterBizlogic<Future<Optional<SimpleInterface>>, SimpleInterface> {
+        private final Injector injector;
+
+        SimpleAsyncDataAdapter(Injector injector, ExecutorService executorService) {
+            super(executorService, true);
+            this.injector = injector;
+        }
+
+        @Override
+        public SimpleInterface getResult(TefContext tefContext) {
+            return injector.getInstance(SimpleInterface.class);
+        }
+    }
+
     @TefRequestScoped
     static class SimpleInterface3 {
         @InjectData
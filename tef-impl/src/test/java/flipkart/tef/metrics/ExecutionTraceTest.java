@@ -0,0 +1,178 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.metrics;
+
+import com.google.inject.Guice;
+import flipkart.tef.TestGuiceModule;
+import flipkart.tef.annotations.EmitData;
+import flipkart.tef.annotations.InjectData;
+import flipkart.tef.bizlogics.DataAdapterBizlogic;
+import flipkart.tef.bizlogics.DataAdapterKey;
+import flipkart.tef.bizlogics.IBizlogic;
+import flipkart.tef.bizlogics.TefContext;
+import flipkart.tef.exception.ErrorCode;
+import flipkart.tef.exception.TefExecutionException;
+import flipkart.tef.execution.DataContext;
+import flipkart.tef.execution.FlowExecutor;
+import flipkart.tef.execution.FluentCapabilityBuilder;
+import flipkart.tef.flow.SimpleFlow;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ExecutionTraceTest {
+
+    private ExecutionTrace trace;
+
+    @Before
+    public void setUp() {
+        trace = new ExecutionTrace();
+    }
+
+    @Test
+    public void testSpans() throws Exception {
+        execute(flow());
+
+        List<ExecutionTrace.Span> spans = trace.getSpans();
+        assertEquals(4, spans.size());
+        int resolutions = 0;
+        for (ExecutionTrace.Span span : spans) {
+            assertEquals("SUCCESS", span.getOutcome());
+            assertTrue(span.getDurationNanos() >= 0);
+            if (span.getKind() == ExecutionTrace.Kind.RESOLUTION) {
+                resolutions++;
+                assertEquals(SlowAdapter.class, span.getBizlogicClass());
+                assertTrue(span.isCacheHit());
+                assertEquals(DataAdapterKey.of("slow", String.class), span.getKey());
+            }
+        }
+        assertEquals(1, resolutions);
+    }
+
+    @Test
+    public void testCriticalPath() throws Exception {
+        SimpleFlow flow = flow();
+        execute(flow);
+
+        List<ExecutionTrace.Span> criticalPath = trace.getCriticalPath(flow.getGraph());
+        assertEquals(2, criticalPath.size());
+        assertEquals(SlowAdapter.class, criticalPath.get(0).getBizlogicClass());
+        assertEquals(ConsumerBizlogic.class, criticalPath.get(1).getBizlogicClass());
+        assertEquals(ExecutionTrace.Kind.EXECUTION, criticalPath.get(0).getKind());
+    }
+
+    @Test
+    public void testChromeTrace() throws Exception {
+        SimpleFlow flow = flow();
+        execute(flow);
+
+        StringWriter writer = new StringWriter();
+        trace.writeChromeTrace(writer, flow.getGraph());
+        String json = writer.toString();
+
+        assertTrue(json.startsWith("{\"displayTimeUnit\":\"ms\",\"traceEvents\":["));
+        assertTrue(json.contains("\"name\":\"SlowAdapter\",\"cat\":\"execution\""));
+        assertTrue(json.contains("\"name\":\"SlowAdapter\",\"cat\":\"resolution\""));
+        assertTrue(json.contains("\"ph\":\"X\""));
+        assertTrue(json.contains("\"name\":\"thread_name\""));
+        assertTrue(json.contains("\"data\":\"slow:java.lang.String\""));
+        assertTrue(json.contains("\"critical\":true"));
+        assertTrue(json.contains("\"critical\":false"));
+    }
+
+    @Test
+    public void testFailedSpan() throws Exception {
+        FluentCapabilityBuilder flowBuilder = new FluentCapabilityBuilder();
+        flowBuilder.withBizlogic(FailingBizlogic.class);
+        try {
+            execute(flowBuilder.dataflow());
+            fail("Exception was expected");
+        } catch (TefExecutionException e) {
+            assertEquals(1, trace.getSpans().size());
+            assertEquals("NON_RETRYABLE", trace.getSpans().get(0).getOutcome());
+        }
+    }
+
+    private SimpleFlow flow() {
+        FluentCapabilityBuilder flowBuilder = new FluentCapabilityBuilder();
+        flowBuilder.withAdapter(SlowAdapter.class);
+        flowBuilder.withBizlogic(ConsumerBizlogic.class);
+        flowBuilder.withBizlogic(IndependentBizlogic.class);
+        return flowBuilder.dataflow();
+    }
+
+    private void execute(SimpleFlow flow) throws Exception {
+        FlowExecutor executor = new FlowExecutor(flow, new DataContext(),
+                new TefContext(new HashMap<>(), Guice.createInjector(new TestGuiceModule()), e -> {
+                }));
+        executor.addListener(trace);
+        executor.execute();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @EmitData(name = "slow")
+    public static class SlowAdapter extends DataAdapterBizlogic<String> {
+
+        @Override
+        public String adapt(TefContext tefContext) {
+            sleep(30);
+            return "slow";
+        }
+    }
+
+    public static class ConsumerBizlogic implements IBizlogic {
+
+        @InjectData(name = "slow")
+        String data;
+
+        @Override
+        public void execute(TefContext tefContext) {
+            sleep(1);
+        }
+    }
+
+    public static class IndependentBizlogic implements IBizlogic {
+
+        @Override
+        public void execute(TefContext tefContext) {
+            sleep(5);
+        }
+    }
+
+    public static class FailingBizlogic implements IBizlogic {
+
+        @Override
+        public void execute(TefContext tefContext) throws TefExecutionException {
+            throw new TefExecutionException("failed", ErrorCode.NON_RETRYABLE);
+        }
+    }
+}
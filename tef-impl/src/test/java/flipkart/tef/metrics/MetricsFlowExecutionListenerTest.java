@@ -0,0 +1,149 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.metrics;
+
+import com.google.inject.Guice;
+import flipkart.tef.TestGuiceModule;
+import flipkart.tef.annotations.EmitData;
+import flipkart.tef.annotations.InjectData;
+import flipkart.tef.bizlogics.DataAdapterBizlogic;
+import flipkart.tef.bizlogics.IBizlogic;
+import flipkart.tef.bizlogics.TefContext;
+import flipkart.tef.exception.ErrorCode;
+import flipkart.tef.exception.TefExecutionException;
+import flipkart.tef.execution.DataContext;
+import flipkart.tef.execution.FlowExecutor;
+import flipkart.tef.execution.FluentCapabilityBuilder;
+import flipkart.tef.flow.SimpleFlow;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MetricsFlowExecutionListenerTest {
+
+    private MetricsFlowExecutionListener listener;
+
+    @Before
+    public void setUp() {
+        listener = new MetricsFlowExecutionListener();
+    }
+
+    @Test
+    public void testLatencyAndSuccessCountsAreRecorded() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            execute(SleepingAdapter.class, ConsumerBizlogic.class);
+        }
+
+        MetricsFlowExecutionListener.Snapshot adapter = listener.getSnapshot(SleepingAdapter.class);
+        // The adapter is also notified while its data is injected in the consumer, as a cache hit
+        assertEquals(6, adapter.getSuccessCount());
+        assertEquals(0, adapter.getFailureCount());
+        assertEquals(3, adapter.getCacheHitCount());
+        assertTrue(adapter.getMax() >= TimeUnit.MILLISECONDS.toNanos(5));
+
+        MetricsFlowExecutionListener.Snapshot consumer = listener.getSnapshot(ConsumerBizlogic.class);
+        assertEquals(3, consumer.getSuccessCount());
+        assertTrue(consumer.getP50() <= consumer.getP99());
+        assertTrue(consumer.getP99() <= consumer.getMax());
+
+        Map<Class<?>, MetricsFlowExecutionListener.Snapshot> snapshot = listener.snapshot();
+        assertEquals(2, snapshot.size());
+    }
+
+    @Test
+    public void testFailuresAreRecorded() throws Exception {
+        try {
+            execute(FailingBizlogic.class);
+            fail("Exception was expected");
+        } catch (TefExecutionException e) {
+            assertEquals(ErrorCode.NON_RETRYABLE, e.getErrorCode());
+        }
+
+        MetricsFlowExecutionListener.Snapshot snapshot = listener.getSnapshot(FailingBizlogic.class);
+        assertEquals(0, snapshot.getSuccessCount());
+        assertEquals(1, snapshot.getFailureCount());
+        assertEquals(0, snapshot.getCacheHitCount());
+    }
+
+    @Test
+    public void testReset() throws Exception {
+        execute(ConsumerBizlogic.class);
+        listener.reset();
+
+        assertNull(listener.getSnapshot(ConsumerBizlogic.class));
+        assertTrue(listener.snapshot().isEmpty());
+    }
+
+    @SafeVarargs
+    private final void execute(Class<? extends IBizlogic>... bizlogics) throws Exception {
+        FluentCapabilityBuilder flowBuilder = new FluentCapabilityBuilder();
+        for (Class<? extends IBizlogic> bizlogic : bizlogics) {
+            if (DataAdapterBizlogic.class.isAssignableFrom(bizlogic)) {
+                flowBuilder.withAdapter(bizlogic.asSubclass(DataAdapterBizlogic.class));
+            } else {
+                flowBuilder.withBizlogic(bizlogic);
+            }
+        }
+        SimpleFlow flow = flowBuilder.dataflow();
+
+        FlowExecutor executor = new FlowExecutor(flow, new DataContext(),
+                new TefContext(new HashMap<>(), Guice.createInjector(new TestGuiceModule()), e -> {
+                }));
+        executor.addListener(listener);
+        executor.execute();
+    }
+
+    @EmitData(name = "slept")
+    public static class SleepingAdapter extends DataAdapterBizlogic<String> {
+
+        @Override
+        public String adapt(TefContext tefContext) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "slept";
+        }
+    }
+
+    public static class ConsumerBizlogic implements IBizlogic {
+
+        @InjectData(name = "slept", optional = true, nullable = true)
+        String data;
+
+        @Override
+        public void execute(TefContext tefContext) {
+        }
+    }
+
+    public static class FailingBizlogic implements IBizlogic {
+
+        @Override
+        public void execute(TefContext tefContext) throws TefExecutionException {
+            throw new TefExecutionException("failed", ErrorCode.NON_RETRYABLE);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.processor;
+
+import flipkart.tef.annotations.InjectData;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generates a {@code flipkart.tef.execution.DataInjector} for every class which declares {@link InjectData} fields.
+ * The generated injector writes the fields declared in that class directly, instead of discovering them via reflection
+ * on every execution, and looks up the data via {@code DataAdapterKey} constants which are resolved once per class.
+ * The injectors are picked up by {@code DefaultDataInjector} at runtime.
+ * <p>
+ * An injector is only generated if all the {@link InjectData} fields of the class can be written from its package,
+ * i.e. the class is not private, and the fields are neither private, static nor final.
+ * Other classes are reported as a note, and are injected via reflection.
+ * <p>
+ * Date: 17/10/26
+ */
+@SupportedAnnotationTypes("flipkart.tef.annotations.InjectData")
+public class InjectDataProcessor extends AbstractProcessor {
+
+    /**
+     * Suffix of the generated injectors. Should be kept in sync with {@code GeneratedDataInjectors} in tef-impl.
+     */
+    static final String SUFFIX = "_TefDataInjector";
+
+    private final Set<String> processed = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<TypeElement> bizlogics = new LinkedHashSet<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(InjectData.class)) {
+            if (element.getKind() == ElementKind.FIELD) {
+                bizlogics.add((TypeElement) element.getEnclosingElement());
+            }
+        }
+
+        for (TypeElement bizlogic : bizlogics) {
+            if (processed.add(bizlogic.getQualifiedName().toString())) {
+                process(bizlogic);
+            }
+        }
+        return false;
+    }
+
+    private void process(TypeElement bizlogic) {
+        List<VariableElement> fields = new ArrayList<>();
+        for (VariableElement field : ElementFilter.fieldsIn(bizlogic.getEnclosedElements())) {
+            if (field.getAnnotation(InjectData.class) != null) {
+                String reason = getReasonForNotWritable(field);
+                if (reason != null) {
+                    note(bizlogic, String.format(Messages.INJECTOR_NOT_GENERATED, bizlogic.getQualifiedName(), reason));
+                    return;
+                }
+                fields.add(field);
+            }
+        }
+
+        String reason = getReasonForNotAccessible(bizlogic);
+        if (reason != null) {
+            note(bizlogic, String.format(Messages.INJECTOR_NOT_GENERATED, bizlogic.getQualifiedName(), reason));
+            return;
+        }
+
+        try {
+            write(bizlogic, fields);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    String.format(Messages.UNABLE_TO_WRITE_INJECTOR, bizlogic.getQualifiedName(), e.getMessage()), bizlogic);
+        }
+    }
+
+    private String getReasonForNotWritable(VariableElement field) {
+        Set<Modifier> modifiers = field.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE)) {
+            return "field " + field.getSimpleName() + " is private";
+        } else if (modifiers.contains(Modifier.STATIC)) {
+            return "field " + field.getSimpleName() + " is static";
+        } else if (modifiers.contains(Modifier.FINAL)) {
+            return "field " + field.getSimpleName() + " is final";
+        }
+
+        TypeMirror type = processingEnv.getTypeUtils().erasure(field.asType());
+        if (type.getKind() == TypeKind.DECLARED) {
+            return getReasonForNotAccessible((TypeElement) ((DeclaredType) type).asElement());
+        }
+        return null;
+    }
+
+    private String getReasonForNotAccessible(TypeElement type) {
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            TypeElement typeElement = (TypeElement) element;
+            if (typeElement.getNestingKind() != NestingKind.TOP_LEVEL && typeElement.getNestingKind() != NestingKind.MEMBER) {
+                return typeElement.getQualifiedName() + " is a local or anonymous class";
+            } else if (typeElement.getModifiers().contains(Modifier.PRIVATE)) {
+                return typeElement.getQualifiedName() + " is private";
+            }
+        }
+        return null;
+    }
+
+    private void write(TypeElement bizlogic, List<VariableElement> fields) throws IOException {
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(bizlogic);
+        String packageName = packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+        String injectorName = getInjectorName(bizlogic);
+        String bizlogicType = processingEnv.getTypeUtils().erasure(bizlogic.asType()).toString();
+
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(
+                packageName.isEmpty() ? injectorName : packageName + "." + injectorName, bizlogic);
+        try (PrintWriter out = new PrintWriter(file.openWriter())) {
+            if (!packageName.isEmpty()) {
+                out.println("package " + packageName + ";");
+                out.println();
+            }
+            out.println("/**");
+            out.println(" * Injects the data into the fields declared in {@link " + bizlogicType + "}.");
+            out.println(" * Generated by " + InjectDataProcessor.class.getName() + ", do not edit.");
+            out.println(" */");
+            out.println("@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+            out.println("public final class " + injectorName + " implements flipkart.tef.execution.DataInjector {");
+            out.println();
+            for (VariableElement field : fields) {
+                out.println("    private static final flipkart.tef.bizlogics.DataAdapterKey<?> " + getKeyName(field)
+                        + " = flipkart.tef.bizlogics.DataAdapterKey.of(" + toLiteral(field.getAnnotation(InjectData.class).name())
+                        + ", " + processingEnv.getTypeUtils().erasure(field.asType()) + ".class);");
+            }
+            if (!fields.isEmpty()) {
+                out.println();
+            }
+            out.println("    @Override");
+            out.println("    public void injectData(Object bizlogic, Class<?> bizlogicClass, flipkart.tef.execution.InjectableValueProvider valueProvider)");
+            out.println("            throws flipkart.tef.execution.DataDependencyException, flipkart.tef.exception.TefExecutionException {");
+            out.println("        " + bizlogicType + " instance = (" + bizlogicType + ") bizlogic;");
+            out.println("        Object value;");
+            for (VariableElement field : fields) {
+                InjectData injectable = field.getAnnotation(InjectData.class);
+                String fieldType = getBoxedErasure(field.asType()).toString();
+                out.println();
+                out.println("        value = valueProvider.getValueToInject(" + getKeyName(field) + ");");
+                if (!(injectable.nullable() || injectable.optional())) {
+                    out.println("        if (value == null) {");
+                    out.println("            throw new flipkart.tef.execution.DataDependencyException(String.format(\""
+                            + Messages.INJECTABLE_CANNOT_BE_NULL + "\", \"" + field.getSimpleName() + "\", bizlogicClass.getName()));");
+                    out.println("        }");
+                }
+                out.println("        instance." + field.getSimpleName() + " = (" + fieldType + ") value;");
+            }
+            out.println("    }");
+            out.println("}");
+        }
+    }
+
+    /**
+     * @return The name of the constant holding the key of the data injected into the field
+     */
+    private static String getKeyName(VariableElement field) {
+        return "KEY_" + field.getSimpleName();
+    }
+
+    private TypeMirror getBoxedErasure(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass(processingEnv.getTypeUtils().getPrimitiveType(type.getKind())).asType();
+        }
+        return processingEnv.getTypeUtils().erasure(type);
+    }
+
+    /**
+     * The name of the injector is the name of the bizlogic, prefixed with the names of the enclosing classes
+     * separated by an underscore. e.g. {@code Outer_Inner_TefDataInjector} for {@code Outer.Inner}
+     */
+    static String getInjectorName(TypeElement bizlogic) {
+        StringBuilder name = new StringBuilder(bizlogic.getSimpleName());
+        for (Element element = bizlogic.getEnclosingElement(); element instanceof TypeElement; element = element.getEnclosingElement()) {
+            name.insert(0, '_').insert(0, element.getSimpleName());
+        }
+        return name.append(SUFFIX).toString();
+    }
+
+    private static String toLiteral(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                literal.append('\\').append(c);
+            } else if (c < 0x20 || c > 0x7e) {
+                literal.append(String.format("\\u%04x", (int) c));
+            } else {
+                literal.append(c);
+            }
+        }
+        return literal.append('"').toString();
+    }
+
+    private void note(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, message, element);
+    }
+
+    static class Messages {
+        public static final String INJECTOR_NOT_GENERATED = "Data injector is not generated for %s, since %s. Data will be injected via reflection";
+        public static final String UNABLE_TO_WRITE_INJECTOR = "Unable to write data injector for %s: %s";
+
+        /**
+         * Same as the message thrown by DefaultDataInjector
+         */
+        public static final String INJECTABLE_CANNOT_BE_NULL = "Injectable Data %s cannot be null in %s";
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ *Copyright [2024] [The Original Author]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flipkart.tef.processor;
+
+import flipkart.tef.bizlogics.DataAdapterKey;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class InjectDataProcessorTest {
+
+    /**
+     * Stubs of the tef-impl types which the generated injectors implement and call. tef-impl is not available to this
+     * module (it depends upon this module for its tests), so the stubs should be kept in sync with it.
+     */
+    private static final List<SourceFile> TEF_IMPL_STUBS = Arrays.asList(
+            new SourceFile("flipkart.tef.execution.DataInjector", "package flipkart.tef.execution;\n" +
+                    "public interface DataInjector {\n" +
+                    "    void injectData(Object bizlogic, Class<?> bizlogicClass, InjectableValueProvider valueProvider)\n" +
+                    "            throws DataDependencyException, IllegalAccessException, flipkart.tef.exception.TefExecutionException;\n" +
+                    "}\n"),
+            new SourceFile("flipkart.tef.execution.InjectableValueProvider", "package flipkart.tef.execution;\n" +
+                    "public interface InjectableValueProvider {\n" +
+                    "    Object getValueToInject(Class<?> fieldType, String name) throws flipkart.tef.exception.TefExecutionException;\n" +
+                    "    Object getValueToInject(flipkart.tef.bizlogics.DataAdapterKey<?> key) throws flipkart.tef.exception.TefExecutionException;\n" +
+                    "}\n"),
+            new SourceFile("flipkart.tef.execution.DataDependencyException", "package flipkart.tef.execution;\n" +
+                    "public class DataDependencyException extends Exception {\n" +
+                    "    public DataDependencyException(String message) {\n" +
+                    "        super(message);\n" +
+                    "    }\n" +
+                    "}\n"));
+
+    private File generated;
+    private File classes;
+
+    @Before
+    public void setUp() throws IOException {
+        generated = Files.createTempDirectory("tef-processor").toFile();
+        classes = Files.createTempDirectory("tef-processor-classes").toFile();
+    }
+
+    @Test
+    public void testInjectorIsGenerated() throws IOException {
+        DiagnosticCollector<JavaFileObject> diagnostics = process("sample.Sample",
+                "package sample;\n" +
+                        "import flipkart.tef.annotations.InjectData;\n" +
+                        "public class Sample {\n" +
+                        "    public static class Inner {\n" +
+                        "        @InjectData String data;\n" +
+                        "        @InjectData(name = \"count\", nullable = true) int count;\n" +
+                        "        String notInjected;\n" +
+                        "    }\n" +
+                        "}\n");
+
+        assertTrue(diagnostics.getDiagnostics().isEmpty());
+        File injector = new File(generated, "sample/Sample_Inner" + InjectDataProcessor.SUFFIX + ".java");
+        assertTrue(injector.exists());
+
+        String source = new String(Files.readAllBytes(injector.toPath()), StandardCharsets.UTF_8);
+        assertTrue(source.contains("public final class Sample_Inner_TefDataInjector implements flipkart.tef.execution.DataInjector"));
+        assertTrue(source.contains("private static final flipkart.tef.bizlogics.DataAdapterKey<?> KEY_data = flipkart.tef.bizlogics.DataAdapterKey.of(\"\", java.lang.String.class);"));
+        assertTrue(source.contains("private static final flipkart.tef.bizlogics.DataAdapterKey<?> KEY_count = flipkart.tef.bizlogics.DataAdapterKey.of(\"count\", int.class);"));
+        assertTrue(source.contains("value = valueProvider.getValueToInject(KEY_data);"));
+        assertTrue(source.contains("instance.data = (java.lang.String) value;"));
+        assertTrue(source.contains("value = valueProvider.getValueToInject(KEY_count);"));
+        assertTrue(source.contains("instance.count = (java.lang.Integer) value;"));
+        assertFalse(source.contains("notInjected"));
+        // only the non nullable injection is checked for null
+        assertEquals(source.indexOf("if (value == null)"), source.lastIndexOf("if (value == null)"));
+    }
+
+    @Test
+    public void testGeneratedInjectorInjectsViaKeys() throws Exception {
+        process("sample.Sample",
+                "package sample;\n" +
+                        "import flipkart.tef.annotations.InjectData;\n" +
+                        "public class Sample {\n" +
+                        "    @InjectData String data;\n" +
+                        "    @InjectData(name = \"count\") int count;\n" +
+                        "}\n");
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{classes.toURI().toURL()}, getClass().getClassLoader())) {
+            Class<?> bizlogicClass = classLoader.loadClass("sample.Sample");
+            Object bizlogic = bizlogicClass.newInstance();
+            Class<?> providerClass = classLoader.loadClass("flipkart.tef.execution.InjectableValueProvider");
+            List<DataAdapterKey<?>> requested = new ArrayList<>();
+            Object valueProvider = Proxy.newProxyInstance(classLoader, new Class<?>[]{providerClass}, (proxy, method, args) -> {
+                assertEquals(1, args.length);
+                DataAdapterKey<?> key = (DataAdapterKey<?>) args[0];
+                requested.add(key);
+                return key.getResultClass() == int.class ? (Object) 7 : "value";
+            });
+
+            Object injector = classLoader.loadClass("sample.Sample" + InjectDataProcessor.SUFFIX).newInstance();
+            Method injectData = injector.getClass().getMethod("injectData", Object.class, Class.class, providerClass);
+            injectData.invoke(injector, bizlogic, bizlogicClass, valueProvider);
+
+            assertEquals(Arrays.asList(DataAdapterKey.of("", String.class), DataAdapterKey.of("count", int.class)), requested);
+            Field data = bizlogicClass.getDeclaredField("data");
+            Field count = bizlogicClass.getDeclaredField("count");
+            data.setAccessible(true);
+            count.setAccessible(true);
+            assertEquals("value", data.get(bizlogic));
+            assertEquals(7, count.get(bizlogic));
+        }
+    }
+
+    @Test
+    public void testInjectorIsNotGeneratedForPrivateField() throws IOException {
+        DiagnosticCollector<JavaFileObject> diagnostics = process("sample.Sample",
+                "package sample;\n" +
+                        "import flipkart.tef.annotations.InjectData;\n" +
+                        "public class Sample {\n" +
+                        "    @InjectData private String data;\n" +
+                        "}\n");
+
+        assertEquals(1, diagnostics.getDiagnostics().size());
+        Diagnostic<? extends JavaFileObject> diagnostic = diagnostics.getDiagnostics().get(0);
+        assertEquals(Diagnostic.Kind.NOTE, diagnostic.getKind());
+        assertEquals(String.format(InjectDataProcessor.Messages.INJECTOR_NOT_GENERATED, "sample.Sample", "field data is private"),
+                diagnostic.getMessage(null));
+        assertFalse(new File(generated, "sample/Sample" + InjectDataProcessor.SUFFIX + ".java").exists());
+    }
+
+    /**
+     * Runs the processor on the given source, and compiles the source along with the generated injectors against the
+     * stubs of tef-impl. Fails if the compilation reports an error.
+     */
+    private DiagnosticCollector<JavaFileObject> process(String className, String source) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        List<SourceFile> sources = new ArrayList<>(TEF_IMPL_STUBS);
+        sources.add(new SourceFile(className, source));
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            fileManager.setLocation(StandardLocation.SOURCE_OUTPUT, Collections.singletonList(generated));
+            fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singletonList(classes));
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                    Arrays.asList("-classpath", System.getProperty("java.class.path")), null, sources);
+            task.setProcessors(Collections.singletonList(new InjectDataProcessor()));
+            assertTrue(diagnostics.getDiagnostics().toString(), task.call());
+        }
+        return diagnostics;
+    }
+
+    private static class SourceFile extends SimpleJavaFileObject {
+        private final String source;
+
+        SourceFile(String className, String source) {
+            super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.source = source;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return source;
+        }
+    }
+}